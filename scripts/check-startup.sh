@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+# Startup-time check: starts the service several times, each exiting as soon as it is ready
+# (startup.exit=true), and fails when the median time to ready exceeds the budget.
+#
+#   scripts/check-startup.sh [path/to/app.jar]   # a jar built with -Pstartup; defaults to target/
+#   scripts/check-startup.sh --image <image>     # an image built from the Dockerfile
+#
+# A jar is started the way the Dockerfile starts it: unpacked into its layers, with Spring AOT and
+# a class-data-sharing archive recorded by an untimed training run, so both modes share a budget.
+# STARTUP_BUDGET_SECONDS (default 4) and STARTUP_RUNS (default 5) tune it.
+set -euo pipefail
+
+budget=${STARTUP_BUDGET_SECONDS:-4}
+runs=${STARTUP_RUNS:-5}
+credentials=(GEMINI_API_KEY=startup-check REDDIT_CLIENT_ID=startup-check REDDIT_CLIENT_SECRET=startup-check
+             REDDIT_USERNAME=startup-check REDDIT_PASSWORD=startup-check)
+workdir=$(mktemp -d)
+trap 'rm -rf "$workdir"' EXIT
+
+if [[ "${1:-}" == "--image" ]]; then
+    image=${2:?usage: $0 --image <image>}
+    docker_env=()
+    for credential in "${credentials[@]}"; do docker_env+=(-e "$credential"); done
+    start() { docker run --rm "${docker_env[@]}" "$image" --startup.exit=true --server.port=0; }
+else
+    jar=$(realpath "${1:-$(ls target/*.jar | head -n 1)}")
+    if ! unzip -l "$jar" | grep '__ApplicationContextInitializer' > /dev/null; then
+        echo "$jar has no Spring AOT classes; build it with: mvn package -Pstartup" >&2
+        exit 1
+    fi
+    # Same layout as the image: library jars plus the application classes repacked as a jar
+    app="$workdir/app"
+    (cd "$workdir" && java -Djarmode=layertools -jar "$jar" extract --destination extracted)
+    mkdir -p "$app/lib"
+    for layer in dependencies snapshot-dependencies; do
+        if [[ -d "$workdir/extracted/$layer/BOOT-INF/lib" ]]; then
+            cp "$workdir/extracted/$layer/BOOT-INF/lib/"*.jar "$app/lib/"
+        fi
+    done
+    jar --create --file "$app/application.jar" -C "$workdir/extracted/application/BOOT-INF/classes" .
+    launch=(-Dspring.aot.enabled=true -cp "$app/application.jar:$app/lib/*"
+            com.reddit.analysis.RedditAnalysisApplication --startup.exit=true --server.port=0)
+    # In a scratch directory so the data directories created at startup are thrown away
+    (cd "$workdir" && env "${credentials[@]}" java -XX:ArchiveClassesAtExit="$app/application.jsa" "${launch[@]}") > /dev/null 2>&1 \
+        || { echo "CDS training run failed" >&2; exit 1; }
+    start() { (cd "$workdir" && env "${credentials[@]}" java -XX:SharedArchiveFile="$app/application.jsa" "${launch[@]}"); }
+fi
+
+times=()
+for run in $(seq "$runs"); do
+    # Spring Boot logs "Started ... in X seconds (process running for Y)"; Y includes JVM startup
+    seconds=$(start 2>&1 | grep -o 'process running for [0-9.]*' | awk '{print $4}' || true)
+    if [[ -z "$seconds" ]]; then
+        echo "Run $run did not reach ready" >&2
+        exit 1
+    fi
+    echo "run $run: ${seconds}s"
+    times+=("$seconds")
+done
+
+median=$(printf '%s\n' "${times[@]}" | sort -n | awk '{t[NR] = $1} END {print (NR % 2 ? t[(NR + 1) / 2] : (t[NR / 2] + t[NR / 2 + 1]) / 2)}')
+echo "median time to ready: ${median}s (budget ${budget}s)"
+if ! awk -v median="$median" -v budget="$budget" 'BEGIN {exit !(median <= budget)}'; then
+    echo "Startup regression: ${median}s is over the ${budget}s budget" >&2
+    exit 1
+fi
@@ -0,0 +1,68 @@
+package com.reddit.analysis.service;
+
+import com.reddit.analysis.model.AnalysisStats;
+import com.reddit.analysis.model.PostBatch;
+import com.reddit.analysis.model.SentimentAnalysis;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataProcessingBenchmark {
+
+    @Param({"posts-100", "posts-5000", "thread-20000"})
+    public String corpus;
+
+    private final DataProcessingService dataProcessingService = new DataProcessingService();
+    private PostBatch batch;
+
+    @Setup
+    public void setUp() throws Exception {
+        String json = RedditCorpus.load(corpus);
+        RedditScrapingService scrapingService = new RedditScrapingService();
+        if (RedditCorpus.isThread(json)) {
+            batch = scrapingService.parseThreadJson(json);
+        } else {
+            PostBatch.Builder builder = new PostBatch.Builder();
+            scrapingService.parseRedditJson(json, builder);
+            batch = builder.build();
+        }
+    }
+
+    @Benchmark
+    public SentimentAnalysis analyzeSentiment() {
+        return dataProcessingService.analyzeSentiment(batch);
+    }
+
+    @Benchmark
+    public List<String> extractTopics() {
+        return dataProcessingService.extractTopics(batch);
+    }
+
+    @Benchmark
+    public Map<String, Integer> getKeywordFrequency() {
+        return dataProcessingService.getKeywordFrequency(batch, null);
+    }
+
+    @Benchmark
+    public Map<String, Integer> extractPhrases() {
+        return dataProcessingService.extractPhrases(batch, null);
+    }
+
+    @Benchmark
+    public AnalysisStats calculateStats() {
+        return dataProcessingService.calculateStats(batch);
+    }
+
+    @Benchmark
+    public String combinePostsText() {
+        return dataProcessingService.combinePostsText(batch);
+    }
+}
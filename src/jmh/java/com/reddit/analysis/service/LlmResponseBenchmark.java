@@ -0,0 +1,34 @@
+package com.reddit.analysis.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LlmResponseBenchmark {
+
+    private final LLMService llmService = new LLMService();
+    private String response;
+
+    @Setup
+    public void setUp() {
+        // Roughly the size and markdown density of a 1500-token Gemini answer
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            text.append("## Section ").append(i).append("\n")
+                    .append("**Key theme:** the community discusses *career growth* and `spring boot` upgrades. ")
+                    .append("See [the thread](https://reddit.com/r/java/comments/").append(i).append(") for details.\n\n");
+        }
+        response = text.toString();
+    }
+
+    @Benchmark
+    public String cleanResponse() {
+        return llmService.cleanResponse(response);
+    }
+}
@@ -0,0 +1,38 @@
+package com.reddit.analysis.service;
+
+import com.reddit.analysis.model.PostBatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParsingBenchmark {
+
+    @Param({"posts-100", "posts-5000", "thread-20000"})
+    public String corpus;
+
+    private final RedditScrapingService scrapingService = new RedditScrapingService();
+    private String json;
+    private boolean thread;
+
+    @Setup
+    public void setUp() throws Exception {
+        json = RedditCorpus.load(corpus);
+        thread = RedditCorpus.isThread(json);
+    }
+
+    @Benchmark
+    public PostBatch parse() throws Exception {
+        if (thread) {
+            return scrapingService.parseThreadJson(json);
+        }
+        PostBatch.Builder builder = new PostBatch.Builder();
+        scrapingService.parseRedditJson(json, builder);
+        return builder.build();
+    }
+}
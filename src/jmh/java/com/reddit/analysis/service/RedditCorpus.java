@@ -0,0 +1,136 @@
+package com.reddit.analysis.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Benchmark corpora in the shape of Reddit API responses. Synthetic corpora are generated
+ * deterministically; recorded ones are read from a listing or thread JSON file on disk
+ * (for example a response saved from the API or from a capture archive).
+ */
+final class RedditCorpus {
+
+    private static final String[] VOCABULARY = {
+            "the", "and", "for", "with", "this", "that", "have", "from", "your", "they",
+            "java", "spring", "boot", "python", "react", "docker", "kubernetes", "database", "backend", "frontend",
+            "interview", "salary", "career", "remote", "startup", "company", "project", "team", "experience", "skills",
+            "machine", "learning", "data", "engineering", "software", "development", "api", "microservices", "cloud", "aws",
+            "good", "great", "love", "helpful", "easy", "recommend", "success", "growth", "awesome", "best",
+            "bad", "problem", "issue", "bug", "error", "hard", "struggle", "stress", "fired", "broken",
+            "question", "anyone", "think", "really", "would", "about", "because", "still", "never", "today"
+    };
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private RedditCorpus() {}
+
+    static String load(String corpus) throws IOException {
+        if (corpus.startsWith("recorded:")) {
+            return Files.readString(Path.of(corpus.substring("recorded:".length())));
+        }
+        if (corpus.startsWith("posts-")) {
+            return listing(Integer.parseInt(corpus.substring("posts-".length())));
+        }
+        if (corpus.startsWith("thread-")) {
+            return thread(Integer.parseInt(corpus.substring("thread-".length())));
+        }
+        throw new IllegalArgumentException("Unknown corpus " + corpus);
+    }
+
+    static boolean isThread(String json) {
+        return json.trim().startsWith("[");
+    }
+
+    static String listing(int posts) throws IOException {
+        Random random = new Random(42);
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("kind", "Listing");
+        ArrayNode children = root.putObject("data").putArray("children");
+        for (int i = 0; i < posts; i++) {
+            children.add(post(random, i));
+        }
+        return MAPPER.writeValueAsString(root);
+    }
+
+    static String thread(int comments) throws IOException {
+        Random random = new Random(7);
+        ArrayNode root = MAPPER.createArrayNode();
+
+        ObjectNode postListing = root.addObject();
+        postListing.put("kind", "Listing");
+        postListing.putObject("data").putArray("children").add(post(random, 0));
+
+        ObjectNode commentListing = root.addObject();
+        commentListing.put("kind", "Listing");
+        ArrayNode topLevel = commentListing.putObject("data").putArray("children");
+        int[] remaining = {comments};
+        while (remaining[0] > 0) {
+            topLevel.add(comment(random, remaining, 0));
+        }
+        return MAPPER.writeValueAsString(root);
+    }
+
+    private static ObjectNode post(Random random, int index) {
+        ObjectNode child = MAPPER.createObjectNode();
+        child.put("kind", "t3");
+        ObjectNode data = child.putObject("data");
+        data.put("id", "p" + Integer.toString(index, 36));
+        data.put("title", sentence(random, 6 + random.nextInt(10)));
+        data.put("selftext", random.nextInt(5) == 0 ? "" : paragraph(random, 1 + random.nextInt(6)));
+        data.put("url", "https://www.reddit.com/r/bench/comments/" + index);
+        data.put("author", "user" + random.nextInt(Math.max(10, index / 3 + 10)));
+        data.put("ups", random.nextInt(5000));
+        data.put("num_comments", random.nextInt(400));
+        data.put("created_utc", 1_700_000_000L + index * 60L);
+        return child;
+    }
+
+    private static ObjectNode comment(Random random, int[] remaining, int depth) {
+        remaining[0]--;
+        ObjectNode child = MAPPER.createObjectNode();
+        child.put("kind", "t1");
+        ObjectNode data = child.putObject("data");
+        data.put("id", "c" + Integer.toString(remaining[0], 36));
+        data.put("author", "user" + random.nextInt(3000));
+        data.put("body", paragraph(random, 1 + random.nextInt(3)));
+        data.put("ups", random.nextInt(300));
+        data.put("created_utc", 1_700_000_000L + remaining[0]);
+
+        int replies = depth < 8 ? random.nextInt(4) : 0;
+        if (replies == 0 || remaining[0] == 0) {
+            data.put("replies", "");
+        } else {
+            ObjectNode listing = data.putObject("replies");
+            listing.put("kind", "Listing");
+            ArrayNode children = listing.putObject("data").putArray("children");
+            for (int i = 0; i < replies && remaining[0] > 0; i++) {
+                children.add(comment(random, remaining, depth + 1));
+            }
+        }
+        return child;
+    }
+
+    private static String paragraph(Random random, int sentences) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            text.append(sentence(random, 8 + random.nextInt(14))).append(' ');
+        }
+        return text.toString().trim();
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String word = VOCABULARY[random.nextInt(VOCABULARY.length)];
+            text.append(i == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+            text.append(i == words - 1 ? ". " : (random.nextInt(9) == 0 ? ", " : " "));
+        }
+        return text.toString().trim();
+    }
+}
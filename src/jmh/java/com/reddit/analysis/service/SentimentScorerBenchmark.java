@@ -0,0 +1,76 @@
+package com.reddit.analysis.service;
+
+import com.reddit.analysis.model.CommentBatch;
+import com.reddit.analysis.model.PostBatch;
+import com.reddit.analysis.sentiment.KeywordSentimentScorer;
+import com.reddit.analysis.sentiment.LinearSentimentScorer;
+import com.reddit.analysis.sentiment.SentimentScorer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Labels every post and comment of a corpus with each scorer. The linear model has random
+ * weights: its cost does not depend on their values, only on the number of feature buckets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SentimentScorerBenchmark {
+
+    @Param({"posts-5000", "thread-20000"})
+    public String corpus;
+
+    @Param({"keyword", "linear"})
+    public String scorer;
+
+    private SentimentScorer sentimentScorer;
+    private PostBatch batch;
+
+    @Setup
+    public void setUp() throws Exception {
+        String json = RedditCorpus.load(corpus);
+        RedditScrapingService scrapingService = new RedditScrapingService();
+        if (RedditCorpus.isThread(json)) {
+            batch = scrapingService.parseThreadJson(json);
+        } else {
+            PostBatch.Builder builder = new PostBatch.Builder();
+            scrapingService.parseRedditJson(json, builder);
+            batch = builder.build();
+        }
+        if ("linear".equals(scorer)) {
+            int bits = 18;
+            float[] weights = LinearSentimentScorer.newWeights(bits);
+            Random random = new Random(42);
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = (float) random.nextGaussian();
+            }
+            sentimentScorer = new LinearSentimentScorer(bits, weights);
+        } else {
+            sentimentScorer = new KeywordSentimentScorer();
+        }
+    }
+
+    @Benchmark
+    public int classifyAll() {
+        int positive = 0;
+        String text = batch.text();
+        for (int i = 0; i < batch.size(); i++) {
+            if (sentimentScorer.classify(text, batch.titleStart(i), batch.titleEnd(i),
+                    text, batch.contentStart(i), batch.contentEnd(i)) == PostBatch.SENTIMENT_POSITIVE) {
+                positive++;
+            }
+        }
+        CommentBatch comments = batch.comments();
+        for (int i = 0; i < comments.size(); i++) {
+            if (sentimentScorer.classify(comments.text(), comments.contentStart(i), comments.contentEnd(i)) == PostBatch.SENTIMENT_POSITIVE) {
+                positive++;
+            }
+        }
+        return positive;
+    }
+}
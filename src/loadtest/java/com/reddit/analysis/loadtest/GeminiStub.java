@@ -0,0 +1,75 @@
+package com.reddit.analysis.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Stand-in for the Gemini {@code models/*:generateContent} endpoint returning markdown-ish text. */
+final class GeminiStub {
+
+    private static final String[] SENTENCES = {
+            "The community is focused on **career growth** and interview preparation.",
+            "Several threads discuss *remote work* policies and salary expectations.",
+            "## Key themes\nFrameworks such as `Spring Boot` and React dominate technical questions.",
+            "Members frequently share [resources](https://example.com) for learning cloud platforms.",
+            "Sentiment is broadly positive, with recurring frustration about hiring processes.",
+            "Businesses could engage by offering mentorship and transparent job descriptions."
+    };
+
+    private final StubConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    GeminiStub(StubConfig config) {
+        this.config = config;
+    }
+
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(config.geminiPort), 256);
+        executor = Executors.newFixedThreadPool(config.threads);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+        if (!exchange.getRequestURI().getPath().endsWith(":generateContent")) {
+            StubSupport.send(exchange, 404, "{\"error\":{\"code\":404,\"status\":\"NOT_FOUND\"}}");
+            return;
+        }
+        StubSupport.delay(config.geminiLatencyMs, config.geminiLatencyJitterMs);
+        if (StubSupport.shouldFail(config.geminiErrorRate)) {
+            StubSupport.send(exchange, 503, "{\"error\":{\"code\":503,\"status\":\"UNAVAILABLE\"}}");
+            return;
+        }
+
+        StringBuilder text = new StringBuilder(config.geminiResponseChars + 128);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (text.length() < config.geminiResponseChars) {
+            text.append(SENTENCES[random.nextInt(SENTENCES.length)]).append(random.nextInt(4) == 0 ? "\n\n" : " ");
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode candidate = response.putArray("candidates").addObject();
+        candidate.putObject("content").put("role", "model").putArray("parts").addObject().put("text", text.toString());
+        candidate.put("finishReason", "STOP");
+        StubSupport.send(exchange, 200, objectMapper.writeValueAsBytes(response));
+    }
+}
@@ -0,0 +1,69 @@
+package com.reddit.analysis.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Latencies and outcomes for one endpoint over one reporting interval (or the whole run). */
+final class LatencyRecorder {
+
+    private long[] latenciesMicros = new long[1024];
+    private int count;
+    private int errors;
+    private final Map<String, Integer> errorsByKind = new TreeMap<>();
+
+    synchronized void success(long latencyMicros) {
+        add(latencyMicros);
+    }
+
+    synchronized void failure(long latencyMicros, String kind) {
+        add(latencyMicros);
+        errors++;
+        errorsByKind.merge(kind, 1, Integer::sum);
+    }
+
+    private void add(long latencyMicros) {
+        if (count == latenciesMicros.length) {
+            latenciesMicros = Arrays.copyOf(latenciesMicros, count * 2);
+        }
+        latenciesMicros[count++] = latencyMicros;
+    }
+
+    synchronized void mergeInto(LatencyRecorder total) {
+        synchronized (total) {
+            for (int i = 0; i < count; i++) {
+                total.add(latenciesMicros[i]);
+            }
+            total.errors += errors;
+            errorsByKind.forEach((kind, n) -> total.errorsByKind.merge(kind, n, Integer::sum));
+        }
+    }
+
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(latenciesMicros, count);
+        Arrays.sort(sorted);
+        return new Summary(count, errors, count / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), count == 0 ? 0 : sorted[count - 1],
+                new TreeMap<>(errorsByKind));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    record Summary(int requests, int errors, double throughput, long p50Micros, long p99Micros, long maxMicros,
+                   Map<String, Integer> errorsByKind) {
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+
+        String format() {
+            return String.format("%7d req  %8.1f rps  p50 %8.1fms  p99 %8.1fms  max %8.1fms  errors %5.2f%% %s",
+                    requests, throughput, p50Micros / 1000.0, p99Micros / 1000.0, maxMicros / 1000.0,
+                    errorRate() * 100, errorsByKind.isEmpty() ? "" : errorsByKind);
+        }
+    }
+}
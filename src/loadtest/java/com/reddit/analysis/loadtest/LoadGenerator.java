@@ -0,0 +1,155 @@
+package com.reddit.analysis.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the analysis endpoints. Requests are issued on a fixed schedule at the
+ * target rate regardless of how fast responses come back, and latency is measured from the scheduled
+ * send time, so a stalled server shows up as latency rather than as a quietly reduced request rate.
+ *
+ * <p>Configured with system properties:
+ * <ul>
+ *   <li>{@code loadtest.target} base URL of the application (default {@code http://localhost:8080})</li>
+ *   <li>{@code loadtest.rps} target request rate (default 10)</li>
+ *   <li>{@code loadtest.duration-seconds} measured duration (default 60) after {@code loadtest.warmup-seconds} (default 10)</li>
+ *   <li>{@code loadtest.paths} comma-separated request paths, picked round-robin; repeat a path to weight it</li>
+ *   <li>{@code loadtest.max-in-flight} requests beyond this are counted as dropped (default 2000)</li>
+ *   <li>{@code loadtest.timeout-ms} per-request timeout (default 60000)</li>
+ * </ul>
+ */
+public final class LoadGenerator {
+
+    private static final String DEFAULT_PATHS = String.join(",",
+            "/api/analyze-subreddit?subreddit=java&includeLlm=false",
+            "/api/analyze-subreddit?subreddit=programming&includeLlm=false",
+            "/api/analyze-thread?threadUrl=https://www.reddit.com/r/java/comments/abc123/stub/&includeLlm=false",
+            "/api/analyze-subreddit?subreddit=cscareerquestions");
+
+    private LoadGenerator() {}
+
+    public static void main(String[] args) throws Exception {
+        String target = System.getProperty("loadtest.target", "http://localhost:8080");
+        double rps = Double.parseDouble(System.getProperty("loadtest.rps", "10"));
+        int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 60);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 10);
+        int maxInFlight = Integer.getInteger("loadtest.max-in-flight", 2000);
+        Duration timeout = Duration.ofMillis(Long.getLong("loadtest.timeout-ms", 60_000));
+        List<String> paths = List.of(System.getProperty("loadtest.paths", DEFAULT_PATHS).split(","));
+
+        ExecutorService callbacks = Executors.newFixedThreadPool(8);
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(callbacks)
+                .build();
+
+        Map<String, LatencyRecorder> totals = new LinkedHashMap<>();
+        paths.forEach(path -> totals.putIfAbsent(path, new LatencyRecorder()));
+        AtomicReference<Map<String, LatencyRecorder>> interval = new AtomicReference<>(newInterval(totals));
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        System.out.printf("Target %s at %.1f rps for %ds (+%ds warm-up) over %d paths%n",
+                target, rps, durationSeconds, warmupSeconds, totals.size());
+
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long nextReport = measureFrom + TimeUnit.SECONDS.toNanos(5);
+        long intervalStart = measureFrom;
+        boolean measuring = false;
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * periodNanos;
+            if (scheduled >= end) break;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            if (!measuring && scheduled >= measureFrom) {
+                measuring = true;
+                interval.set(newInterval(totals));
+                intervalStart = System.nanoTime();
+            }
+            if (measuring && System.nanoTime() >= nextReport) {
+                report(interval.getAndSet(newInterval(totals)), (System.nanoTime() - intervalStart) / 1e9);
+                intervalStart = System.nanoTime();
+                nextReport += TimeUnit.SECONDS.toNanos(5);
+            }
+
+            String path = paths.get((int) (i % paths.size()));
+            LatencyRecorder current = interval.get().get(path);
+            LatencyRecorder total = measuring ? totals.get(path) : null;
+            if (!inFlight.tryAcquire()) {
+                record(current, total, 0, "dropped");
+                continue;
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target + path))
+                    .timeout(timeout)
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                inFlight.release();
+                long latencyMicros = (System.nanoTime() - scheduled) / 1000;
+                if (error != null) {
+                    record(current, total, latencyMicros, error.getClass().getSimpleName());
+                } else if (response.statusCode() >= 400) {
+                    record(current, total, latencyMicros, Integer.toString(response.statusCode()));
+                } else {
+                    record(current, total, latencyMicros, null);
+                }
+            });
+        }
+
+        // Let outstanding requests finish so they count towards the totals
+        inFlight.tryAcquire(maxInFlight, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        report(interval.get(), (System.nanoTime() - intervalStart) / 1e9);
+
+        double measuredSeconds = durationSeconds;
+        System.out.println();
+        System.out.println("Summary");
+        LatencyRecorder all = new LatencyRecorder();
+        totals.forEach((path, recorder) -> {
+            System.out.printf("  %-90s %s%n", path, recorder.summarize(measuredSeconds).format());
+            recorder.mergeInto(all);
+        });
+        System.out.printf("  %-90s %s%n", "TOTAL", all.summarize(measuredSeconds).format());
+        callbacks.shutdownNow();
+    }
+
+    private static Map<String, LatencyRecorder> newInterval(Map<String, LatencyRecorder> totals) {
+        Map<String, LatencyRecorder> interval = new LinkedHashMap<>();
+        totals.keySet().forEach(path -> interval.put(path, new LatencyRecorder()));
+        return interval;
+    }
+
+    /** Warm-up requests only show in interval reports; measured ones also count towards the totals. */
+    private static void record(LatencyRecorder current, LatencyRecorder total, long latencyMicros, String error) {
+        for (LatencyRecorder recorder : new LatencyRecorder[]{current, total}) {
+            if (recorder == null) continue;
+            if (error == null) {
+                recorder.success(latencyMicros);
+            } else {
+                recorder.failure(latencyMicros, error);
+            }
+        }
+    }
+
+    // Responses still in flight when an interval closes land in the closed interval and are not re-reported
+    private static void report(Map<String, LatencyRecorder> finished, double seconds) {
+        LatencyRecorder combined = new LatencyRecorder();
+        finished.values().forEach(recorder -> recorder.mergeInto(combined));
+        System.out.printf("[interval %5.1fs] %s%n", seconds, combined.summarize(seconds).format());
+    }
+}
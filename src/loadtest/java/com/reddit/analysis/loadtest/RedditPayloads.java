@@ -0,0 +1,199 @@
+package com.reddit.analysis.loadtest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Reddit-shaped listing, thread and morechildren bodies with random text. */
+final class RedditPayloads {
+
+    private static final String[] WORDS = {
+            "the", "and", "for", "with", "this", "that", "have", "from", "your", "they",
+            "java", "spring", "python", "react", "docker", "kubernetes", "database", "backend", "frontend", "api",
+            "interview", "salary", "career", "remote", "startup", "company", "project", "team", "experience", "skills",
+            "good", "great", "love", "helpful", "recommend", "success", "growth", "awesome", "amazing", "best",
+            "bad", "problem", "issue", "bug", "error", "difficult", "struggle", "stress", "fired", "broken",
+            "question", "anyone", "think", "really", "would", "about", "because", "still", "never", "today"
+    };
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final StubConfig config;
+
+    RedditPayloads(StubConfig config) {
+        this.config = config;
+    }
+
+    byte[] listing(String subreddit, int limit) {
+        return write(json -> {
+            json.writeStartObject();
+            json.writeStringField("kind", "Listing");
+            json.writeObjectFieldStart("data");
+            json.writeArrayFieldStart("children");
+            for (int i = 0; i < limit; i++) {
+                writePost(json, subreddit, randomId());
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+        });
+    }
+
+    byte[] info(String subreddit, List<String> ids) {
+        return write(json -> {
+            json.writeStartObject();
+            json.writeStringField("kind", "Listing");
+            json.writeObjectFieldStart("data");
+            json.writeArrayFieldStart("children");
+            for (String id : ids) {
+                writePost(json, subreddit, id);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+        });
+    }
+
+    byte[] thread(String subreddit, String postId) {
+        return write(json -> {
+            json.writeStartArray();
+            json.writeStartObject();
+            json.writeStringField("kind", "Listing");
+            json.writeObjectFieldStart("data");
+            json.writeArrayFieldStart("children");
+            writePost(json, subreddit, postId);
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+
+            json.writeStartObject();
+            json.writeStringField("kind", "Listing");
+            json.writeObjectFieldStart("data");
+            json.writeArrayFieldStart("children");
+            int[] remaining = {config.commentsPerThread};
+            while (remaining[0] > 0) {
+                writeComment(json, postId, "t3_" + postId, remaining, 0);
+            }
+            // Reddit truncates large threads with a "more" stub pointing at morechildren
+            json.writeStartObject();
+            json.writeStringField("kind", "more");
+            json.writeObjectFieldStart("data");
+            json.writeNumberField("count", 50);
+            json.writeArrayFieldStart("children");
+            for (int i = 0; i < 5; i++) {
+                json.writeString(randomId());
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+            json.writeEndArray();
+        });
+    }
+
+    byte[] moreChildren(String linkId, List<String> children) {
+        return write(json -> {
+            json.writeStartObject();
+            json.writeObjectFieldStart("json");
+            json.writeArrayFieldStart("errors");
+            json.writeEndArray();
+            json.writeObjectFieldStart("data");
+            json.writeArrayFieldStart("things");
+            for (String id : children) {
+                int[] single = {1};
+                writeComment(json, linkId, linkId, single, 8);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+            json.writeEndObject();
+        });
+    }
+
+    private void writePost(JsonGenerator json, String subreddit, String id) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        json.writeStartObject();
+        json.writeStringField("kind", "t3");
+        json.writeObjectFieldStart("data");
+        json.writeStringField("id", id);
+        json.writeStringField("name", "t3_" + id);
+        json.writeStringField("subreddit", subreddit);
+        json.writeStringField("title", text(6 + random.nextInt(10)));
+        json.writeStringField("selftext", random.nextInt(5) == 0 ? "" : text(config.wordsPerPost));
+        json.writeStringField("url", "https://www.reddit.com/r/" + subreddit + "/comments/" + id + "/");
+        json.writeStringField("author", "user" + random.nextInt(2000));
+        json.writeNumberField("ups", random.nextInt(5000));
+        json.writeNumberField("num_comments", random.nextInt(400));
+        json.writeNumberField("created_utc", System.currentTimeMillis() / 1000 - random.nextInt(86_400 * 7));
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private void writeComment(JsonGenerator json, String postId, String parentId, int[] remaining, int depth) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        remaining[0]--;
+        String id = randomId();
+        json.writeStartObject();
+        json.writeStringField("kind", "t1");
+        json.writeObjectFieldStart("data");
+        json.writeStringField("id", id);
+        json.writeStringField("link_id", "t3_" + postId);
+        json.writeStringField("parent_id", parentId);
+        json.writeStringField("author", "user" + random.nextInt(5000));
+        json.writeStringField("body", text(10 + random.nextInt(config.wordsPerPost)));
+        json.writeNumberField("ups", random.nextInt(300));
+        json.writeNumberField("created_utc", System.currentTimeMillis() / 1000 - random.nextInt(86_400));
+        int replies = depth < 8 ? random.nextInt(4) : 0;
+        if (replies == 0 || remaining[0] <= 0) {
+            json.writeStringField("replies", "");
+        } else {
+            json.writeObjectFieldStart("replies");
+            json.writeStringField("kind", "Listing");
+            json.writeObjectFieldStart("data");
+            json.writeArrayFieldStart("children");
+            for (int i = 0; i < replies && remaining[0] > 0; i++) {
+                writeComment(json, postId, "t1_" + id, remaining, depth + 1);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static String text(int words) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder text = new StringBuilder(words * 7);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) text.append(random.nextInt(12) == 0 ? ". " : " ");
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String randomId() {
+        return Long.toString(ThreadLocalRandom.current().nextLong(1L << 32, 1L << 36), 36);
+    }
+
+    private interface Writer {
+        void write(JsonGenerator json) throws IOException;
+    }
+
+    private static byte[] write(Writer writer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            writer.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
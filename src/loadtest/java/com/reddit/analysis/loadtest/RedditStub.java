@@ -0,0 +1,113 @@
+package com.reddit.analysis.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for www.reddit.com/api/v1/access_token and oauth.reddit.com: listings, comment threads,
+ * /api/info, /api/morechildren, with X-Ratelimit-* headers over a fixed window.
+ */
+final class RedditStub {
+
+    private static final Pattern LISTING = Pattern.compile("^/r/([^/]+)/(hot|top|new|rising|controversial)/?$");
+    private static final Pattern THREAD = Pattern.compile("^/r/([^/]+)/comments/([^/]+)(/.*)?$");
+
+    private final StubConfig config;
+    private final RedditPayloads payloads;
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+    private HttpServer server;
+    private ExecutorService executor;
+
+    RedditStub(StubConfig config) {
+        this.config = config;
+        this.payloads = new RedditPayloads(config);
+    }
+
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(config.redditPort), 256);
+        executor = Executors.newFixedThreadPool(config.threads);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/api/v1/access_token")) {
+                StubSupport.send(exchange, 200,
+                        "{\"access_token\":\"stub-token\",\"token_type\":\"bearer\",\"expires_in\":86400,\"scope\":\"*\"}");
+                return;
+            }
+
+            if (!rateLimitHeaders(exchange)) {
+                StubSupport.send(exchange, 429, "{\"message\":\"Too Many Requests\",\"error\":429}");
+                return;
+            }
+            StubSupport.delay(config.latencyMs, config.latencyJitterMs);
+            StubSupport.stall(config.slowRate, config.slowMs);
+            if (StubSupport.shouldFail(config.errorRate)) {
+                StubSupport.send(exchange, 503, "{\"message\":\"Service Unavailable\",\"error\":503}");
+                return;
+            }
+
+            Map<String, String> query = StubSupport.query(exchange);
+            Matcher listing = LISTING.matcher(path);
+            Matcher thread = THREAD.matcher(path);
+            if (listing.matches()) {
+                int limit = Math.min(Integer.parseInt(query.getOrDefault("limit", "25")), config.postsPerListing);
+                StubSupport.send(exchange, 200, payloads.listing(listing.group(1), limit));
+            } else if (thread.matches()) {
+                StubSupport.send(exchange, 200, payloads.thread(thread.group(1), thread.group(2)));
+            } else if (path.equals("/api/info")) {
+                List<String> ids = Arrays.stream(query.getOrDefault("id", "").split(","))
+                        .filter(id -> id.startsWith("t3_"))
+                        .map(id -> id.substring(3))
+                        .toList();
+                StubSupport.send(exchange, 200, payloads.info("stub", ids));
+            } else if (path.equals("/api/morechildren")) {
+                List<String> children = Arrays.asList(query.getOrDefault("children", "").split(","));
+                StubSupport.send(exchange, 200, payloads.moreChildren(query.getOrDefault("link_id", "t3_stub"), children));
+            } else {
+                StubSupport.send(exchange, 404, "{\"message\":\"Not Found\",\"error\":404}");
+            }
+        } catch (RuntimeException e) {
+            StubSupport.send(exchange, 500, "{\"message\":\"" + e.getClass().getSimpleName() + "\",\"error\":500}");
+        }
+    }
+
+    /** Adds Reddit's rate-limit headers; false once the current window's budget is spent. */
+    private boolean rateLimitHeaders(HttpExchange exchange) {
+        long now = System.currentTimeMillis();
+        long windowMs = config.rateLimitWindowSeconds * 1000L;
+        long start = windowStart.get();
+        if (now - start >= windowMs && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+            start = now;
+        }
+        int count = used.incrementAndGet();
+        long resetSeconds = Math.max(0, (start + windowMs - now) / 1000);
+        exchange.getResponseHeaders().set("X-Ratelimit-Used", Integer.toString(Math.min(count, config.rateLimitPerWindow)));
+        exchange.getResponseHeaders().set("X-Ratelimit-Remaining", Integer.toString(Math.max(0, config.rateLimitPerWindow - count)));
+        exchange.getResponseHeaders().set("X-Ratelimit-Reset", Long.toString(resetSeconds));
+        return count <= config.rateLimitPerWindow;
+    }
+}
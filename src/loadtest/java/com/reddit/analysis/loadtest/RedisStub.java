@@ -0,0 +1,208 @@
+package com.reddit.analysis.loadtest;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory stand-in for the Redis server behind the shared analysis cache, speaking enough RESP2 for
+ * it: PING, AUTH, SELECT, GET, SET with NX/XX and EX/PX, DEL, and EVAL. The only script the application
+ * sends is the lease release, so EVAL is always treated as compare-and-delete of KEYS[1] against ARGV[1].
+ * Run several application instances against it to exercise cross-replica caching and single-flight.
+ */
+final class RedisStub {
+
+    private record Value(byte[] bytes, long expiresAtMillis) {
+        boolean isExpired(long now) {
+            return expiresAtMillis > 0 && now >= expiresAtMillis;
+        }
+    }
+
+    private final StubConfig config;
+    private final Map<String, Value> data = new ConcurrentHashMap<>();
+    private ServerSocket server;
+    private ExecutorService executor;
+
+    RedisStub(StubConfig config) {
+        this.config = config;
+    }
+
+    void start() throws IOException {
+        server = new ServerSocket(config.redisPort, 256);
+        executor = Executors.newCachedThreadPool();
+        executor.execute(this::accept);
+    }
+
+    void stop() {
+        try {
+            server.close();
+        } catch (IOException ignored) {
+            // Shutting down anyway
+        }
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!server.isClosed()) System.err.println("Redis stub accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            BufferedInputStream in = new BufferedInputStream(socket.getInputStream());
+            BufferedOutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            List<byte[]> command;
+            while ((command = readCommand(in)) != null) {
+                StubSupport.delay(config.redisLatencyMs, 0);
+                execute(command, out);
+                out.flush();
+            }
+        } catch (SocketException | EOFException e) {
+            // Client went away
+        } catch (IOException e) {
+            System.err.println("Redis stub connection failed: " + e.getMessage());
+        }
+    }
+
+    private void execute(List<byte[]> command, OutputStream out) throws IOException {
+        String name = string(command.get(0)).toUpperCase(Locale.ROOT);
+        long now = System.currentTimeMillis();
+        switch (name) {
+            case "PING" -> simple(out, "PONG");
+            case "AUTH", "SELECT" -> simple(out, "OK");
+            case "GET" -> {
+                Value value = live(string(command.get(1)), now);
+                bulk(out, value == null ? null : value.bytes());
+            }
+            case "DEL" -> {
+                long removed = 0;
+                for (byte[] key : command.subList(1, command.size())) {
+                    if (data.remove(string(key)) != null) removed++;
+                }
+                integer(out, removed);
+            }
+            case "SET" -> set(command, now, out);
+            case "EVAL" -> {
+                String key = string(command.get(3));
+                byte[] expected = command.get(4);
+                Value value = live(key, now);
+                boolean deleted = value != null && Arrays.equals(value.bytes(), expected) && data.remove(key, value);
+                integer(out, deleted ? 1 : 0);
+            }
+            default -> error(out, "ERR unknown command '" + name + "'");
+        }
+    }
+
+    private void set(List<byte[]> command, long now, OutputStream out) throws IOException {
+        String key = string(command.get(1));
+        boolean nx = false;
+        boolean xx = false;
+        long expiresAt = 0;
+        for (int i = 3; i < command.size(); i++) {
+            String option = string(command.get(i)).toUpperCase(Locale.ROOT);
+            switch (option) {
+                case "NX" -> nx = true;
+                case "XX" -> xx = true;
+                case "PX" -> expiresAt = now + Long.parseLong(string(command.get(++i)));
+                case "EX" -> expiresAt = now + Long.parseLong(string(command.get(++i))) * 1000;
+                default -> {
+                    error(out, "ERR syntax error");
+                    return;
+                }
+            }
+        }
+        Value value = new Value(command.get(2), expiresAt);
+        boolean stored;
+        if (nx) {
+            // Replace an expired holder atomically, as Redis would have evicted it
+            Value current = data.putIfAbsent(key, value);
+            stored = current == null || (current.isExpired(now) && data.replace(key, current, value));
+        } else if (xx) {
+            stored = live(key, now) != null;
+            if (stored) data.put(key, value);
+        } else {
+            data.put(key, value);
+            stored = true;
+        }
+        if (stored) simple(out, "OK");
+        else bulk(out, null);
+    }
+
+    private Value live(String key, long now) {
+        Value value = data.get(key);
+        if (value != null && value.isExpired(now)) {
+            data.remove(key, value);
+            return null;
+        }
+        return value;
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type < 0) return null;
+        if (type != '*') throw new IOException("Expected a RESP array, got '" + (char) type + "'");
+        int count = Integer.parseInt(readLine(in));
+        List<byte[]> args = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') throw new IOException("Expected a bulk string");
+            int length = Integer.parseInt(readLine(in));
+            byte[] arg = in.readNBytes(length);
+            readLine(in);
+            args.add(arg);
+        }
+        return args;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b < 0) throw new EOFException();
+            line.append((char) b);
+        }
+        in.read();
+        return line.toString();
+    }
+
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void simple(OutputStream out, String value) throws IOException {
+        out.write(('+' + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void error(OutputStream out, String message) throws IOException {
+        out.write(('-' + message + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void integer(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void bulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(value);
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,33 @@
+package com.reddit.analysis.loadtest;
+
+/**
+ * Stub server behaviour, read from system properties so runs can be tuned from the command line
+ * (for example {@code -Dstub.latency-ms=150 -Dstub.error-rate=0.02}).
+ */
+final class StubConfig {
+
+    final int redditPort = Integer.getInteger("stub.reddit.port", 9090);
+    final int geminiPort = Integer.getInteger("stub.gemini.port", 9091);
+    final int redisPort = Integer.getInteger("stub.redis.port", 9092);
+    final int threads = Integer.getInteger("stub.threads", 64);
+
+    final long latencyMs = Long.getLong("stub.latency-ms", 80);
+    final long latencyJitterMs = Long.getLong("stub.latency-jitter-ms", 40);
+    final double errorRate = Double.parseDouble(System.getProperty("stub.error-rate", "0"));
+    // Long-tail stalls: this fraction of Reddit responses waits slow-ms extra (exercises hedging)
+    final double slowRate = Double.parseDouble(System.getProperty("stub.slow-rate", "0"));
+    final long slowMs = Long.getLong("stub.slow-ms", 2000);
+
+    final int postsPerListing = Integer.getInteger("stub.posts-per-listing", 35);
+    final int commentsPerThread = Integer.getInteger("stub.comments-per-thread", 500);
+    final int wordsPerPost = Integer.getInteger("stub.words-per-post", 80);
+    final int rateLimitPerWindow = Integer.getInteger("stub.rate-limit", 600);
+    final int rateLimitWindowSeconds = Integer.getInteger("stub.rate-limit-window-seconds", 600);
+
+    final long geminiLatencyMs = Long.getLong("stub.gemini.latency-ms", 1500);
+    final long geminiLatencyJitterMs = Long.getLong("stub.gemini.latency-jitter-ms", 500);
+    final double geminiErrorRate = Double.parseDouble(System.getProperty("stub.gemini.error-rate", "0"));
+    final int geminiResponseChars = Integer.getInteger("stub.gemini.response-chars", 4000);
+
+    final long redisLatencyMs = Long.getLong("stub.redis.latency-ms", 0);
+}
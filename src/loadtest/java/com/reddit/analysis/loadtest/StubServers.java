@@ -0,0 +1,40 @@
+package com.reddit.analysis.loadtest;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Starts the Reddit, Gemini and Redis stand-ins and blocks until interrupted. Point the application at them with
+ * <pre>
+ * --reddit.api.base-url=http://localhost:9090
+ * --reddit.auth.url=http://localhost:9090/api/v1/access_token
+ * --gemini.api.url=http://localhost:9091/v1beta/models/gemini-1.5-flash:generateContent
+ * --analysis.cache.shared=redis --analysis.cache.redis.port=9092
+ * </pre>
+ */
+public final class StubServers {
+
+    private StubServers() {}
+
+    public static void main(String[] args) throws Exception {
+        StubConfig config = new StubConfig();
+        RedditStub reddit = new RedditStub(config);
+        GeminiStub gemini = new GeminiStub(config);
+        RedisStub redis = new RedisStub(config);
+        reddit.start();
+        gemini.start();
+        redis.start();
+        System.out.printf("Reddit stub on :%d (latency %d+/-%dms, errors %.1f%%), Gemini stub on :%d (latency %d+/-%dms, errors %.1f%%)%n",
+                config.redditPort, config.latencyMs, config.latencyJitterMs, config.errorRate * 100,
+                config.geminiPort, config.geminiLatencyMs, config.geminiLatencyJitterMs, config.geminiErrorRate * 100);
+        System.out.printf("Redis stub on :%d%n", config.redisPort);
+
+        CountDownLatch shutdown = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            reddit.stop();
+            gemini.stop();
+            redis.stop();
+            shutdown.countDown();
+        }));
+        shutdown.await();
+    }
+}
@@ -1,21 +1,30 @@
 package com.reddit.analysis;
 
+import com.reddit.analysis.capture.UpstreamCaptureFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.reactive.function.client.WebClient;
 
 @SpringBootApplication
+@EnableScheduling
 public class RedditAnalysisApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(RedditAnalysisApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(RedditAnalysisApplication.class, args);
+        // Training runs for the class-data-sharing archive and startup checks stop once ready
+        if (context.getEnvironment().getProperty("startup.exit", Boolean.class, false)) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(UpstreamCaptureFilter upstreamCaptureFilter) {
         return WebClient.builder()
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024))
+                .filter(upstreamCaptureFilter)
                 .build();
     }
 }
\ No newline at end of file
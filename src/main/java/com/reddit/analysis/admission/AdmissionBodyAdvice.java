@@ -0,0 +1,54 @@
+package com.reddit.analysis.admission;
+
+import com.reddit.analysis.model.AnalysisRequest;
+import com.reddit.analysis.model.BatchAnalysisRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Admission for the analysis endpoints that take a request body, run once the body is parsed so
+ * the charge matches what was asked for: a stats-only analysis costs a scrape token, and a batch
+ * costs one token per item rather than one for the whole fan-out.
+ */
+@ControllerAdvice
+public class AdmissionBodyAdvice extends RequestBodyAdviceAdapter {
+
+    @Autowired
+    private AdmissionInterceptor admissionInterceptor;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == AnalysisRequest.class || targetType == BatchAnalysisRequest.class;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        CostClass cost;
+        int tokens;
+        if (body instanceof BatchAnalysisRequest batch) {
+            cost = admissionInterceptor.classify(batch);
+            tokens = Math.max(1, batch.getSubreddits().size() + batch.getThreads().size());
+        } else {
+            cost = admissionInterceptor.classify((AnalysisRequest) body, attributes.getRequest());
+            tokens = 1;
+        }
+        try {
+            admissionInterceptor.admit(attributes.getRequest(), attributes.getResponse(), cost, tokens);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for admission", e);
+        }
+        return body;
+    }
+}
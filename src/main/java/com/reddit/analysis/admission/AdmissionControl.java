@@ -0,0 +1,39 @@
+package com.reddit.analysis.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class AdmissionControl {
+
+    private final Map<Lane, LaneLimiter> lanes = new EnumMap<>(Lane.class);
+
+    public AdmissionControl(@Value("${admission.light.max-in-flight:32}") int lightInFlight,
+                            @Value("${admission.light.max-queue:64}") int lightQueue,
+                            @Value("${admission.light.max-wait-ms:500}") long lightWaitMs,
+                            @Value("${admission.heavy.max-in-flight:8}") int heavyInFlight,
+                            @Value("${admission.heavy.max-queue:16}") int heavyQueue,
+                            @Value("${admission.heavy.max-wait-ms:2000}") long heavyWaitMs) {
+        lanes.put(Lane.LIGHT, new LaneLimiter(Lane.LIGHT, lightInFlight, lightQueue, lightWaitMs, 500));
+        lanes.put(Lane.HEAVY, new LaneLimiter(Lane.HEAVY, heavyInFlight, heavyQueue, heavyWaitMs, 10_000));
+    }
+
+    public void acquire(Lane lane) throws InterruptedException {
+        lanes.get(lane).acquire();
+    }
+
+    public void release(Lane lane, long latencyMs) {
+        lanes.get(lane).release(latencyMs);
+    }
+
+    public int inFlight(Lane lane) {
+        return lanes.get(lane).inFlight();
+    }
+
+    public int queued(Lane lane) {
+        return lanes.get(lane).queued();
+    }
+}
@@ -0,0 +1,152 @@
+package com.reddit.analysis.admission;
+
+import com.reddit.analysis.controller.AnalysisQuery;
+import com.reddit.analysis.exception.TooManyRequestsException;
+import com.reddit.analysis.model.AnalysisRequest;
+import com.reddit.analysis.model.BatchAnalysisRequest;
+import com.reddit.analysis.service.AnalysisCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Admits analysis requests through {@link AdmissionControl} before they reach the
+ * controller, so overload is shed at the door instead of piling up inside the pipeline.
+ * Each client's {@link ClientQuotas} are charged first, so one client over its quota is
+ * turned away without taking a lane slot from anyone else; a request the lane then sheds gets
+ * its tokens back. Endpoints that take a request body are classified from the parsed body
+ * instead, by {@link AdmissionBodyAdvice}, since the cost depends on what it asks for.
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String LANE_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".lane";
+    private static final String START_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".start";
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Autowired
+    private ClientQuotas clientQuotas;
+
+    @Autowired
+    private AnalysisCache analysisCache;
+
+    @Value("${quota.client-header:X-API-Key}")
+    private String clientHeader;
+
+    // Comma-separated; a key counts as the client's identity only when it is one of these
+    @Value("${quota.api-keys:}")
+    private String apiKeys;
+
+    private Set<String> knownKeys;
+
+    @PostConstruct
+    public void init() {
+        knownKeys = Arrays.stream(apiKeys.split(","))
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if ("OPTIONS".equals(request.getMethod())) return true;
+        if (!hasRequestBody(handler)) {
+            admit(request, response, classify(request), 1);
+        }
+        return true;
+    }
+
+    /**
+     * Charges the client {@code tokens} of the class's quota, then waits for a slot in its lane.
+     * Tokens are refunded when the lane sheds the request, so a 503 costs the client nothing.
+     */
+    void admit(HttpServletRequest request, HttpServletResponse response, CostClass cost, int tokens) throws InterruptedException {
+        String client = null;
+        if (clientQuotas.isLimited(cost)) {
+            client = clientId(request);
+            long remaining = clientQuotas.acquire(client, cost, tokens);
+            response.setHeader("X-RateLimit-Limit", Integer.toString(clientQuotas.limit(cost)));
+            response.setHeader("X-RateLimit-Remaining", Long.toString(remaining));
+            response.setHeader("X-RateLimit-Reset", Long.toString(clientQuotas.resetSeconds(client, cost)));
+            response.setHeader("X-RateLimit-Class", cost.label());
+        }
+        Lane lane = cost.lane();
+        try {
+            admissionControl.acquire(lane);
+        } catch (TooManyRequestsException | InterruptedException e) {
+            if (client != null) {
+                clientQuotas.refund(client, cost, tokens);
+            }
+            throw e;
+        }
+        request.setAttribute(LANE_ATTRIBUTE, lane);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Lane lane = (Lane) request.getAttribute(LANE_ATTRIBUTE);
+        if (lane == null) return;
+        long latencyMs = (System.nanoTime() - (Long) request.getAttribute(START_ATTRIBUTE)) / 1_000_000;
+        admissionControl.release(lane, latencyMs);
+    }
+
+    /** Cost of a query-parameter request (GET /analysis, analyze-subreddit, analyze-thread). */
+    public CostClass classify(HttpServletRequest request) {
+        try {
+            if (request.getRequestURI().endsWith("/analysis") && isCached(request)) {
+                return CostClass.CACHE_HIT;
+            }
+            return AnalysisQuery.usesLlm(request) ? CostClass.LLM : CostClass.SCRAPE;
+        } catch (IllegalArgumentException e) {
+            return CostClass.SCRAPE; // rejected with 400 before any work is done
+        }
+    }
+
+    /** Cost of a POST /analyze-reddit body: stats-only bodies (or projections) skip Gemini. */
+    public CostClass classify(AnalysisRequest body, HttpServletRequest request) {
+        try {
+            return AnalysisQuery.usesLlm(body, request) ? CostClass.LLM : CostClass.SCRAPE;
+        } catch (IllegalArgumentException e) {
+            return CostClass.SCRAPE; // rejected with 400 before any work is done
+        }
+    }
+
+    /** Cost class of each item of a batch; the batch is charged one token per item. */
+    public CostClass classify(BatchAnalysisRequest body) {
+        return body.isIncludeLlm() ? CostClass.LLM : CostClass.SCRAPE;
+    }
+
+    /**
+     * A configured API key names the client wherever it calls from; anything else is keyed on
+     * the address, since header values are the caller's to pick. Behind a proxy, set
+     * server.forward-headers-strategy so the address is the forwarded client's, not the proxy's.
+     */
+    private String clientId(HttpServletRequest request) {
+        String key = request.getHeader(clientHeader);
+        if (key != null && knownKeys.contains(key.trim())) return "key:" + key.trim();
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static boolean hasRequestBody(Object handler) {
+        return handler instanceof HandlerMethod method && Arrays.stream(method.getMethodParameters())
+                .anyMatch(parameter -> parameter.hasParameterAnnotation(RequestBody.class));
+    }
+
+    // A fresh cache entry means the LLM calls are skipped unless upstream content changed
+    private boolean isCached(HttpServletRequest request) {
+        return analysisCache.isFresh(analysisCache.key(AnalysisQuery.toRequest(request)));
+    }
+}
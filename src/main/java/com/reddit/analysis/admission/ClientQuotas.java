@@ -0,0 +1,162 @@
+package com.reddit.analysis.admission;
+
+import com.reddit.analysis.exception.TooManyRequestsException;
+import com.reddit.analysis.metrics.PipelineMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client request quotas, one token bucket per {@link CostClass}, so a single client cannot
+ * take the whole Reddit or Gemini budget. Clients are tracked in a bounded map; when it is full,
+ * a sample of entries is scanned and the idle (full-bucket) ones are dropped, or failing that the
+ * one closest to full, which loses the least history.
+ */
+@Component
+public class ClientQuotas {
+
+    private static final int EVICTION_SAMPLE = 64;
+    private static final CostClass[] CLASSES = CostClass.values();
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    private final boolean enabled;
+    private final int maxClients;
+    private final int[] perMinute = new int[CLASSES.length];
+    private final int[] burst = new int[CLASSES.length];
+    private final ConcurrentHashMap<String, TokenBucket[]> clients = new ConcurrentHashMap<>();
+
+    public ClientQuotas(@Value("${quota.enabled:true}") boolean enabled,
+                        @Value("${quota.max-clients:10000}") int maxClients,
+                        @Value("${quota.cache-hit.per-minute:600}") int cacheHitPerMinute,
+                        @Value("${quota.cache-hit.burst:60}") int cacheHitBurst,
+                        @Value("${quota.scrape.per-minute:60}") int scrapePerMinute,
+                        @Value("${quota.scrape.burst:10}") int scrapeBurst,
+                        @Value("${quota.llm.per-minute:10}") int llmPerMinute,
+                        @Value("${quota.llm.burst:3}") int llmBurst) {
+        this.enabled = enabled;
+        this.maxClients = maxClients;
+        perMinute[CostClass.CACHE_HIT.ordinal()] = cacheHitPerMinute;
+        burst[CostClass.CACHE_HIT.ordinal()] = cacheHitBurst;
+        perMinute[CostClass.SCRAPE.ordinal()] = scrapePerMinute;
+        burst[CostClass.SCRAPE.ordinal()] = scrapeBurst;
+        perMinute[CostClass.LLM.ordinal()] = llmPerMinute;
+        burst[CostClass.LLM.ordinal()] = llmBurst;
+    }
+
+    /** Whether requests of this class are metered at all (a per-minute rate of 0 means unlimited). */
+    public boolean isLimited(CostClass cost) {
+        return enabled && perMinute[cost.ordinal()] > 0;
+    }
+
+    public int limit(CostClass cost) {
+        return burst[cost.ordinal()];
+    }
+
+    /**
+     * Takes one token from the client's bucket for the class and returns the tokens left, or
+     * throws a 429 carrying the quota headers when the bucket is empty. Only call when
+     * {@link #isLimited} holds.
+     */
+    public long acquire(String client, CostClass cost) {
+        return acquire(client, cost, 1);
+    }
+
+    /**
+     * Takes {@code tokens} at once (a batch is charged per item), as {@link #acquire(String, CostClass)}.
+     * A request that needs more tokens than the bucket holds can never be admitted and is a 400.
+     */
+    public long acquire(String client, CostClass cost, int tokens) {
+        if (tokens > Math.max(1, limit(cost))) {
+            throw new IllegalArgumentException("Request needs " + tokens + " " + cost.label()
+                    + " quota tokens but at most " + limit(cost) + " are available at once; split it into smaller requests");
+        }
+        long now = System.nanoTime();
+        TokenBucket[] buckets = clients.get(client);
+        if (buckets == null) {
+            buckets = register(client, now);
+        }
+        long remaining = buckets[cost.ordinal()].tryAcquire(now, tokens);
+        if (remaining >= 0) {
+            return remaining;
+        }
+        pipelineMetrics.count("quota.rejected", "requests", 1);
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(-remaining + TimeUnit.SECONDS.toNanos(1) - 1));
+        throw new TooManyRequestsException("Quota exceeded for " + cost.label() + " requests, please retry later",
+                retryAfter, Map.of(
+                        "X-RateLimit-Limit", Integer.toString(limit(cost)),
+                        "X-RateLimit-Remaining", "0",
+                        "X-RateLimit-Reset", Long.toString(resetSeconds(client, cost)),
+                        "X-RateLimit-Class", cost.label()));
+    }
+
+    /** Returns tokens taken by {@link #acquire} for a request that was then shed without doing any work. */
+    public void refund(String client, CostClass cost, int tokens) {
+        TokenBucket[] buckets = clients.get(client);
+        if (buckets != null) {
+            buckets[cost.ordinal()].refund(tokens);
+        }
+    }
+
+    /** Whole seconds until the client's bucket for the class is full again. */
+    public long resetSeconds(String client, CostClass cost) {
+        TokenBucket[] buckets = clients.get(client);
+        if (buckets == null) return 0;
+        long nanos = buckets[cost.ordinal()].nanosUntilFull(System.nanoTime());
+        return TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1);
+    }
+
+    public int trackedClients() {
+        return clients.size();
+    }
+
+    private TokenBucket[] register(String client, long now) {
+        // Racing registrations can overshoot the bound by a few entries; the next one trims it
+        if (clients.size() >= maxClients) {
+            evict(now);
+        }
+        return clients.computeIfAbsent(client, c -> newBuckets());
+    }
+
+    private TokenBucket[] newBuckets() {
+        TokenBucket[] buckets = new TokenBucket[CLASSES.length];
+        for (CostClass cost : CLASSES) {
+            int rate = Math.max(1, perMinute[cost.ordinal()]);
+            buckets[cost.ordinal()] = new TokenBucket(TimeUnit.MINUTES.toNanos(1) / rate, Math.max(1, burst[cost.ordinal()]));
+        }
+        return buckets;
+    }
+
+    private void evict(long now) {
+        String closestToFull = null;
+        long closestBacklog = Long.MAX_VALUE;
+        int evicted = 0;
+        Iterator<Map.Entry<String, TokenBucket[]>> entries = clients.entrySet().iterator();
+        for (int sampled = 0; sampled < EVICTION_SAMPLE && entries.hasNext(); sampled++) {
+            Map.Entry<String, TokenBucket[]> entry = entries.next();
+            long backlog = 0;
+            for (TokenBucket bucket : entry.getValue()) {
+                backlog = Math.max(backlog, bucket.nanosUntilFull(now));
+            }
+            if (backlog == 0) {
+                // A full bucket is indistinguishable from a new one, so nothing is lost
+                entries.remove();
+                evicted++;
+            } else if (backlog < closestBacklog) {
+                closestBacklog = backlog;
+                closestToFull = entry.getKey();
+            }
+        }
+        if (evicted == 0 && closestToFull != null) {
+            clients.remove(closestToFull);
+            evicted++;
+        }
+        pipelineMetrics.count("quota.evicted", "clients", evicted);
+    }
+}
@@ -0,0 +1,24 @@
+package com.reddit.analysis.admission;
+
+/** What a request costs the service, which decides both its admission lane and its quota bucket. */
+public enum CostClass {
+    CACHE_HIT("cache-hit", Lane.LIGHT), // served from a fresh cached analysis
+    SCRAPE("scrape", Lane.LIGHT),       // scrape and local stats, no Gemini calls
+    LLM("llm", Lane.HEAVY);             // Gemini calls; batches pay per item
+
+    private final String label;
+    private final Lane lane;
+
+    CostClass(String label, Lane lane) {
+        this.label = label;
+        this.lane = lane;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public Lane lane() {
+        return lane;
+    }
+}
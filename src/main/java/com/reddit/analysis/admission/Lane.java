@@ -0,0 +1,6 @@
+package com.reddit.analysis.admission;
+
+public enum Lane {
+    LIGHT, // cache hits and stats-only analyses
+    HEAVY  // analyses that call Gemini or fan out over many items
+}
@@ -0,0 +1,75 @@
+package com.reddit.analysis.admission;
+
+import com.reddit.analysis.exception.TooManyRequestsException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-flight cap plus a short bounded wait queue for one lane. Requests beyond the queue
+ * are rejected immediately with a Retry-After derived from recent pipeline latency.
+ */
+class LaneLimiter {
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final Lane lane;
+    private final int maxInFlight;
+    private final int maxQueue;
+    private final long maxWaitMs;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private volatile double averageLatencyMs;
+
+    LaneLimiter(Lane lane, int maxInFlight, int maxQueue, long maxWaitMs, long initialLatencyMs) {
+        this.lane = lane;
+        this.maxInFlight = maxInFlight;
+        this.maxQueue = maxQueue;
+        this.maxWaitMs = maxWaitMs;
+        this.permits = new Semaphore(maxInFlight, true);
+        this.averageLatencyMs = initialLatencyMs;
+    }
+
+    void acquire() throws InterruptedException {
+        // Timed form even with no wait: the untimed one barges past queued waiters on a fair semaphore
+        if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) return;
+
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            throw reject();
+        }
+        try {
+            if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                throw reject();
+            }
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    void release(long latencyMs) {
+        permits.release();
+        // Racy read-modify-write is fine for an estimate
+        averageLatencyMs += LATENCY_SMOOTHING * (latencyMs - averageLatencyMs);
+    }
+
+    long retryAfterSeconds() {
+        // Time for the queue ahead of a new request to drain through the in-flight slots
+        double drainMs = averageLatencyMs * (waiting.get() + 1) / maxInFlight;
+        return Math.max(1, (long) Math.ceil(drainMs / 1000.0));
+    }
+
+    int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    int queued() {
+        return waiting.get();
+    }
+
+    private TooManyRequestsException reject() {
+        return new TooManyRequestsException("Server is busy (" + lane.name().toLowerCase() + " lane full), please retry later",
+                retryAfterSeconds());
+    }
+}
@@ -0,0 +1,61 @@
+package com.reddit.analysis.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single theoretical arrival time (GCRA): the bucket is full
+ * once the clock passes it, and each token taken pushes it one refill interval further out.
+ * Equivalent to a bucket of {@code capacity} tokens refilled one per interval, with one CAS per take.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    // Long.MIN_VALUE = never used, so full whatever the (possibly negative) nanoTime origin
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(long intervalNanos, int capacity) {
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = intervalNanos * capacity;
+    }
+
+    /**
+     * Takes one token. Returns the tokens left (>= 0) when admitted, otherwise the negated
+     * nanos until a token is available.
+     */
+    long tryAcquire(long now) {
+        return tryAcquire(now, 1);
+    }
+
+    /**
+     * Takes {@code tokens} at once, or none: returns the tokens left (>= 0) when admitted,
+     * otherwise the negated nanos until that many are available. More than the capacity
+     * is never admitted.
+     */
+    long tryAcquire(long now, int tokens) {
+        long cost = intervalNanos * tokens;
+        while (true) {
+            long stored = theoreticalArrival.get();
+            long next = Math.max(stored, now) + cost;
+            long backlog = next - now;
+            if (backlog > burstNanos) {
+                return -(backlog - burstNanos);
+            }
+            if (theoreticalArrival.compareAndSet(stored, next)) {
+                return (burstNanos - backlog) / intervalNanos;
+            }
+        }
+    }
+
+    /** Gives back tokens taken by a request that was then turned away before doing any work. */
+    void refund(int tokens) {
+        long cost = intervalNanos * tokens;
+        theoreticalArrival.getAndUpdate(stored -> stored == Long.MIN_VALUE ? stored : stored - cost);
+    }
+
+    /** Nanos until the bucket is back to full capacity; 0 when it already is. */
+    long nanosUntilFull(long now) {
+        // Clamped before subtracting, as in tryAcquire: the never-used sentinel minus now would wrap
+        return Math.max(theoreticalArrival.get(), now) - now;
+    }
+}
@@ -0,0 +1,51 @@
+package com.reddit.analysis.cache;
+
+import java.io.IOException;
+
+/**
+ * {@link SharedCache} on Redis (or anything speaking its protocol). Values are plain keys with a
+ * {@code PX} expiry; leases are {@code SET NX PX} keys holding the owner token, released through a
+ * compare-and-delete script so a replica never drops a lease that expired and passed to another.
+ */
+public class RedisSharedCache implements SharedCache {
+
+    static final String RELEASE_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+    private final RespClient client;
+    private final String keyPrefix;
+
+    public RedisSharedCache(RespClient client, String keyPrefix) {
+        this.client = client;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public byte[] get(String key) throws IOException {
+        return (byte[]) client.call("GET", keyPrefix + key);
+    }
+
+    @Override
+    public void put(String key, byte[] value, long ttlMillis) throws IOException {
+        client.call("SET", keyPrefix + key, value, "PX", Math.max(1, ttlMillis));
+    }
+
+    @Override
+    public boolean tryLease(String key, String owner, long ttlMillis) throws IOException {
+        return "OK".equals(client.call("SET", leaseKey(key), owner, "NX", "PX", Math.max(1, ttlMillis)));
+    }
+
+    @Override
+    public void releaseLease(String key, String owner) throws IOException {
+        client.call("EVAL", RELEASE_SCRIPT, 1, leaseKey(key), owner);
+    }
+
+    private String leaseKey(String key) {
+        return keyPrefix + "lease:" + key;
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+}
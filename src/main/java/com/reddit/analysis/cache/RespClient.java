@@ -0,0 +1,169 @@
+package com.reddit.analysis.cache;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Minimal blocking client for the Redis serialization protocol (RESP2): one command per round trip
+ * over pooled sockets. Replies map to {@code String} (simple strings), {@code Long} (integers),
+ * {@code byte[]} (bulk strings, null when missing) and {@code List<Object>} (arrays); error replies
+ * are thrown as {@link RespException}.
+ */
+public final class RespClient implements Closeable {
+
+    private final String host;
+    private final int port;
+    private final int timeoutMillis;
+    private final String password;
+    private final BlockingQueue<Connection> idle;
+    private volatile boolean closed;
+
+    public RespClient(String host, int port, int timeoutMillis, String password, int maxIdle) {
+        this.host = host;
+        this.port = port;
+        this.timeoutMillis = timeoutMillis;
+        this.password = password == null || password.isBlank() ? null : password;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+    }
+
+    /** Sends one command; arguments are strings, numbers or raw {@code byte[]} values. */
+    public Object call(Object... args) throws IOException {
+        if (closed) throw new IOException("RESP client is closed");
+        Connection connection = idle.poll();
+        if (connection == null) connection = connect();
+        Object reply;
+        try {
+            connection.write(args);
+            reply = connection.read();
+        } catch (IOException e) {
+            connection.close();
+            throw e;
+        }
+        release(connection);
+        if (reply instanceof RespException error) throw error;
+        return reply;
+    }
+
+    private Connection connect() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            socket.setTcpNoDelay(true);
+            Connection connection = new Connection(socket);
+            if (password != null) {
+                connection.write(new Object[]{"AUTH", password});
+                if (connection.read() instanceof RespException error) {
+                    connection.close();
+                    throw error;
+                }
+            }
+            return connection;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private void release(Connection connection) {
+        if (closed || !idle.offer(connection)) connection.close();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private static final class Connection {
+        private final Socket socket;
+        private final BufferedInputStream in;
+        private final BufferedOutputStream out;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        void write(Object[] args) throws IOException {
+            writeLine('*', args.length);
+            for (Object arg : args) {
+                byte[] bytes = arg instanceof byte[] raw ? raw : String.valueOf(arg).getBytes(StandardCharsets.UTF_8);
+                writeLine('$', bytes.length);
+                out.write(bytes);
+                out.write('\r');
+                out.write('\n');
+            }
+            out.flush();
+        }
+
+        private void writeLine(char type, int value) throws IOException {
+            out.write(type);
+            out.write(Integer.toString(value).getBytes(StandardCharsets.US_ASCII));
+            out.write('\r');
+            out.write('\n');
+        }
+
+        Object read() throws IOException {
+            int type = in.read();
+            if (type < 0) throw new EOFException("Connection closed by server");
+            String line = readLine();
+            switch (type) {
+                case '+':
+                    return line;
+                case '-':
+                    return new RespException(line);
+                case ':':
+                    return Long.parseLong(line);
+                case '$': {
+                    int length = Integer.parseInt(line);
+                    if (length < 0) return null;
+                    byte[] value = in.readNBytes(length);
+                    if (value.length < length) throw new EOFException("Truncated bulk reply");
+                    readLine();
+                    return value;
+                }
+                case '*': {
+                    int count = Integer.parseInt(line);
+                    if (count < 0) return null;
+                    List<Object> items = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        items.add(read());
+                    }
+                    return items;
+                }
+                default:
+                    throw new IOException("Unexpected RESP reply type '" + (char) type + "'");
+            }
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b < 0) throw new EOFException("Connection closed by server");
+                line.append((char) b);
+            }
+            if (in.read() != '\n') throw new IOException("Malformed RESP line");
+            return line.toString();
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Nothing left to do with a broken connection
+            }
+        }
+    }
+}
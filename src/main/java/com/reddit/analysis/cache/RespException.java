@@ -0,0 +1,11 @@
+package com.reddit.analysis.cache;
+
+import java.io.IOException;
+
+/** An error reply from a Redis-protocol server; the connection itself is still usable. */
+public class RespException extends IOException {
+
+    public RespException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.reddit.analysis.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Second-level cache shared by every replica. Values are opaque bytes with a time to live; leases are
+ * short-lived exclusive claims on a key, so only one replica does expensive work for it at a time.
+ * Callers treat the shared tier as best effort and fall back to local work when it fails.
+ */
+public interface SharedCache extends Closeable {
+
+    /** The stored value, or null when absent or expired. */
+    byte[] get(String key) throws IOException;
+
+    void put(String key, byte[] value, long ttlMillis) throws IOException;
+
+    /** Claims {@code key} for {@code owner} unless another owner holds an unexpired lease on it. */
+    boolean tryLease(String key, String owner, long ttlMillis) throws IOException;
+
+    /** Releases the lease if {@code owner} still holds it; a lease that expired and was retaken is left alone. */
+    void releaseLease(String key, String owner) throws IOException;
+}
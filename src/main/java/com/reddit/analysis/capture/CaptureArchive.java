@@ -0,0 +1,97 @@
+package com.reddit.analysis.capture;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only gzip file of {@link CapturedExchange}s. Each recording session appends a new gzip
+ * member (concatenated members read back as one stream) and sync-flushes after every record, so
+ * an archive cut off by a crash still replays up to the last complete exchange.
+ */
+public class CaptureArchive implements Closeable {
+
+    private static final int RECORD_EXCHANGE = 1;
+
+    private final DataOutputStream out;
+
+    private CaptureArchive(DataOutputStream out) {
+        this.out = out;
+    }
+
+    public static CaptureArchive openForAppend(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        OutputStream raw = new BufferedOutputStream(new FileOutputStream(file.toFile(), true), 64 * 1024);
+        return new CaptureArchive(new DataOutputStream(new GZIPOutputStream(raw, 64 * 1024, true)));
+    }
+
+    public synchronized void append(CapturedExchange exchange) throws IOException {
+        out.writeByte(RECORD_EXCHANGE);
+        out.writeUTF(exchange.method());
+        out.writeUTF(exchange.url());
+        out.writeShort(exchange.status());
+        out.writeInt(exchange.latencyMillis());
+        out.writeShort(exchange.headers().size());
+        for (Map.Entry<String, String> header : exchange.headers().entrySet()) {
+            out.writeUTF(header.getKey());
+            out.writeUTF(header.getValue());
+        }
+        out.writeInt(exchange.body().length);
+        out.write(exchange.body());
+        out.flush();
+    }
+
+    public static List<CapturedExchange> readAll(Path file) throws IOException {
+        List<CapturedExchange> exchanges = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file.toFile()), 64 * 1024)))) {
+            while (true) {
+                int type;
+                try {
+                    type = in.readUnsignedByte();
+                } catch (EOFException end) {
+                    break;
+                }
+                if (type != RECORD_EXCHANGE) {
+                    throw new IOException("Unknown capture record type " + type + " in " + file);
+                }
+                try {
+                    exchanges.add(readExchange(in));
+                } catch (EOFException truncated) {
+                    break;
+                }
+            }
+        } catch (EOFException truncatedGzip) {
+            // Writer died mid-member; everything read so far is complete
+        }
+        return exchanges;
+    }
+
+    private static CapturedExchange readExchange(DataInputStream in) throws IOException {
+        String method = in.readUTF();
+        String url = in.readUTF();
+        int status = in.readUnsignedShort();
+        int latencyMillis = in.readInt();
+        int headerCount = in.readUnsignedShort();
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            headers.put(in.readUTF(), in.readUTF());
+        }
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        return new CapturedExchange(method, url, status, latencyMillis, headers, body);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
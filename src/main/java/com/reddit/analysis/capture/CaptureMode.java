@@ -0,0 +1,10 @@
+package com.reddit.analysis.capture;
+
+public enum CaptureMode {
+    /** Upstream calls go straight through. */
+    OFF,
+    /** Upstream calls go through and each exchange is appended to the archive. */
+    RECORD,
+    /** Upstream calls are answered from the archive; nothing leaves the process. */
+    REPLAY
+}
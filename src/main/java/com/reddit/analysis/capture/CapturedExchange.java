@@ -0,0 +1,11 @@
+package com.reddit.analysis.capture;
+
+import java.util.Map;
+
+/**
+ * One upstream request/response pair with secrets already redacted. Request headers and bodies
+ * are not kept; only the response headers the pipeline reads are.
+ */
+public record CapturedExchange(String method, String url, int status, int latencyMillis,
+                               Map<String, String> headers, byte[] body) {
+}
@@ -0,0 +1,220 @@
+package com.reddit.analysis.capture;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Records upstream (Reddit and Gemini) exchanges made through the shared {@code WebClient} into a
+ * {@link CaptureArchive}, or answers them from one. Replay matches on method and redacted URL,
+ * falling back to the path alone when query parameters such as {@code before} cursors differ, and
+ * cycles through the recorded responses for each key.
+ */
+@Component
+public class UpstreamCaptureFilter implements ExchangeFilterFunction {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamCaptureFilter.class);
+
+    private static final Pattern SECRET_QUERY = Pattern.compile("((?:^|[?&])(?:key|access_token|client_secret|password)=)[^&]*");
+    private static final Pattern SECRET_JSON = Pattern.compile("(\"(?:access_token|refresh_token|id_token)\"\\s*:\\s*\")[^\"]*");
+    private static final String REDACTED = "REDACTED";
+    private static final Set<String> KEPT_HEADERS = Set.of(
+            "content-type", "retry-after", "x-ratelimit-used", "x-ratelimit-remaining", "x-ratelimit-reset");
+
+    @Value("${upstream.capture.mode:off}")
+    private String mode;
+
+    @Value("${upstream.capture.path:data/capture/upstream.capture}")
+    private String archivePath;
+
+    // original: replay responses after their recorded latency; fast: immediately
+    @Value("${upstream.capture.replay-timing:original}")
+    private String replayTiming;
+
+    private CaptureMode captureMode = CaptureMode.OFF;
+    private CaptureArchive archive;
+    private ExecutorService writer;
+    private final Map<String, Replay> byUrl = new HashMap<>();
+    private final Map<String, Replay> byPath = new HashMap<>();
+
+    /** Whether upstream calls are answered from the archive, so Reddit's quota and auth do not apply. */
+    public boolean isReplaying() {
+        return captureMode == CaptureMode.REPLAY;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        captureMode = CaptureMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        Path file = Paths.get(archivePath);
+        if (captureMode == CaptureMode.RECORD) {
+            archive = CaptureArchive.openForAppend(file);
+            // File writes stay off the Netty event loop
+            writer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "upstream-capture-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            logger.info("Recording upstream exchanges to {}", file);
+        } else if (captureMode == CaptureMode.REPLAY) {
+            if (!Files.exists(file)) {
+                throw new IllegalStateException("upstream.capture.mode=replay but no archive at " + file);
+            }
+            List<CapturedExchange> exchanges = CaptureArchive.readAll(file);
+            for (CapturedExchange exchange : exchanges) {
+                byUrl.computeIfAbsent(exchange.method() + " " + exchange.url(), key -> new Replay()).add(exchange);
+                byPath.computeIfAbsent(exchange.method() + " " + stripQuery(exchange.url()), key -> new Replay()).add(exchange);
+            }
+            logger.info("Replaying {} upstream exchanges from {} ({} timing)", exchanges.size(), file, replayTiming);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (archive != null) {
+            archive.close();
+        }
+    }
+
+    public CaptureMode getMode() {
+        return captureMode;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return switch (captureMode) {
+            case OFF -> next.exchange(request);
+            case RECORD -> record(request, next);
+            case REPLAY -> replay(request);
+        };
+    }
+
+    private Mono<ClientResponse> record(ClientRequest request, ExchangeFunction next) {
+        String method = request.method().name();
+        String url = redactUrl(request.url().toString());
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return next.exchange(request).flatMap(response -> response.bodyToMono(byte[].class)
+                    .defaultIfEmpty(new byte[0])
+                    .map(body -> {
+                        int latencyMillis = (int) ((System.nanoTime() - start) / 1_000_000);
+                        CapturedExchange exchange = new CapturedExchange(method, url, response.statusCode().value(),
+                                latencyMillis, keptHeaders(response.headers().asHttpHeaders()), redactBody(body));
+                        writer.execute(() -> append(exchange));
+                        return rebuild(response.statusCode().value(), response.headers().asHttpHeaders(), body);
+                    }));
+        });
+    }
+
+    private void append(CapturedExchange exchange) {
+        try {
+            archive.append(exchange);
+        } catch (IOException e) {
+            logger.warn("Failed to record upstream exchange {} {}: {}", exchange.method(), exchange.url(), e.getMessage());
+        }
+    }
+
+    private Mono<ClientResponse> replay(ClientRequest request) {
+        String method = request.method().name();
+        String url = redactUrl(request.url().toString());
+        Replay replay = byUrl.get(method + " " + url);
+        if (replay == null) {
+            replay = byPath.get(method + " " + stripQuery(url));
+        }
+        if (replay == null) {
+            logger.warn("No recorded exchange for {} {}", method, url);
+            return Mono.just(rebuild(HttpStatus.BAD_GATEWAY.value(), new HttpHeaders(),
+                    ("No recorded exchange for " + method + " " + url).getBytes(StandardCharsets.UTF_8)));
+        }
+        CapturedExchange exchange = replay.next();
+        HttpHeaders headers = new HttpHeaders();
+        exchange.headers().forEach(headers::set);
+        Mono<ClientResponse> response = Mono.fromSupplier(() -> rebuild(exchange.status(), headers, exchange.body()));
+        return "fast".equalsIgnoreCase(replayTiming)
+                ? response
+                : response.delaySubscription(Duration.ofMillis(exchange.latencyMillis()));
+    }
+
+    private static ClientResponse rebuild(int status, HttpHeaders headers, byte[] body) {
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(body);
+        return ClientResponse.create(HttpStatusCode.valueOf(status))
+                .headers(target -> target.addAll(headers))
+                .body(Flux.just(buffer))
+                .build();
+    }
+
+    private static Map<String, String> keptHeaders(HttpHeaders headers) {
+        Map<String, String> kept = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            if (KEPT_HEADERS.contains(name.toLowerCase(Locale.ROOT)) && !values.isEmpty()) {
+                kept.put(name, values.get(0));
+            }
+        });
+        return kept;
+    }
+
+    static String redactUrl(String url) {
+        return SECRET_QUERY.matcher(url).replaceAll("$1" + REDACTED);
+    }
+
+    static byte[] redactBody(byte[] body) {
+        // Token responses are tiny; listings and Gemini answers are never scanned
+        if (body.length > 4096) return body;
+        String text = new String(body, StandardCharsets.UTF_8);
+        if (!text.contains("_token\"")) return body;
+        return SECRET_JSON.matcher(text).replaceAll("$1" + REDACTED).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String stripQuery(String url) {
+        int query = url.indexOf('?');
+        return query < 0 ? url : url.substring(0, query);
+    }
+
+    /** Recorded responses for one key, handed out round-robin. */
+    private static final class Replay {
+        private final List<CapturedExchange> exchanges = new ArrayList<>();
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        void add(CapturedExchange exchange) {
+            exchanges.add(exchange);
+        }
+
+        CapturedExchange next() {
+            return exchanges.get(Math.floorMod(cursor.getAndIncrement(), exchanges.size()));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.reddit.analysis.config;
+
+import com.reddit.analysis.admission.AdmissionInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private AdmissionInterceptor admissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor)
+                .addPathPatterns("/api/analyze-*", "/api/analysis");
+    }
+}
@@ -17,6 +17,8 @@ public class CorsConfig implements WebMvcConfigurer {
                 )
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("Server-Timing", "Retry-After", "ETag",
+                        "X-RateLimit-Limit", "X-RateLimit-Remaining", "X-RateLimit-Reset", "X-RateLimit-Class")
                 .allowCredentials(true);
     }
 }
\ No newline at end of file
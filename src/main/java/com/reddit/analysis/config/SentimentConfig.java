@@ -0,0 +1,45 @@
+package com.reddit.analysis.config;
+
+import com.reddit.analysis.sentiment.KeywordSentimentScorer;
+import com.reddit.analysis.sentiment.LinearSentimentScorer;
+import com.reddit.analysis.sentiment.SentimentScorer;
+import com.reddit.analysis.service.LexiconService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Selects the {@link SentimentScorer} ({@code sentiment.scorer}): the lexicon's keywords, or a linear
+ * model loaded from {@code sentiment.model-path}. A missing or unreadable model fails startup
+ * rather than silently falling back.
+ */
+@Configuration
+public class SentimentConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SentimentConfig.class);
+
+    @Bean
+    public SentimentScorer sentimentScorer(@Value("${sentiment.scorer:keyword}") String scorer,
+                                           @Value("${sentiment.model-path:}") String modelPath,
+                                           LexiconService lexiconService) throws IOException {
+        switch (scorer.trim().toLowerCase(Locale.ROOT)) {
+            case "keyword":
+                return new KeywordSentimentScorer(lexiconService::lexicon);
+            case "linear":
+                if (modelPath.isBlank()) {
+                    throw new IllegalStateException("sentiment.model-path is required when sentiment.scorer=linear");
+                }
+                LinearSentimentScorer model = LinearSentimentScorer.load(Path.of(modelPath));
+                logger.info("Loaded linear sentiment model {} ({} feature bits)", modelPath, model.bits());
+                return model;
+            default:
+                throw new IllegalStateException("Unknown sentiment.scorer '" + scorer + "'; expected keyword or linear");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.reddit.analysis.config;
+
+import com.reddit.analysis.cache.RedisSharedCache;
+import com.reddit.analysis.cache.RespClient;
+import com.reddit.analysis.cache.SharedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+/**
+ * Selects the cache tier shared between replicas ({@code analysis.cache.shared}). With {@code none}
+ * the bean is null and each replica only uses its in-process cache. Decided when the bean is
+ * created rather than by a condition, which ahead-of-time processing would fix at build time.
+ */
+@Configuration
+public class SharedCacheConfig {
+
+    @Bean
+    public SharedCache sharedCache(@Value("${analysis.cache.shared:none}") String shared,
+                                   @Value("${analysis.cache.redis.host:localhost}") String host,
+                                   @Value("${analysis.cache.redis.port:6379}") int port,
+                                   @Value("${analysis.cache.redis.password:}") String password,
+                                   @Value("${analysis.cache.redis.timeout-ms:2000}") int timeoutMs,
+                                   @Value("${analysis.cache.redis.pool-size:16}") int poolSize,
+                                   @Value("${analysis.cache.redis.key-prefix:reddit-analysis:}") String keyPrefix) {
+        switch (shared.trim().toLowerCase(Locale.ROOT)) {
+            case "none":
+                return null;
+            case "redis":
+                return new RedisSharedCache(new RespClient(host, port, timeoutMs, password, poolSize), keyPrefix);
+            default:
+                throw new IllegalStateException("Unknown analysis.cache.shared '" + shared + "'; expected none or redis");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.reddit.analysis.controller;
+
+import com.reddit.analysis.model.AnalysisRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.util.Set;
+
+/**
+ * Turns analysis query parameters into the {@link AnalysisRequest} the pipeline (and so the cache
+ * key) sees. Admission control runs before binding and uses the same rules as the controller, so
+ * it recognizes exactly the requests the controller will answer from the cache.
+ */
+public final class AnalysisQuery {
+
+    private AnalysisQuery() {}
+
+    static AnalysisRequest toRequest(String subreddit, String threadUrl, String source, String trend,
+                                     boolean includeLlm, Set<String> selected) {
+        if ((subreddit == null) == (threadUrl == null)) {
+            throw new IllegalArgumentException("Exactly one of subreddit or threadUrl is required");
+        }
+        AnalysisRequest request = subreddit != null
+                ? new AnalysisRequest(subreddit, "subreddit")
+                : new AnalysisRequest(threadUrl, "thread");
+        request.setIncludeLlm(includeLlm && ResponseShaping.needsLlm(selected));
+        request.setSource(source == null ? "live" : source);
+        request.setTrendWindow(trend);
+        return request;
+    }
+
+    /** The request GET /api/analysis would build; throws IllegalArgumentException where it would 400. */
+    public static AnalysisRequest toRequest(HttpServletRequest request) {
+        return toRequest(request.getParameter("subreddit"), request.getParameter("threadUrl"),
+                request.getParameter("source"), request.getParameter("trend"),
+                includeLlm(request), ResponseShaping.parseFields(request.getParameter("fields")));
+    }
+
+    /** Whether the analysis will call Gemini: includeLlm and a projection that shows its output. */
+    public static boolean usesLlm(HttpServletRequest request) {
+        return includeLlm(request) && ResponseShaping.needsLlm(ResponseShaping.parseFields(request.getParameter("fields")));
+    }
+
+    /** As {@link #usesLlm(HttpServletRequest)} for POST /analyze-reddit, whose includeLlm is in the body. */
+    public static boolean usesLlm(AnalysisRequest body, HttpServletRequest request) {
+        return body.isIncludeLlm() && ResponseShaping.needsLlm(ResponseShaping.parseFields(request.getParameter("fields")));
+    }
+
+    // Spring's own conversion, so "0", "off" and "no" mean what they mean to the controller
+    private static boolean includeLlm(HttpServletRequest request) {
+        String value = request.getParameter("includeLlm");
+        if (value == null) return true;
+        Boolean parsed = DefaultConversionService.getSharedInstance().convert(value.trim(), Boolean.class);
+        return parsed == null || parsed;
+    }
+}
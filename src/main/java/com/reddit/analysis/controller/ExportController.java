@@ -0,0 +1,42 @@
+package com.reddit.analysis.controller;
+
+import com.reddit.analysis.export.ExportFormat;
+import com.reddit.analysis.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ExportController {
+
+    @Lazy
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/thread")
+    public ResponseEntity<StreamingResponseBody> exportThread(@RequestParam String threadUrl,
+                                                              @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        return attachment("thread", exportFormat, exportService.exportThread(threadUrl, exportFormat));
+    }
+
+    @GetMapping("/subreddit")
+    public ResponseEntity<StreamingResponseBody> exportSubreddit(@RequestParam String subreddit,
+                                                                 @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        return attachment("subreddit", exportFormat, exportService.exportSubreddit(subreddit, exportFormat));
+    }
+
+    private ResponseEntity<StreamingResponseBody> attachment(String name, ExportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+                .body(body);
+    }
+}
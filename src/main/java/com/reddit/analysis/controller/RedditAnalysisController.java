@@ -2,32 +2,60 @@ package com.reddit.analysis.controller;
 
 import com.reddit.analysis.model.AnalysisRequest;
 import com.reddit.analysis.model.AnalysisResponse;
+import com.reddit.analysis.model.BatchAnalysisRequest;
+import com.reddit.analysis.model.BatchAnalysisResponse;
+import com.reddit.analysis.service.BatchAnalysisService;
 import com.reddit.analysis.service.RedditAnalysisService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "http://localhost:3000")
 public class RedditAnalysisController {
 
+    // Representations /analysis can be written in, preferred first; each gets its own ETag
+    private static final List<MediaType> ANALYSIS_TYPES = List.of(MediaType.APPLICATION_JSON,
+            new MediaType("application", "x-jackson-smile"), MediaType.APPLICATION_CBOR);
+
     @Autowired
     private RedditAnalysisService redditAnalysisService;
 
+    @Lazy
+    @Autowired
+    private BatchAnalysisService batchAnalysisService;
+
     @PostMapping("/analyze-reddit")
-    public ResponseEntity<AnalysisResponse> analyzeReddit(@Valid @RequestBody AnalysisRequest request) {
+    public ResponseEntity<MappingJacksonValue> analyzeReddit(@Valid @RequestBody AnalysisRequest request,
+                                                             @RequestParam(required = false) String fields,
+                                                             @RequestParam(required = false) Integer page,
+                                                             @RequestParam(required = false) Integer size) {
+        Set<String> selected = ResponseShaping.parseFields(fields);
         try {
+            request.setIncludeLlm(request.isIncludeLlm() && ResponseShaping.needsLlm(selected));
             AnalysisResponse response = redditAnalysisService.performAnalysis(request);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ResponseShaping.shape(response, selected, page, size));
         } catch (Exception e) {
 
             AnalysisResponse errorResponse = new AnalysisResponse();
             errorResponse.setInputSource(request.getInput());
             errorResponse.setAnalysisType(request.getAnalysisType());
             errorResponse.setLlmSummary("Error occurred during analysis: " + e.getMessage());
-            return ResponseEntity.badRequest().body(errorResponse);
+            return ResponseEntity.badRequest().body(new MappingJacksonValue(errorResponse));
         }
     }
 
@@ -37,32 +65,117 @@ public class RedditAnalysisController {
     }
 
     @PostMapping("/analyze-subreddit")
-    public ResponseEntity<AnalysisResponse> analyzeSubreddit(@RequestParam String subreddit) {
+    public ResponseEntity<MappingJacksonValue> analyzeSubreddit(@RequestParam String subreddit,
+                                                                @RequestParam(defaultValue = "live") String source,
+                                                                @RequestParam(defaultValue = "false") boolean incremental,
+                                                                @RequestParam(required = false) String trend,
+                                                                @RequestParam(defaultValue = "true") boolean includeLlm,
+                                                                @RequestParam(required = false) String fields,
+                                                                @RequestParam(required = false) Integer page,
+                                                                @RequestParam(required = false) Integer size) {
+        Set<String> selected = ResponseShaping.parseFields(fields);
         try {
             AnalysisRequest request = new AnalysisRequest(subreddit, "subreddit");
+            request.setIncludeLlm(includeLlm && ResponseShaping.needsLlm(selected));
+            request.setSource(source);
+            request.setIncremental(incremental);
+            request.setTrendWindow(trend);
             AnalysisResponse response = redditAnalysisService.performAnalysis(request);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ResponseShaping.shape(response, selected, page, size));
         } catch (Exception e) {
             AnalysisResponse errorResponse = new AnalysisResponse();
             errorResponse.setInputSource(subreddit);
             errorResponse.setAnalysisType("subreddit");
             errorResponse.setLlmSummary("Error occurred during subreddit analysis: " + e.getMessage());
-            return ResponseEntity.badRequest().body(errorResponse);
+            return ResponseEntity.badRequest().body(new MappingJacksonValue(errorResponse));
         }
     }
 
     @PostMapping("/analyze-thread")
-    public ResponseEntity<AnalysisResponse> analyzeThread(@RequestParam String threadUrl) {
+    public ResponseEntity<MappingJacksonValue> analyzeThread(@RequestParam String threadUrl,
+                                                             @RequestParam(defaultValue = "live") String source,
+                                                             @RequestParam(required = false) String trend,
+                                                             @RequestParam(defaultValue = "true") boolean includeLlm,
+                                                             @RequestParam(required = false) String fields,
+                                                             @RequestParam(required = false) Integer page,
+                                                             @RequestParam(required = false) Integer size) {
+        Set<String> selected = ResponseShaping.parseFields(fields);
         try {
             AnalysisRequest request = new AnalysisRequest(threadUrl, "thread");
+            request.setIncludeLlm(includeLlm && ResponseShaping.needsLlm(selected));
+            request.setSource(source);
+            request.setTrendWindow(trend);
             AnalysisResponse response = redditAnalysisService.performAnalysis(request);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ResponseShaping.shape(response, selected, page, size));
         } catch (Exception e) {
             AnalysisResponse errorResponse = new AnalysisResponse();
             errorResponse.setInputSource(threadUrl);
             errorResponse.setAnalysisType("thread");
             errorResponse.setLlmSummary("Error occurred during thread analysis: " + e.getMessage());
-            return ResponseEntity.badRequest().body(errorResponse);
+            return ResponseEntity.badRequest().body(new MappingJacksonValue(errorResponse));
+        }
+    }
+
+    /**
+     * Cacheable form of analyze-subreddit/analyze-thread. The ETag covers the scraped post ids and
+     * scores, the analysis version and the requested representation, including the format picked
+     * from Accept (hence {@code Vary: Accept}); If-None-Match gets a 304 without running the
+     * analysis or the LLM calls.
+     */
+    @GetMapping("/analysis")
+    public ResponseEntity<MappingJacksonValue> analysis(@RequestParam(required = false) String subreddit,
+                                                        @RequestParam(required = false) String threadUrl,
+                                                        @RequestParam(defaultValue = "live") String source,
+                                                        @RequestParam(required = false) String trend,
+                                                        @RequestParam(defaultValue = "true") boolean includeLlm,
+                                                        @RequestParam(required = false) String fields,
+                                                        @RequestParam(required = false) Integer page,
+                                                        @RequestParam(required = false) Integer size,
+                                                        ServletWebRequest webRequest) throws Exception {
+        Set<String> selected = ResponseShaping.parseFields(fields);
+        AnalysisRequest request = AnalysisQuery.toRequest(subreddit, threadUrl, source, trend, includeLlm, selected);
+
+        MediaType contentType = negotiatedType(webRequest.getHeader(HttpHeaders.ACCEPT));
+        String variant = contentType + "|" + fields + "|" + page + "|" + size;
+        // On the servlet response so the 304 written by checkNotModified carries it too
+        webRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        RedditAnalysisService.ConditionalAnalysis result = redditAnalysisService.performConditionalAnalysis(
+                request, variant, webRequest.getHeader(HttpHeaders.IF_NONE_MATCH), webRequest::checkNotModified);
+        if (result == null) {
+            return null; // 304 already written by checkNotModified
         }
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(result.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(ResponseShaping.shape(result.response(), selected, page, size));
+    }
+
+    /**
+     * The type /analysis will be written in, picked here rather than by the message converters so
+     * it can go into the ETag before the response exists. Anything unusable falls back to JSON.
+     */
+    static MediaType negotiatedType(String accept) {
+        if (accept == null || accept.isBlank()) return MediaType.APPLICATION_JSON;
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        // Stable, so equally weighted types keep the client's order
+        acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() == 0) break;
+            for (MediaType produced : ANALYSIS_TYPES) {
+                if (type.includes(produced)) return produced;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    @PostMapping("/analyze-batch")
+    public ResponseEntity<BatchAnalysisResponse> analyzeBatch(@RequestBody BatchAnalysisRequest request) {
+        return ResponseEntity.ok(batchAnalysisService.analyzeBatch(request));
     }
 }
\ No newline at end of file
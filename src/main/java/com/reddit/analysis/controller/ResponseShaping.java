@@ -0,0 +1,78 @@
+package com.reddit.analysis.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.reddit.analysis.model.AnalysisResponse;
+import com.reddit.analysis.model.PageInfo;
+import com.reddit.analysis.model.PostData;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.*;
+
+/**
+ * {@code fields=} projection and {@code page}/{@code size} paging of analyzed posts. The response
+ * handed in is never modified, since it may be shared with a cache or an incremental snapshot.
+ */
+final class ResponseShaping {
+
+    private static final Set<String> FIELDS = Set.of(
+            "inputSource", "analysisType", "timestamp", "sentimentAnalysis", "keyTopics", "keywordFrequency",
+            "phrases", "llmSummary", "businessInsights", "analyzedPosts", "stats", "trends", "postsPage");
+
+    private static final Map<String, String> ALIASES = Map.of(
+            "sentiment", "sentimentAnalysis",
+            "topics", "keyTopics",
+            "keywords", "keywordFrequency",
+            "summary", "llmSummary",
+            "insights", "businessInsights",
+            "posts", "analyzedPosts");
+
+    private ResponseShaping() {}
+
+    /** Requested property names, or null for all of them. */
+    static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) return null;
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = ALIASES.getOrDefault(field.trim(), field.trim());
+            if (name.isEmpty()) continue;
+            if (!FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + field.trim() + "'; expected one of " + new TreeSet<>(FIELDS));
+            }
+            selected.add(name);
+        }
+        if (selected.contains("analyzedPosts")) {
+            selected.add("postsPage");
+        }
+        return selected;
+    }
+
+    /** Whether the Gemini calls are worth making for this projection. */
+    static boolean needsLlm(Set<String> fields) {
+        return fields == null || fields.contains("llmSummary") || fields.contains("businessInsights");
+    }
+
+    static MappingJacksonValue shape(AnalysisResponse response, Set<String> fields, Integer page, Integer size) {
+        AnalysisResponse shaped = response;
+        if (size != null && response.getAnalyzedPosts() != null) {
+            int pageIndex = page == null ? 0 : page;
+            if (size < 1 || pageIndex < 0) {
+                throw new IllegalArgumentException("page must be >= 0 and size >= 1");
+            }
+            List<PostData> posts = response.getAnalyzedPosts();
+            int from = (int) Math.min((long) pageIndex * size, posts.size());
+            int to = (int) Math.min((long) from + size, posts.size());
+            shaped = new AnalysisResponse(response);
+            shaped.setAnalyzedPosts(posts.subList(from, to));
+            shaped.setPostsPage(new PageInfo(pageIndex, size, posts.size()));
+        }
+
+        MappingJacksonValue value = new MappingJacksonValue(shaped);
+        if (fields != null) {
+            value.setFilters(new SimpleFilterProvider()
+                    .addFilter(AnalysisResponse.FIELD_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields))
+                    .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,31 @@
+package com.reddit.analysis.controller;
+
+import com.reddit.analysis.model.SearchResponse;
+import com.reddit.analysis.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SearchController {
+
+    @Lazy
+    @Autowired
+    private SearchService searchService;
+
+    /**
+     * Searches scraped posts and comments, most recently indexed first (an edited post moves to
+     * the front when it is re-scraped). {@code q} takes words (all required),
+     * {@code OR}, {@code NOT}/{@code -word}, parentheses and {@code "quoted phrases"}.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<SearchResponse> search(@RequestParam String q,
+                                                 @RequestParam(required = false) String subreddit,
+                                                 @RequestParam(defaultValue = "0") int offset,
+                                                 @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(searchService.search(q, subreddit, offset, limit));
+    }
+}
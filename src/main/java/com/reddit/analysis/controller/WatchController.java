@@ -0,0 +1,34 @@
+package com.reddit.analysis.controller;
+
+import com.reddit.analysis.exception.TooManyRequestsException;
+import com.reddit.analysis.service.SubredditWatchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:3000")
+public class WatchController {
+
+    @Lazy
+    @Autowired
+    private SubredditWatchService subredditWatchService;
+
+    @GetMapping(value = "/watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> watchSubreddit(@RequestParam String subreddit) {
+        try {
+            return ResponseEntity.ok(subredditWatchService.subscribe(subreddit));
+        } catch (TooManyRequestsException e) {
+            // The JSON error body cannot be written to an event stream, so the status says it all
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        }
+    }
+}
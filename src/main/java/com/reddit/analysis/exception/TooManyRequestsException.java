@@ -0,0 +1,26 @@
+package com.reddit.analysis.exception;
+
+import java.util.Map;
+
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+    private final Map<String, String> headers;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        this(message, retryAfterSeconds, Map.of());
+    }
+
+    public TooManyRequestsException(String message, long retryAfterSeconds, Map<String, String> headers) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.headers = headers;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+}
@@ -0,0 +1,66 @@
+package com.reddit.analysis.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/** RFC 4180 CSV with a header row; posts and comments share one column layout. */
+class CsvRowWriter implements RowWriter {
+
+    private static final String HEADER = "type,id,parent_id,post_id,author,created_utc,upvotes,num_comments,sentiment,title,text\r\n";
+
+    private final Writer out;
+
+    CsvRowWriter(OutputStream out) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        this.out.write(HEADER);
+    }
+
+    @Override
+    public void write(ExportRow row) throws IOException {
+        boolean post = ExportRow.POST.equals(row.getType());
+        field(row.getType()).write(',');
+        field(row.getId()).write(',');
+        field(row.getParentId()).write(',');
+        field(row.getPostId()).write(',');
+        field(row.getAuthor()).write(',');
+        out.write(Long.toString(row.getCreatedUtc()));
+        out.write(',');
+        out.write(Integer.toString(row.getUpvotes()));
+        out.write(',');
+        if (post) out.write(Integer.toString(row.getNumComments()));
+        out.write(',');
+        field(row.getSentiment()).write(',');
+        field(post ? row.getTitle() : null).write(',');
+        field(row.getText()).write("\r\n");
+    }
+
+    private Writer field(String value) throws IOException {
+        if (value == null || value.isEmpty()) return out;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return out;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
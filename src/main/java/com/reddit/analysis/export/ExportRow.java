@@ -0,0 +1,89 @@
+package com.reddit.analysis.export;
+
+import com.reddit.analysis.model.PostBatch;
+
+/**
+ * One post or comment as it is exported. Instances are reused per nesting level by
+ * {@link RedditJsonStreamer}, so writers must not hold on to them after {@code write} returns.
+ */
+public final class ExportRow {
+
+    public static final String POST = "post";
+    public static final String COMMENT = "comment";
+
+    String kind;
+    String type;
+    String id;
+    String parentId;
+    String postId;
+    String author;
+    long createdUtc;
+    int upvotes;
+    int numComments;
+    String title;
+    String selftext;
+    String url;
+    String body;
+    String sentiment;
+
+    void reset() {
+        kind = type = id = parentId = postId = author = title = selftext = url = body = sentiment = null;
+        createdUtc = 0;
+        upvotes = numComments = 0;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public long getCreatedUtc() {
+        return createdUtc;
+    }
+
+    public int getUpvotes() {
+        return upvotes;
+    }
+
+    public int getNumComments() {
+        return numComments;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /** Body for comments; for posts the same content {@code PostData} carries (selftext or a link placeholder). */
+    public String getText() {
+        if (COMMENT.equals(type)) {
+            return body;
+        }
+        if (selftext != null && !selftext.isEmpty()) {
+            return selftext;
+        }
+        return PostBatch.placeholderContent(url);
+    }
+
+    public String getSentiment() {
+        return sentiment;
+    }
+
+    public void setSentiment(String sentiment) {
+        this.sentiment = sentiment;
+    }
+}
@@ -0,0 +1,45 @@
+package com.reddit.analysis.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+class NdjsonRowWriter implements RowWriter {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JsonGenerator json;
+
+    NdjsonRowWriter(OutputStream out) throws IOException {
+        json = JSON.createGenerator(out);
+        json.setRootValueSeparator(new SerializedString(""));
+    }
+
+    @Override
+    public void write(ExportRow row) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("type", row.getType());
+        json.writeStringField("id", row.getId());
+        json.writeStringField("parent_id", row.getParentId());
+        json.writeStringField("post_id", row.getPostId());
+        json.writeStringField("author", row.getAuthor());
+        json.writeNumberField("created_utc", row.getCreatedUtc());
+        json.writeNumberField("upvotes", row.getUpvotes());
+        if (ExportRow.POST.equals(row.getType())) {
+            json.writeNumberField("num_comments", row.getNumComments());
+            json.writeStringField("title", row.getTitle());
+        }
+        json.writeStringField("text", row.getText());
+        json.writeStringField("sentiment", row.getSentiment());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+}
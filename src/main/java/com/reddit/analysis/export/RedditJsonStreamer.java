@@ -0,0 +1,123 @@
+package com.reddit.analysis.export;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Walks a Reddit listing or thread response token by token and hands each post and comment to a
+ * handler as soon as its object closes. Reddit puts {@code replies} ahead of a comment's own body,
+ * so comments come out post-order (replies before their parent) with {@code parent_id} to rebuild
+ * the tree. Memory is one reusable row per nesting level, independent of the thread size.
+ */
+public final class RedditJsonStreamer {
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void row(ExportRow row) throws IOException;
+    }
+
+    private final List<ExportRow> rows = new ArrayList<>();
+
+    public void stream(JsonParser parser, RowHandler handler) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                if (token == JsonToken.START_OBJECT) {
+                    parseThing(parser, 0, handler);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else if (token == JsonToken.START_OBJECT) {
+            parseThing(parser, 0, handler);
+        }
+    }
+
+    // {"kind": ..., "data": {...}} where data is a post, a comment or a listing of further things
+    private void parseThing(JsonParser parser, int depth, RowHandler handler) throws IOException {
+        ExportRow row = rowAt(depth);
+        row.reset();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("kind".equals(field)) {
+                row.kind = parser.getValueAsString();
+            } else if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                parseData(parser, row, depth, handler);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        String kind = row.kind != null ? row.kind : (row.body != null ? "t1" : row.title != null ? "t3" : null);
+        if ("t3".equals(kind)) {
+            row.type = ExportRow.POST;
+            row.postId = row.id;
+            handler.row(row);
+        } else if ("t1".equals(kind)) {
+            row.type = ExportRow.COMMENT;
+            row.postId = stripPrefix(row.postId);
+            row.parentId = stripPrefix(row.parentId);
+            handler.row(row);
+        }
+    }
+
+    private void parseData(JsonParser parser, ExportRow row, int depth, RowHandler handler) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> row.id = parser.getValueAsString();
+                case "parent_id" -> row.parentId = parser.getValueAsString();
+                case "link_id" -> row.postId = parser.getValueAsString();
+                case "author" -> row.author = parser.getValueAsString();
+                case "title" -> row.title = parser.getValueAsString();
+                case "selftext" -> row.selftext = parser.getValueAsString();
+                case "url" -> row.url = parser.getValueAsString();
+                case "body" -> row.body = parser.getValueAsString();
+                case "ups" -> row.upvotes = parser.getValueAsInt();
+                case "num_comments" -> row.numComments = parser.getValueAsInt();
+                case "created_utc" -> row.createdUtc = parser.getValueAsLong();
+                case "replies" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        parseThing(parser, depth + 1, handler);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case "children" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        JsonToken child;
+                        while ((child = parser.nextToken()) != JsonToken.END_ARRAY) {
+                            if (child == JsonToken.START_OBJECT) {
+                                parseThing(parser, depth + 1, handler);
+                            } else {
+                                parser.skipChildren(); // "more" stubs list bare ids
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private ExportRow rowAt(int depth) {
+        while (rows.size() <= depth) {
+            rows.add(new ExportRow());
+        }
+        return rows.get(depth);
+    }
+
+    private static String stripPrefix(String fullname) {
+        if (fullname == null) return null;
+        int underscore = fullname.indexOf('_');
+        return underscore == 2 ? fullname.substring(3) : fullname;
+    }
+}
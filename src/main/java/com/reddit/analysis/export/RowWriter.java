@@ -0,0 +1,18 @@
+package com.reddit.analysis.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/** Serializes export rows one at a time straight onto the response stream. */
+public interface RowWriter extends Closeable {
+
+    void write(ExportRow row) throws IOException;
+
+    static RowWriter create(ExportFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonRowWriter(out);
+            case CSV -> new CsvRowWriter(out);
+        };
+    }
+}
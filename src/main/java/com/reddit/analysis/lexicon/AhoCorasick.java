@@ -0,0 +1,159 @@
+package com.reddit.analysis.lexicon;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton over whole words, compiled to a dense transition table so matching any
+ * number of terms is one array lookup per character. Text is folded to the {@code [a-z0-9_]} word
+ * characters of {@link com.reddit.analysis.text.Tokenizer} plus one separator symbol for everything
+ * else, with runs of separators collapsed; terms are stored padded with separators, so "bug" never
+ * matches inside "debug" and "machine learning" matches "Machine-Learning". Immutable and safe to
+ * share between threads.
+ */
+public final class AhoCorasick {
+
+    private static final int ALPHABET = 38;
+    private static final int SEPARATOR = 37;
+
+    // state * ALPHABET + symbol -> next state, with failure links already folded in
+    private final int[] transitions;
+    // Categories matched on entering a state: outputs[outputStart[state] .. outputStart[state + 1])
+    private final int[] outputStart;
+    private final int[] outputs;
+    private final int terms;
+
+    private AhoCorasick(int[] transitions, int[] outputStart, int[] outputs, int terms) {
+        this.transitions = transitions;
+        this.outputStart = outputStart;
+        this.outputs = outputs;
+        this.terms = terms;
+    }
+
+    public int terms() {
+        return terms;
+    }
+
+    public int states() {
+        return outputStart.length - 1;
+    }
+
+    /** Adds one to {@code counts[category]} for every whole-word occurrence of a term in the range. */
+    public void count(CharSequence text, int start, int end, int[] counts) {
+        // The range starts as if preceded by a separator and ends with one
+        int state = transitions[SEPARATOR];
+        boolean separated = true;
+        for (int i = start; i <= end; i++) {
+            int symbol = i < end ? symbol(text.charAt(i)) : SEPARATOR;
+            if (symbol == SEPARATOR) {
+                if (separated) continue;
+                separated = true;
+            } else {
+                separated = false;
+            }
+            state = transitions[state * ALPHABET + symbol];
+            for (int o = outputStart[state]; o < outputStart[state + 1]; o++) {
+                counts[outputs[o]]++;
+            }
+        }
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a';
+        if (c >= 'A' && c <= 'Z') return c - 'A';
+        if (c >= '0' && c <= '9') return 26 + c - '0';
+        return c == '_' ? 36 : SEPARATOR;
+    }
+
+    public static final class Builder {
+        private final Map<String, Set<Integer>> terms = new LinkedHashMap<>();
+
+        /** Adds a term (one or more words) under a category; terms without word characters are ignored. */
+        public Builder add(String term, int category) {
+            StringBuilder normalized = new StringBuilder().append(' ');
+            for (int i = 0; i < term.length(); i++) {
+                char c = term.charAt(i);
+                if (symbol(c) != SEPARATOR) {
+                    normalized.append((c >= 'A' && c <= 'Z') ? (char) (c + 32) : c);
+                } else if (normalized.charAt(normalized.length() - 1) != ' ') {
+                    normalized.append(' ');
+                }
+            }
+            if (normalized.length() == 1) return this;
+            if (normalized.charAt(normalized.length() - 1) != ' ') normalized.append(' ');
+            terms.computeIfAbsent(normalized.toString(), t -> new TreeSet<>()).add(category);
+            return this;
+        }
+
+        public AhoCorasick build() {
+            // Trie with -1 for missing edges
+            int[] next = new int[ALPHABET * 64];
+            Arrays.fill(next, -1);
+            List<int[]> own = new ArrayList<>();
+            own.add(new int[0]);
+            int states = 1;
+            for (Map.Entry<String, Set<Integer>> entry : terms.entrySet()) {
+                String term = entry.getKey();
+                int state = 0;
+                for (int i = 0; i < term.length(); i++) {
+                    int symbol = symbol(term.charAt(i));
+                    int index = state * ALPHABET + symbol;
+                    if (next[index] < 0) {
+                        if ((states + 1) * ALPHABET > next.length) {
+                            int oldLength = next.length;
+                            next = Arrays.copyOf(next, oldLength * 2);
+                            Arrays.fill(next, oldLength, next.length, -1);
+                        }
+                        next[index] = states++;
+                        own.add(new int[0]);
+                    }
+                    state = next[index];
+                }
+                own.set(state, entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+            }
+
+            // Breadth-first: failure links, then missing edges resolved through them (a full DFA)
+            int[] transitions = Arrays.copyOf(next, states * ALPHABET);
+            int[] fail = new int[states];
+            int[][] matched = new int[states][];
+            matched[0] = own.get(0);
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = transitions[symbol];
+                if (child < 0) {
+                    transitions[symbol] = 0;
+                } else {
+                    fail[child] = 0;
+                    queue.add(child);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                int[] inherited = matched[fail[state]];
+                int[] mine = own.get(state);
+                int[] all = Arrays.copyOf(mine, mine.length + inherited.length);
+                System.arraycopy(inherited, 0, all, mine.length, inherited.length);
+                matched[state] = all;
+                for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                    int index = state * ALPHABET + symbol;
+                    int child = transitions[index];
+                    if (child < 0) {
+                        transitions[index] = transitions[fail[state] * ALPHABET + symbol];
+                    } else {
+                        fail[child] = transitions[fail[state] * ALPHABET + symbol];
+                        queue.add(child);
+                    }
+                }
+            }
+
+            int[] outputStart = new int[states + 1];
+            for (int state = 0; state < states; state++) {
+                outputStart[state + 1] = outputStart[state] + matched[state].length;
+            }
+            int[] outputs = new int[outputStart[states]];
+            for (int state = 0; state < states; state++) {
+                System.arraycopy(matched[state], 0, outputs, outputStart[state], matched[state].length);
+            }
+            return new AhoCorasick(transitions, outputStart, outputs, terms.size());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.reddit.analysis.lexicon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * One compiled set of dictionaries: the sentiment terms in a single {@link AhoCorasick} automaton
+ * (categories {@link #POSITIVE} and {@link #NEGATIVE}) and the stopwords. Immutable; a changed
+ * dictionary produces a new instance that replaces this one.
+ */
+public final class Lexicon {
+
+    public static final String POSITIVE_DICTIONARY = "positive";
+    public static final String NEGATIVE_DICTIONARY = "negative";
+    public static final String STOPWORDS_DICTIONARY = "stopwords";
+    public static final List<String> DICTIONARIES = List.of(POSITIVE_DICTIONARY, NEGATIVE_DICTIONARY, STOPWORDS_DICTIONARY);
+
+    public static final int POSITIVE = 0;
+    public static final int NEGATIVE = 1;
+    public static final int SENTIMENT_CATEGORIES = 2;
+
+    private static final String BUNDLED = "/lexicon/";
+
+    private final AhoCorasick sentiment;
+    private final Set<String> stopwords;
+
+    private Lexicon(AhoCorasick sentiment, Set<String> stopwords) {
+        this.sentiment = sentiment;
+        this.stopwords = stopwords;
+    }
+
+    /** Compiles dictionaries by name (see {@link #DICTIONARIES}); missing ones are empty. */
+    public static Lexicon compile(Map<String, Collection<String>> dictionaries) {
+        AhoCorasick.Builder builder = new AhoCorasick.Builder();
+        dictionaries.getOrDefault(POSITIVE_DICTIONARY, List.of()).forEach(term -> builder.add(term, POSITIVE));
+        dictionaries.getOrDefault(NEGATIVE_DICTIONARY, List.of()).forEach(term -> builder.add(term, NEGATIVE));
+        return new Lexicon(builder.build(), Set.copyOf(dictionaries.getOrDefault(STOPWORDS_DICTIONARY, List.of())));
+    }
+
+    /** The dictionaries shipped on the classpath, compiled once. */
+    public static Lexicon defaults() {
+        return Defaults.LEXICON;
+    }
+
+    /** A dictionary shipped on the classpath. */
+    public static List<String> bundled(String dictionary) {
+        try (InputStream in = Lexicon.class.getResourceAsStream(BUNDLED + dictionary + ".txt")) {
+            if (in == null) {
+                throw new IllegalStateException("No bundled dictionary " + dictionary);
+            }
+            return read(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Terms of a dictionary file: one per line, lower-cased, blank lines and {@code #} comments skipped. */
+    public static List<String> read(BufferedReader reader) throws IOException {
+        List<String> terms = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.strip();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                terms.add(line.toLowerCase(Locale.ROOT));
+            }
+        }
+        return terms;
+    }
+
+    /** Adds the positive and negative term occurrences in the range to {@code counts[POSITIVE/NEGATIVE]}. */
+    public void countSentiment(CharSequence text, int start, int end, int[] counts) {
+        sentiment.count(text, start, end, counts);
+    }
+
+    /** Whether a lower-case token is a stopword. */
+    public boolean isStopword(String word) {
+        return stopwords.contains(word);
+    }
+
+    public int sentimentTerms() {
+        return sentiment.terms();
+    }
+
+    public int stopwords() {
+        return stopwords.size();
+    }
+
+    private static final class Defaults {
+        static final Lexicon LEXICON = compile(Map.<String, Collection<String>>of(
+                POSITIVE_DICTIONARY, bundled(POSITIVE_DICTIONARY),
+                NEGATIVE_DICTIONARY, bundled(NEGATIVE_DICTIONARY),
+                STOPWORDS_DICTIONARY, bundled(STOPWORDS_DICTIONARY)));
+    }
+}
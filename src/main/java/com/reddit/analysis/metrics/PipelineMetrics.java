@@ -0,0 +1,58 @@
+package com.reddit.analysis.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stage timers for the analysis pipeline. Every timed stage is recorded as an
+ * {@code analysis.stage} timer tagged with the stage name, and added to the current
+ * request's Server-Timing breakdown when one is bound.
+ */
+@Component
+public class PipelineMetrics {
+
+    private final MeterRegistry registry;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T, E extends Exception> T time(String stage, StageWork<T, E> work) throws E {
+        long start = System.nanoTime();
+        try {
+            return work.run();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    public void record(String stage, long nanos) {
+        Timer.builder("analysis.stage")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        ServerTiming timing = ServerTimingContext.current();
+        if (timing != null) {
+            timing.add(stage, nanos);
+        }
+    }
+
+    /** Per-request sizes: posts, comments, upstream bytes, prompt characters. */
+    public void count(String name, String baseUnit, long amount) {
+        DistributionSummary.builder(name)
+                .baseUnit(baseUnit)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(amount);
+    }
+
+    @FunctionalInterface
+    public interface StageWork<T, E extends Exception> {
+        T run() throws E;
+    }
+}
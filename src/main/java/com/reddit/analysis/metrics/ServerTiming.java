@@ -0,0 +1,34 @@
+package com.reddit.analysis.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/** Per-request stage durations, rendered as a {@code Server-Timing} header value. */
+public class ServerTiming {
+
+    private final Map<String, long[]> stages = new LinkedHashMap<>();
+
+    public synchronized void add(String stage, long nanos) {
+        long[] entry = stages.computeIfAbsent(stage, s -> new long[2]);
+        entry[0] += nanos;
+        entry[1]++;
+    }
+
+    public synchronized String toHeaderValue() {
+        StringJoiner header = new StringJoiner(", ");
+        stages.forEach((stage, entry) -> {
+            String value = stage + ";dur=" + String.format(Locale.ROOT, "%.1f", entry[0] / 1_000_000.0);
+            if (entry[1] > 1) {
+                value += ";desc=\"" + entry[1] + " calls\"";
+            }
+            header.add(value);
+        });
+        return header.toString();
+    }
+
+    public synchronized boolean isEmpty() {
+        return stages.isEmpty();
+    }
+}
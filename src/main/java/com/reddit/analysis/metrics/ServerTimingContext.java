@@ -0,0 +1,50 @@
+package com.reddit.analysis.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Binds the current request's {@link ServerTiming} to the handling thread. Work handed to
+ * other executors has to be wrapped so its stages are attributed to the right request.
+ */
+public final class ServerTimingContext {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private ServerTimingContext() {}
+
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    static void bind(ServerTiming timing) {
+        CURRENT.set(timing);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> Supplier<T> wrap(Supplier<T> work) {
+        return wrap(CURRENT.get(), work);
+    }
+
+    public static <T> Supplier<T> wrap(ServerTiming timing, Supplier<T> work) {
+        return () -> {
+            ServerTiming previous = CURRENT.get();
+            CURRENT.set(timing);
+            try {
+                return work.get();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    public static Runnable wrap(ServerTiming timing, Runnable work) {
+        Supplier<Void> wrapped = wrap(timing, () -> {
+            work.run();
+            return null;
+        });
+        return wrapped::get;
+    }
+}
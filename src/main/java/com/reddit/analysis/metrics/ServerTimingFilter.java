@@ -0,0 +1,39 @@
+package com.reddit.analysis.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ServerTiming timing = new ServerTiming();
+        ServerTimingContext.bind(timing);
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ServerTimingContext.clear();
+            // Bodies get the header from ServerTimingAdvice; this covers bodiless responses
+            if (!response.isCommitted() && !response.containsHeader(HEADER) && !timing.isEmpty()) {
+                timing.add("total", System.nanoTime() - start);
+                response.setHeader(HEADER, timing.toHeaderValue());
+            }
+        }
+    }
+}
@@ -8,6 +8,14 @@ public class AnalysisRequest {
 
     private String analysisType; // "subreddit" or "thread"
 
+    private String source; // "live" (default) or "store"
+
+    private boolean incremental; // subreddit only: refresh a rolling window instead of re-scraping
+
+    private String trendWindow; // optional: "hourly" or "daily"
+
+    private boolean includeLlm = true; // false = stats-only, no Gemini calls
+
     public AnalysisRequest() {}
 
     public AnalysisRequest(String input, String analysisType) {
@@ -30,4 +38,36 @@ public class AnalysisRequest {
     public void setAnalysisType(String analysisType) {
         this.analysisType = analysisType;
     }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public String getTrendWindow() {
+        return trendWindow;
+    }
+
+    public void setTrendWindow(String trendWindow) {
+        this.trendWindow = trendWindow;
+    }
+
+    public boolean isIncludeLlm() {
+        return includeLlm;
+    }
+
+    public void setIncludeLlm(boolean includeLlm) {
+        this.includeLlm = includeLlm;
+    }
 }
\ No newline at end of file
@@ -1,26 +1,53 @@
 package com.reddit.analysis.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+@JsonFilter(AnalysisResponse.FIELD_FILTER)
 public class AnalysisResponse {
+
+    /** Jackson filter id used for {@code fields=} projections; serializes everything unless set per response. */
+    public static final String FIELD_FILTER = "analysisResponseFields";
+
     private String inputSource;
     private String analysisType;
     private LocalDateTime timestamp;
     private SentimentAnalysis sentimentAnalysis;
     private List<String> keyTopics;
     private Map<String, Integer> keywordFrequency;
+    private Map<String, Integer> phrases;
     private String llmSummary;
     private String businessInsights;
     private List<PostData> analyzedPosts;
     private AnalysisStats stats;
+    private TrendAnalysis trends;
+    private PageInfo postsPage;
 
     // Constructors
     public AnalysisResponse() {
         this.timestamp = LocalDateTime.now();
     }
 
+    /** Shallow copy, so a shared or cached response can be reshaped without touching the original. */
+    public AnalysisResponse(AnalysisResponse other) {
+        this.inputSource = other.inputSource;
+        this.analysisType = other.analysisType;
+        this.timestamp = other.timestamp;
+        this.sentimentAnalysis = other.sentimentAnalysis;
+        this.keyTopics = other.keyTopics;
+        this.keywordFrequency = other.keywordFrequency;
+        this.phrases = other.phrases;
+        this.llmSummary = other.llmSummary;
+        this.businessInsights = other.businessInsights;
+        this.analyzedPosts = other.analyzedPosts;
+        this.stats = other.stats;
+        this.trends = other.trends;
+        this.postsPage = other.postsPage;
+    }
+
     // Getters and Setters
     public String getInputSource() {
         return inputSource;
@@ -70,6 +97,14 @@ public class AnalysisResponse {
         this.keywordFrequency = keywordFrequency;
     }
 
+    public Map<String, Integer> getPhrases() {
+        return phrases;
+    }
+
+    public void setPhrases(Map<String, Integer> phrases) {
+        this.phrases = phrases;
+    }
+
     public String getLlmSummary() {
         return llmSummary;
     }
@@ -101,4 +136,20 @@ public class AnalysisResponse {
     public void setStats(AnalysisStats stats) {
         this.stats = stats;
     }
-}
\ No newline at end of file
+
+    public TrendAnalysis getTrends() {
+        return trends;
+    }
+
+    public void setTrends(TrendAnalysis trends) {
+        this.trends = trends;
+    }
+
+    public PageInfo getPostsPage() {
+        return postsPage;
+    }
+
+    public void setPostsPage(PageInfo postsPage) {
+        this.postsPage = postsPage;
+    }
+}
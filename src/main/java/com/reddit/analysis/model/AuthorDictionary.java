@@ -0,0 +1,37 @@
+package com.reddit.analysis.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for author names. Each distinct name is stored once and referenced
+ * by a dense int id from the post and comment batches.
+ */
+public class AuthorDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[64];
+    private int size;
+
+    public int encode(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        names[size] = name;
+        ids.put(name, size);
+        return size++;
+    }
+
+    public String decode(int id) {
+        return names[id];
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,37 @@
+package com.reddit.analysis.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchAnalysisRequest {
+    private List<String> subreddits = new ArrayList<>();
+    private List<String> threads = new ArrayList<>();
+    private boolean includeLlm = true;
+
+    public BatchAnalysisRequest() {}
+
+    // Getters and Setters
+    public List<String> getSubreddits() {
+        return subreddits;
+    }
+
+    public void setSubreddits(List<String> subreddits) {
+        this.subreddits = subreddits != null ? subreddits : new ArrayList<>();
+    }
+
+    public List<String> getThreads() {
+        return threads;
+    }
+
+    public void setThreads(List<String> threads) {
+        this.threads = threads != null ? threads : new ArrayList<>();
+    }
+
+    public boolean isIncludeLlm() {
+        return includeLlm;
+    }
+
+    public void setIncludeLlm(boolean includeLlm) {
+        this.includeLlm = includeLlm;
+    }
+}
@@ -0,0 +1,48 @@
+package com.reddit.analysis.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BatchAnalysisResponse {
+    private LocalDateTime timestamp;
+    private long wallTimeMs;
+    private List<AnalysisResponse> results;
+    private List<SubredditComparison> comparison;
+
+    public BatchAnalysisResponse() {
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public long getWallTimeMs() {
+        return wallTimeMs;
+    }
+
+    public void setWallTimeMs(long wallTimeMs) {
+        this.wallTimeMs = wallTimeMs;
+    }
+
+    public List<AnalysisResponse> getResults() {
+        return results;
+    }
+
+    public void setResults(List<AnalysisResponse> results) {
+        this.results = results;
+    }
+
+    public List<SubredditComparison> getComparison() {
+        return comparison;
+    }
+
+    public void setComparison(List<SubredditComparison> comparison) {
+        this.comparison = comparison;
+    }
+}
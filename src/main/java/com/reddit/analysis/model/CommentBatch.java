@@ -0,0 +1,163 @@
+package com.reddit.analysis.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Columnar counterpart of {@link CommentData} for the comments of a {@link PostBatch}.
+ * Comments are stored in parse order; the tree is kept as a parent index per row
+ * (-1 for top-level comments). Authors share the post batch dictionary.
+ */
+public class CommentBatch {
+
+    private final int size;
+    private final String[] ids;
+    private final int[] postIndexes;
+    private final int[] parentIndexes;
+    private final int[] upvotes;
+    private final long[] createdEpochSeconds;
+    private final int[] authorIds;
+    private final AuthorDictionary authors;
+    private final String text;
+    private final int[] textOffsets;
+    private final byte[] sentiments;
+
+    private CommentBatch(Builder builder) {
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.postIndexes = Arrays.copyOf(builder.postIndexes, size);
+        this.parentIndexes = Arrays.copyOf(builder.parentIndexes, size);
+        this.upvotes = Arrays.copyOf(builder.upvotes, size);
+        this.createdEpochSeconds = Arrays.copyOf(builder.createdEpochSeconds, size);
+        this.authorIds = Arrays.copyOf(builder.authorIds, size);
+        this.authors = builder.authors;
+        this.text = builder.text.toString();
+        this.textOffsets = Arrays.copyOf(builder.textOffsets, size + 1);
+        this.sentiments = new byte[size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String id(int i) {
+        return ids[i];
+    }
+
+    public int postIndex(int i) {
+        return postIndexes[i];
+    }
+
+    public int parentIndex(int i) {
+        return parentIndexes[i];
+    }
+
+    public int upvotes(int i) {
+        return upvotes[i];
+    }
+
+    public long createdEpochSeconds(int i) {
+        return createdEpochSeconds[i];
+    }
+
+    public int authorId(int i) {
+        return authorIds[i];
+    }
+
+    public String author(int i) {
+        return authors.decode(authorIds[i]);
+    }
+
+    public String text() {
+        return text;
+    }
+
+    public int contentStart(int i) {
+        return textOffsets[i];
+    }
+
+    public int contentEnd(int i) {
+        return textOffsets[i + 1];
+    }
+
+    public String content(int i) {
+        return text.substring(textOffsets[i], textOffsets[i + 1]);
+    }
+
+    public byte sentiment(int i) {
+        return sentiments[i];
+    }
+
+    public void setSentiment(int i, byte sentiment) {
+        sentiments[i] = sentiment;
+    }
+
+    public CommentData toCommentData(int i) {
+        CommentData comment = new CommentData();
+        comment.setId(ids[i]);
+        comment.setContent(content(i));
+        comment.setAuthor(author(i));
+        comment.setUpvotes(upvotes[i]);
+        if (createdEpochSeconds[i] != PostBatch.NO_TIMESTAMP) {
+            comment.setCreatedTime(LocalDateTime.ofInstant(Instant.ofEpochSecond(createdEpochSeconds[i]), ZoneId.systemDefault()));
+        }
+        comment.setReplies(new ArrayList<>());
+        comment.setSentiment(PostBatch.sentimentLabel(sentiments[i]));
+        return comment;
+    }
+
+    public static class Builder {
+        private final AuthorDictionary authors;
+        private final StringBuilder text = new StringBuilder();
+        private int size;
+        private String[] ids = new String[16];
+        private int[] postIndexes = new int[16];
+        private int[] parentIndexes = new int[16];
+        private int[] upvotes = new int[16];
+        private long[] createdEpochSeconds = new long[16];
+        private int[] authorIds = new int[16];
+        private int[] textOffsets = new int[17];
+
+        Builder(AuthorDictionary authors) {
+            this.authors = authors;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int add(int postIndex, int parentIndex, String id, String content, String author,
+                       int upvotes, long createdEpochSeconds) {
+            ensureCapacity(size + 1);
+            this.ids[size] = id;
+            this.postIndexes[size] = postIndex;
+            this.parentIndexes[size] = parentIndex;
+            this.upvotes[size] = upvotes;
+            this.createdEpochSeconds[size] = createdEpochSeconds;
+            this.authorIds[size] = authors.encode(author);
+            textOffsets[size] = text.length();
+            if (content != null) text.append(content);
+            textOffsets[size + 1] = text.length();
+            return size++;
+        }
+
+        CommentBatch build() {
+            return new CommentBatch(this);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= ids.length) return;
+            int newCapacity = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, newCapacity);
+            postIndexes = Arrays.copyOf(postIndexes, newCapacity);
+            parentIndexes = Arrays.copyOf(parentIndexes, newCapacity);
+            upvotes = Arrays.copyOf(upvotes, newCapacity);
+            createdEpochSeconds = Arrays.copyOf(createdEpochSeconds, newCapacity);
+            authorIds = Arrays.copyOf(authorIds, newCapacity);
+            textOffsets = Arrays.copyOf(textOffsets, newCapacity + 1);
+        }
+    }
+}
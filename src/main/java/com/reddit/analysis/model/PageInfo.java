@@ -0,0 +1,50 @@
+package com.reddit.analysis.model;
+
+public class PageInfo {
+    private int page;
+    private int size;
+    private int totalItems;
+    private int totalPages;
+
+    public PageInfo() {}
+
+    public PageInfo(int page, int size, int totalItems) {
+        this.page = page;
+        this.size = size;
+        this.totalItems = totalItems;
+        this.totalPages = size == 0 ? 0 : (int) (((long) totalItems + size - 1) / size);
+    }
+
+    // Getters and Setters
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getTotalItems() {
+        return totalItems;
+    }
+
+    public void setTotalItems(int totalItems) {
+        this.totalItems = totalItems;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+}
@@ -0,0 +1,252 @@
+package com.reddit.analysis.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Columnar, primitive-backed set of posts used by the analytics pipeline. Titles and
+ * contents live in one shared text buffer addressed by offsets; authors are dictionary
+ * encoded. {@link PostData} beans are only materialized for the posts returned to clients.
+ */
+public class PostBatch {
+
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    public static final byte SENTIMENT_UNSET = 0;
+    public static final byte SENTIMENT_POSITIVE = 1;
+    public static final byte SENTIMENT_NEUTRAL = 2;
+    public static final byte SENTIMENT_NEGATIVE = 3;
+
+    // Content given to posts without a body; every such post shares these words
+    private static final String DISCUSSION_PLACEHOLDER = "Discussion thread";
+    private static final String LINK_PLACEHOLDER_PREFIX = "Link post: ";
+    private static final String TITLE_ONLY_PLACEHOLDER = "Title-only post";
+
+    private final int size;
+    private final String[] ids;
+    private final int[] upvotes;
+    private final int[] commentCounts;
+    private final long[] createdEpochSeconds;
+    private final int[] authorIds;
+    private final AuthorDictionary authors;
+    // title i = [textOffsets[2i], textOffsets[2i+1]), content i = [textOffsets[2i+1], textOffsets[2i+2])
+    private final String text;
+    private final int[] textOffsets;
+    private final byte[] sentiments;
+    private final CommentBatch comments;
+
+    private PostBatch(Builder builder) {
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.upvotes = Arrays.copyOf(builder.upvotes, size);
+        this.commentCounts = Arrays.copyOf(builder.commentCounts, size);
+        this.createdEpochSeconds = Arrays.copyOf(builder.createdEpochSeconds, size);
+        this.authorIds = Arrays.copyOf(builder.authorIds, size);
+        this.authors = builder.authors;
+        this.text = builder.text.toString();
+        this.textOffsets = Arrays.copyOf(builder.textOffsets, size * 2 + 1);
+        this.sentiments = new byte[size];
+        this.comments = builder.comments.build();
+    }
+
+    public static PostBatch of(List<PostData> posts) {
+        Builder builder = new Builder();
+        for (PostData post : posts) {
+            long created = post.getCreatedTime() != null
+                    ? post.getCreatedTime().atZone(ZoneId.systemDefault()).toEpochSecond()
+                    : NO_TIMESTAMP;
+            builder.add(post.getId(), post.getTitle(), post.getContent(), post.getAuthor(),
+                    post.getUpvotes(), post.getRealCommentCount(), created);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String id(int i) {
+        return ids[i];
+    }
+
+    public int upvotes(int i) {
+        return upvotes[i];
+    }
+
+    public int commentCount(int i) {
+        return commentCounts[i];
+    }
+
+    public long createdEpochSeconds(int i) {
+        return createdEpochSeconds[i];
+    }
+
+    public int authorId(int i) {
+        return authorIds[i];
+    }
+
+    public String author(int i) {
+        return authors.decode(authorIds[i]);
+    }
+
+    public AuthorDictionary authors() {
+        return authors;
+    }
+
+    public String text() {
+        return text;
+    }
+
+    public int titleStart(int i) {
+        return textOffsets[2 * i];
+    }
+
+    public int titleEnd(int i) {
+        return textOffsets[2 * i + 1];
+    }
+
+    public int contentStart(int i) {
+        return textOffsets[2 * i + 1];
+    }
+
+    public int contentEnd(int i) {
+        return textOffsets[2 * i + 2];
+    }
+
+    /** Stand-in content for a post without selftext, from its url (which may be null or empty). */
+    public static String placeholderContent(String url) {
+        if (url == null || url.isEmpty()) return TITLE_ONLY_PLACEHOLDER;
+        return url.contains("reddit.com") ? DISCUSSION_PLACEHOLDER : LINK_PLACEHOLDER_PREFIX + url;
+    }
+
+    /** Whether post i's content is a {@link #placeholderContent} stand-in rather than text someone wrote. */
+    public boolean hasPlaceholderContent(int i) {
+        int start = contentStart(i);
+        int length = contentEnd(i) - start;
+        return (length == DISCUSSION_PLACEHOLDER.length() && text.startsWith(DISCUSSION_PLACEHOLDER, start))
+                || (length == TITLE_ONLY_PLACEHOLDER.length() && text.startsWith(TITLE_ONLY_PLACEHOLDER, start))
+                || (length >= LINK_PLACEHOLDER_PREFIX.length() && text.startsWith(LINK_PLACEHOLDER_PREFIX, start));
+    }
+
+    public String title(int i) {
+        return text.substring(titleStart(i), titleEnd(i));
+    }
+
+    public String content(int i) {
+        return text.substring(contentStart(i), contentEnd(i));
+    }
+
+    public byte sentiment(int i) {
+        return sentiments[i];
+    }
+
+    public void setSentiment(int i, byte sentiment) {
+        sentiments[i] = sentiment;
+    }
+
+    public CommentBatch comments() {
+        return comments;
+    }
+
+    public PostData toPostData(int i) {
+        PostData post = new PostData();
+        post.setId(id(i));
+        post.setTitle(title(i));
+        post.setContent(content(i));
+        post.setAuthor(author(i));
+        post.setUpvotes(upvotes[i]);
+        post.setDownvotes(0);
+        if (createdEpochSeconds[i] != NO_TIMESTAMP) {
+            post.setCreatedTime(LocalDateTime.ofInstant(Instant.ofEpochSecond(createdEpochSeconds[i]), ZoneId.systemDefault()));
+        }
+        post.setRealCommentCount(commentCounts[i]);
+        post.setComments(new ArrayList<>());
+        post.setSentiment(sentimentLabel(sentiments[i]));
+        return post;
+    }
+
+    public List<PostData> toPostDataList() {
+        List<PostData> posts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            posts.add(toPostData(i));
+        }
+        return posts;
+    }
+
+    public static String sentimentLabel(byte sentiment) {
+        switch (sentiment) {
+            case SENTIMENT_POSITIVE: return "positive";
+            case SENTIMENT_NEUTRAL: return "neutral";
+            case SENTIMENT_NEGATIVE: return "negative";
+            default: return null;
+        }
+    }
+
+    public static class Builder {
+        private final AuthorDictionary authors = new AuthorDictionary();
+        private final CommentBatch.Builder comments = new CommentBatch.Builder(authors);
+        private final Set<String> seenIds = new HashSet<>();
+        private final StringBuilder text = new StringBuilder();
+        private int size;
+        private String[] ids = new String[16];
+        private int[] upvotes = new int[16];
+        private int[] commentCounts = new int[16];
+        private long[] createdEpochSeconds = new long[16];
+        private int[] authorIds = new int[16];
+        private int[] textOffsets = new int[33];
+
+        public boolean contains(String id) {
+            return seenIds.contains(id);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int add(String id, String title, String content, String author,
+                       int upvotes, int commentCount, long createdEpochSeconds) {
+            ensureCapacity(size + 1);
+            seenIds.add(id);
+            this.ids[size] = id;
+            this.upvotes[size] = upvotes;
+            this.commentCounts[size] = commentCount;
+            this.createdEpochSeconds[size] = createdEpochSeconds;
+            this.authorIds[size] = authors.encode(author);
+            textOffsets[2 * size] = text.length();
+            if (title != null) text.append(title);
+            textOffsets[2 * size + 1] = text.length();
+            if (content != null) text.append(content);
+            textOffsets[2 * size + 2] = text.length();
+            return size++;
+        }
+
+        public void setCommentCount(int post, int commentCount) {
+            commentCounts[post] = commentCount;
+        }
+
+        public CommentBatch.Builder comments() {
+            return comments;
+        }
+
+        public PostBatch build() {
+            return new PostBatch(this);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= ids.length) return;
+            int newCapacity = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, newCapacity);
+            upvotes = Arrays.copyOf(upvotes, newCapacity);
+            commentCounts = Arrays.copyOf(commentCounts, newCapacity);
+            createdEpochSeconds = Arrays.copyOf(createdEpochSeconds, newCapacity);
+            authorIds = Arrays.copyOf(authorIds, newCapacity);
+            textOffsets = Arrays.copyOf(textOffsets, newCapacity * 2 + 1);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.reddit.analysis.model;
+
+public class PostSummary {
+    private String id;
+    private String title;
+    private String author;
+    private int upvotes;
+    private String sentiment;
+
+    public PostSummary() {}
+
+    public PostSummary(String id, String title, String author, int upvotes, String sentiment) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.upvotes = upvotes;
+        this.sentiment = sentiment;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public int getUpvotes() {
+        return upvotes;
+    }
+
+    public void setUpvotes(int upvotes) {
+        this.upvotes = upvotes;
+    }
+
+    public String getSentiment() {
+        return sentiment;
+    }
+
+    public void setSentiment(String sentiment) {
+        this.sentiment = sentiment;
+    }
+}
@@ -0,0 +1,63 @@
+package com.reddit.analysis.model;
+
+import java.util.List;
+
+public class SearchResponse {
+    private String query;
+    private String subreddit;
+    private int totalHits;
+    private int offset;
+    private double tookMillis;
+    private List<SearchHit> hits;
+
+    public SearchResponse() {}
+
+    // Getters and Setters
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getSubreddit() {
+        return subreddit;
+    }
+
+    public void setSubreddit(String subreddit) {
+        this.subreddit = subreddit;
+    }
+
+    public int getTotalHits() {
+        return totalHits;
+    }
+
+    public void setTotalHits(int totalHits) {
+        this.totalHits = totalHits;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public double getTookMillis() {
+        return tookMillis;
+    }
+
+    public void setTookMillis(double tookMillis) {
+        this.tookMillis = tookMillis;
+    }
+
+    public List<SearchHit> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<SearchHit> hits) {
+        this.hits = hits;
+    }
+}
@@ -0,0 +1,108 @@
+package com.reddit.analysis.model;
+
+import java.util.List;
+
+public class SubredditComparison {
+    private String inputSource;
+    private String analysisType;
+    private int totalPosts;
+    private int totalComments;
+    private int totalUsers;
+    private double averageScore;
+    private double positivePercentage;
+    private double negativePercentage;
+    private String overallSentiment;
+    private List<String> topTopics;
+    private String error;
+
+    public SubredditComparison() {}
+
+    // Getters and Setters
+    public String getInputSource() {
+        return inputSource;
+    }
+
+    public void setInputSource(String inputSource) {
+        this.inputSource = inputSource;
+    }
+
+    public String getAnalysisType() {
+        return analysisType;
+    }
+
+    public void setAnalysisType(String analysisType) {
+        this.analysisType = analysisType;
+    }
+
+    public int getTotalPosts() {
+        return totalPosts;
+    }
+
+    public void setTotalPosts(int totalPosts) {
+        this.totalPosts = totalPosts;
+    }
+
+    public int getTotalComments() {
+        return totalComments;
+    }
+
+    public void setTotalComments(int totalComments) {
+        this.totalComments = totalComments;
+    }
+
+    public int getTotalUsers() {
+        return totalUsers;
+    }
+
+    public void setTotalUsers(int totalUsers) {
+        this.totalUsers = totalUsers;
+    }
+
+    public double getAverageScore() {
+        return averageScore;
+    }
+
+    public void setAverageScore(double averageScore) {
+        this.averageScore = averageScore;
+    }
+
+    public double getPositivePercentage() {
+        return positivePercentage;
+    }
+
+    public void setPositivePercentage(double positivePercentage) {
+        this.positivePercentage = positivePercentage;
+    }
+
+    public double getNegativePercentage() {
+        return negativePercentage;
+    }
+
+    public void setNegativePercentage(double negativePercentage) {
+        this.negativePercentage = negativePercentage;
+    }
+
+    public String getOverallSentiment() {
+        return overallSentiment;
+    }
+
+    public void setOverallSentiment(String overallSentiment) {
+        this.overallSentiment = overallSentiment;
+    }
+
+    public List<String> getTopTopics() {
+        return topTopics;
+    }
+
+    public void setTopTopics(List<String> topTopics) {
+        this.topTopics = topTopics;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
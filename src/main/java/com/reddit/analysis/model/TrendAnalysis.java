@@ -0,0 +1,46 @@
+package com.reddit.analysis.model;
+
+import java.util.List;
+import java.util.Map;
+
+public class TrendAnalysis {
+    private String window; // "hourly" or "daily"
+    private List<TrendBucket> buckets;
+    private SentimentAnalysis windowSentiment;
+    private Map<String, Integer> windowKeywords;
+
+    public TrendAnalysis() {}
+
+    // Getters and Setters
+    public String getWindow() {
+        return window;
+    }
+
+    public void setWindow(String window) {
+        this.window = window;
+    }
+
+    public List<TrendBucket> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<TrendBucket> buckets) {
+        this.buckets = buckets;
+    }
+
+    public SentimentAnalysis getWindowSentiment() {
+        return windowSentiment;
+    }
+
+    public void setWindowSentiment(SentimentAnalysis windowSentiment) {
+        this.windowSentiment = windowSentiment;
+    }
+
+    public Map<String, Integer> getWindowKeywords() {
+        return windowKeywords;
+    }
+
+    public void setWindowKeywords(Map<String, Integer> windowKeywords) {
+        this.windowKeywords = windowKeywords;
+    }
+}
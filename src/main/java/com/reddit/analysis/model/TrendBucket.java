@@ -0,0 +1,46 @@
+package com.reddit.analysis.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class TrendBucket {
+    private LocalDateTime start;
+    private int itemCount;
+    private SentimentAnalysis sentiment;
+    private Map<String, Integer> topKeywords;
+
+    public TrendBucket() {}
+
+    // Getters and Setters
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDateTime start) {
+        this.start = start;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public SentimentAnalysis getSentiment() {
+        return sentiment;
+    }
+
+    public void setSentiment(SentimentAnalysis sentiment) {
+        this.sentiment = sentiment;
+    }
+
+    public Map<String, Integer> getTopKeywords() {
+        return topKeywords;
+    }
+
+    public void setTopKeywords(Map<String, Integer> topKeywords) {
+        this.topKeywords = topKeywords;
+    }
+}
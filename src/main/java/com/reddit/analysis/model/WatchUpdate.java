@@ -0,0 +1,76 @@
+package com.reddit.analysis.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class WatchUpdate {
+    private String subreddit;
+    private LocalDateTime timestamp;
+    private List<PostSummary> newPosts;
+    private Map<String, Integer> keywordDelta;
+    private SentimentAnalysis sentimentAnalysis;
+    private Map<String, Integer> keywordFrequency;
+    private AnalysisStats stats;
+
+    public WatchUpdate() {
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getSubreddit() {
+        return subreddit;
+    }
+
+    public void setSubreddit(String subreddit) {
+        this.subreddit = subreddit;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public List<PostSummary> getNewPosts() {
+        return newPosts;
+    }
+
+    public void setNewPosts(List<PostSummary> newPosts) {
+        this.newPosts = newPosts;
+    }
+
+    public Map<String, Integer> getKeywordDelta() {
+        return keywordDelta;
+    }
+
+    public void setKeywordDelta(Map<String, Integer> keywordDelta) {
+        this.keywordDelta = keywordDelta;
+    }
+
+    public SentimentAnalysis getSentimentAnalysis() {
+        return sentimentAnalysis;
+    }
+
+    public void setSentimentAnalysis(SentimentAnalysis sentimentAnalysis) {
+        this.sentimentAnalysis = sentimentAnalysis;
+    }
+
+    public Map<String, Integer> getKeywordFrequency() {
+        return keywordFrequency;
+    }
+
+    public void setKeywordFrequency(Map<String, Integer> keywordFrequency) {
+        this.keywordFrequency = keywordFrequency;
+    }
+
+    public AnalysisStats getStats() {
+        return stats;
+    }
+
+    public void setStats(AnalysisStats stats) {
+        this.stats = stats;
+    }
+}
@@ -0,0 +1,418 @@
+package com.reddit.analysis.search;
+
+import com.reddit.analysis.text.Tokenizer;
+import com.reddit.analysis.util.Hashing;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Positional inverted index over posts and comments. Documents get dense ids in ingestion order,
+ * so postings stay sorted as they grow and can be delta-encoded ({@link Postings}). Re-adding a
+ * document with unchanged text is a no-op; changed text retires the old id and indexes a new one,
+ * so results come back most recently indexed first, not by post creation time. Retired ids are
+ * masked out of queries until {@link #compact} renumbers the live documents and drops their postings.
+ * Queries evaluate to sorted id arrays, combined by merging.
+ */
+public class InvertedIndex {
+
+    private static final int MAGIC = 0x52534958; // "RSIX"
+    private static final int VERSION = 1;
+    // Position gap between fields, so phrases never span a title and the body
+    private static final int FIELD_GAP = 1;
+
+    /** Where a document came from; {@code commentId} is null for posts. */
+    public record DocRef(String subreddit, String postId, String commentId) {
+    }
+
+    public record Result(int total, List<DocRef> hits) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final Map<String, Integer> docsByKey = new HashMap<>();
+    private final List<String> subreddits = new ArrayList<>();
+    private final Map<String, Integer> subredditIds = new HashMap<>();
+    private final BitSet retired = new BitSet();
+    private int[] docSubreddit = new int[1024];
+    private String[] docPostId = new String[1024];
+    private String[] docCommentId = new String[1024];
+    private long[] docTextHash = new long[1024];
+    private int docCount;
+
+    /** Indexes a post (title, body) or comment (body); returns false when it was already indexed as is. */
+    public boolean add(String subreddit, String postId, String commentId, String... fields) {
+        long textHash = 0;
+        for (String field : fields) {
+            textHash = Hashing.mix64(textHash ^ Hashing.hash64(field == null ? "" : field));
+        }
+        String key = commentId != null ? "t1_" + commentId : "t3_" + postId;
+        Map<String, TermPositions> positions = tokenize(fields);
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = docsByKey.get(key);
+            if (existing != null) {
+                if (docTextHash[existing] == textHash) return false;
+                retired.set(existing);
+            }
+            int doc = newDoc(subreddit, postId, commentId, textHash);
+            docsByKey.put(key, doc);
+            positions.forEach((term, termPositions) ->
+                    terms.computeIfAbsent(term, t -> new Postings()).add(doc, termPositions.positions, termPositions.count));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Matching documents, most recently indexed first, optionally limited to one subreddit. */
+    public Result search(SearchQuery query, String subreddit, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int[] matches = evaluate(query.root());
+            Integer onlySubreddit = subreddit == null ? null : subredditIds.get(subreddit.toLowerCase(Locale.ROOT));
+            if (subreddit != null && onlySubreddit == null) return new Result(0, List.of());
+
+            int total = 0;
+            List<DocRef> hits = new ArrayList<>(Math.min(limit, 64));
+            for (int i = matches.length - 1; i >= 0; i--) {
+                int doc = matches[i];
+                if (retired.get(doc) || (onlySubreddit != null && docSubreddit[doc] != onlySubreddit)) continue;
+                if (total >= offset && hits.size() < limit) {
+                    hits.add(new DocRef(subreddits.get(docSubreddit[doc]), docPostId[doc], docCommentId[doc]));
+                }
+                total++;
+            }
+            return new Result(total, hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return docCount - retired.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Share of document ids held by retired (superseded) documents. */
+    public double retiredRatio() {
+        lock.readLock().lock();
+        try {
+            return docCount == 0 ? 0 : (double) retired.cardinality() / docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Renumbers the live documents densely, in their existing order, and rewrites every posting
+     * list without the retired ones; terms left with no postings are dropped.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            if (retired.isEmpty()) return;
+            int[] remap = new int[docCount];
+            int live = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                if (retired.get(doc)) {
+                    remap[doc] = -1;
+                    continue;
+                }
+                remap[doc] = live;
+                docSubreddit[live] = docSubreddit[doc];
+                docPostId[live] = docPostId[doc];
+                docCommentId[live] = docCommentId[doc];
+                docTextHash[live] = docTextHash[doc];
+                live++;
+            }
+            Arrays.fill(docPostId, live, docCount, null);
+            Arrays.fill(docCommentId, live, docCount, null);
+
+            int[] positions = new int[16];
+            Iterator<Map.Entry<String, Postings>> entries = terms.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, Postings> entry = entries.next();
+                Postings compacted = new Postings();
+                Postings.Cursor cursor = entry.getValue().cursor();
+                while (cursor.next()) {
+                    if (remap[cursor.doc()] < 0) continue;
+                    positions = cursor.positions(positions);
+                    compacted.add(remap[cursor.doc()], positions, cursor.freq());
+                }
+                if (compacted.docFreq() == 0) {
+                    entries.remove();
+                } else {
+                    entry.setValue(compacted);
+                }
+            }
+            docsByKey.replaceAll((key, doc) -> remap[doc]);
+            docCount = live;
+            retired.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long postingsBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Postings postings : terms.values()) {
+                bytes += postings.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int newDoc(String subreddit, String postId, String commentId, long textHash) {
+        if (docCount == docPostId.length) {
+            int capacity = docCount * 2;
+            docSubreddit = Arrays.copyOf(docSubreddit, capacity);
+            docPostId = Arrays.copyOf(docPostId, capacity);
+            docCommentId = Arrays.copyOf(docCommentId, capacity);
+            docTextHash = Arrays.copyOf(docTextHash, capacity);
+        }
+        int doc = docCount++;
+        docSubreddit[doc] = subredditId(subreddit.toLowerCase(Locale.ROOT));
+        docPostId[doc] = postId;
+        docCommentId[doc] = commentId;
+        docTextHash[doc] = textHash;
+        return doc;
+    }
+
+    private int subredditId(String subreddit) {
+        Integer id = subredditIds.get(subreddit);
+        if (id == null) {
+            id = subreddits.size();
+            subreddits.add(subreddit);
+            subredditIds.put(subreddit, id);
+        }
+        return id;
+    }
+
+    private static Map<String, TermPositions> tokenize(String[] fields) {
+        Map<String, TermPositions> positions = new HashMap<>();
+        int[] position = {0};
+        for (String field : fields) {
+            if (field == null) continue;
+            Tokenizer.forEachToken(field, term -> positions.computeIfAbsent(term, t -> new TermPositions()).add(position[0]++));
+            position[0] += FIELD_GAP;
+        }
+        return positions;
+    }
+
+    // ---- Query evaluation: every node yields ascending doc ids (retired ones are filtered at the end)
+
+    private int[] evaluate(SearchQuery.Node node) {
+        if (node instanceof SearchQuery.Term term) {
+            Postings postings = terms.get(term.term());
+            return postings == null ? new int[0] : postings.docs();
+        }
+        if (node instanceof SearchQuery.Phrase phrase) {
+            return phrase(phrase.terms());
+        }
+        if (node instanceof SearchQuery.Or or) {
+            int[] result = new int[0];
+            for (SearchQuery.Node clause : or.clauses()) {
+                result = union(result, evaluate(clause));
+            }
+            return result;
+        }
+        if (node instanceof SearchQuery.And and) {
+            return and(and.clauses());
+        }
+        return and(List.of(node));
+    }
+
+    private int[] and(List<SearchQuery.Node> clauses) {
+        List<int[]> required = new ArrayList<>();
+        List<int[]> excluded = new ArrayList<>();
+        for (SearchQuery.Node clause : clauses) {
+            if (clause instanceof SearchQuery.Not not) {
+                excluded.add(evaluate(not.clause()));
+            } else {
+                required.add(evaluate(clause));
+            }
+        }
+        int[] result;
+        if (required.isEmpty()) {
+            // Only exclusions: start from every document
+            result = new int[docCount];
+            for (int i = 0; i < docCount; i++) result[i] = i;
+        } else {
+            // Shortest first keeps every intermediate result small
+            required.sort(Comparator.comparingInt(docs -> docs.length));
+            result = required.get(0);
+            for (int i = 1; i < required.size() && result.length > 0; i++) {
+                result = intersect(result, required.get(i));
+            }
+        }
+        for (int[] docs : excluded) {
+            result = subtract(result, docs);
+        }
+        return result;
+    }
+
+    private int[] phrase(List<String> phraseTerms) {
+        Postings.Cursor[] cursors = new Postings.Cursor[phraseTerms.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            Postings postings = terms.get(phraseTerms.get(i));
+            if (postings == null) return new int[0];
+            cursors[i] = postings.cursor();
+        }
+        int[] candidates = and(phraseTerms.stream().<SearchQuery.Node>map(SearchQuery.Term::new).toList());
+        int[][] positions = new int[cursors.length][16];
+        int[] matches = new int[candidates.length];
+        int count = 0;
+        for (int doc : candidates) {
+            for (int i = 0; i < cursors.length; i++) {
+                while (cursors[i].doc() < doc) cursors[i].next();
+                positions[i] = cursors[i].positions(positions[i]);
+            }
+            if (containsSequence(cursors, positions)) matches[count++] = doc;
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    // Whether some position p of the first term has term i at p + i for every i
+    private static boolean containsSequence(Postings.Cursor[] cursors, int[][] positions) {
+        int[] next = new int[cursors.length];
+        for (int first = 0; first < cursors[0].freq(); first++) {
+            int start = positions[0][first];
+            boolean matched = true;
+            for (int i = 1; i < cursors.length && matched; i++) {
+                while (next[i] < cursors[i].freq() && positions[i][next[i]] < start + i) next[i]++;
+                matched = next[i] < cursors[i].freq() && positions[i][next[i]] == start + i;
+            }
+            if (matched) return true;
+        }
+        return false;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            if (j >= b.length || (i < a.length && a[i] < b[j])) result[n++] = a[i++];
+            else if (i >= a.length || b[j] < a[i]) result[n++] = b[j++];
+            else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static int[] subtract(int[] a, int[] b) {
+        int[] result = new int[a.length];
+        int j = 0, n = 0;
+        for (int doc : a) {
+            while (j < b.length && b[j] < doc) j++;
+            if (j >= b.length || b[j] != doc) result[n++] = doc;
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    // ---- Persistence
+
+    public void writeTo(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        lock.readLock().lock();
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(subreddits.size());
+            for (String subreddit : subreddits) out.writeUTF(subreddit);
+            out.writeInt(docCount);
+            for (int doc = 0; doc < docCount; doc++) {
+                out.writeInt(docSubreddit[doc]);
+                out.writeUTF(docPostId[doc]);
+                out.writeBoolean(docCommentId[doc] != null);
+                if (docCommentId[doc] != null) out.writeUTF(docCommentId[doc]);
+                out.writeLong(docTextHash[doc]);
+            }
+            long[] retiredWords = retired.toLongArray();
+            out.writeInt(retiredWords.length);
+            for (long word : retiredWords) out.writeLong(word);
+            out.writeInt(terms.size());
+            for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        out.flush();
+    }
+
+    public static InvertedIndex readFrom(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+        if (in.readInt() != MAGIC) throw new IOException("Not a search index file");
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("Unsupported search index version " + version);
+        InvertedIndex index = new InvertedIndex();
+        int subredditCount = in.readInt();
+        for (int i = 0; i < subredditCount; i++) index.subredditId(in.readUTF());
+        int docCount = in.readInt();
+        for (int doc = 0; doc < docCount; doc++) {
+            int subreddit = in.readInt();
+            String postId = in.readUTF();
+            String commentId = in.readBoolean() ? in.readUTF() : null;
+            index.newDoc(index.subreddits.get(subreddit), postId, commentId, in.readLong());
+            index.docsByKey.put(commentId != null ? "t1_" + commentId : "t3_" + postId, doc);
+        }
+        long[] retiredWords = new long[in.readInt()];
+        for (int i = 0; i < retiredWords.length; i++) retiredWords[i] = in.readLong();
+        index.retired.or(BitSet.valueOf(retiredWords));
+        int termCount = in.readInt();
+        for (int i = 0; i < termCount; i++) {
+            index.terms.put(in.readUTF(), Postings.readFrom(in));
+        }
+        return index;
+    }
+
+    private static final class TermPositions {
+        int[] positions = new int[4];
+        int count;
+
+        void add(int position) {
+            if (count == positions.length) positions = Arrays.copyOf(positions, count * 2);
+            positions[count++] = position;
+        }
+    }
+}
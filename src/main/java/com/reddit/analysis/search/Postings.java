@@ -0,0 +1,147 @@
+package com.reddit.analysis.search;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Postings list of one term, appended in document order. Each document is encoded as varints:
+ * {@code docDelta, freq, positionBytes}, then {@code freq} position deltas. The byte length of
+ * the positions lets boolean queries skip them without decoding.
+ */
+final class Postings {
+
+    private byte[] bytes = new byte[16];
+    private int length;
+    private int docFreq;
+    private int lastDoc = -1;
+
+    int docFreq() {
+        return docFreq;
+    }
+
+    /** {@code positions[0..count)} must be ascending, and {@code doc} above every doc added so far. */
+    void add(int doc, int[] positions, int count) {
+        int positionBytes = 0;
+        for (int i = 0, previous = 0; i < count; previous = positions[i++]) {
+            positionBytes += varIntSize(positions[i] - previous);
+        }
+        ensureCapacity(3 * 5 + positionBytes);
+        writeVarInt(doc - lastDoc);
+        writeVarInt(count);
+        writeVarInt(positionBytes);
+        for (int i = 0, previous = 0; i < count; previous = positions[i++]) {
+            writeVarInt(positions[i] - previous);
+        }
+        lastDoc = doc;
+        docFreq++;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    /** Decodes just the document ids. */
+    int[] docs() {
+        int[] docs = new int[docFreq];
+        Cursor cursor = cursor();
+        for (int i = 0; cursor.next(); i++) {
+            docs[i] = cursor.doc();
+        }
+        return docs;
+    }
+
+    int sizeInBytes() {
+        return length;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(docFreq);
+        out.writeInt(lastDoc);
+        out.writeInt(length);
+        out.write(bytes, 0, length);
+    }
+
+    static Postings readFrom(DataInput in) throws IOException {
+        Postings postings = new Postings();
+        postings.docFreq = in.readInt();
+        postings.lastDoc = in.readInt();
+        postings.length = in.readInt();
+        postings.bytes = new byte[Math.max(16, postings.length)];
+        in.readFully(postings.bytes, 0, postings.length);
+        return postings;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7f) != 0) {
+            bytes[length++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7f) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /** Forward-only iterator; positions of the current document are decoded on request. */
+    final class Cursor {
+        private int offset;
+        private int doc = -1;
+        private int freq;
+        private int positionsOffset;
+        private int positionBytes;
+
+        boolean next() {
+            if (offset >= length) return false;
+            doc += readVarInt();
+            freq = readVarInt();
+            positionBytes = readVarInt();
+            positionsOffset = offset;
+            offset += positionBytes;
+            return true;
+        }
+
+        int doc() {
+            return doc;
+        }
+
+        int freq() {
+            return freq;
+        }
+
+        /** Positions of the current document into {@code into}, which must hold {@link #freq()} values. */
+        int[] positions(int[] into) {
+            int[] positions = into.length >= freq ? into : new int[freq];
+            int saved = offset;
+            offset = positionsOffset;
+            for (int i = 0, previous = 0; i < freq; i++) {
+                previous += readVarInt();
+                positions[i] = previous;
+            }
+            offset = saved;
+            return positions;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[offset++];
+                value |= (b & 0x7f) << shift;
+                if (b >= 0) return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.reddit.analysis.search;
+
+import com.reddit.analysis.text.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed search query. Terms next to each other must all match; {@code OR} between them matches
+ * either, and {@code NOT term} or {@code -term} excludes. Parentheses group, and a quoted
+ * {@code "phrase"} matches the words in sequence. Words are normalized with {@link Tokenizer}, so a
+ * word it splits (such as {@code spring-boot}) is matched as a phrase.
+ */
+public final class SearchQuery {
+
+    static final int MAX_LENGTH = 512;
+    static final int MAX_CLAUSES = 64;
+
+    sealed interface Node permits Term, Phrase, And, Or, Not {
+    }
+
+    record Term(String term) implements Node {
+    }
+
+    record Phrase(List<String> terms) implements Node {
+    }
+
+    record And(List<Node> clauses) implements Node {
+    }
+
+    record Or(List<Node> clauses) implements Node {
+    }
+
+    record Not(Node clause) implements Node {
+    }
+
+    private final String text;
+    private final Node root;
+
+    private SearchQuery(String text, Node root) {
+        this.text = text;
+        this.root = root;
+    }
+
+    public String text() {
+        return text;
+    }
+
+    Node root() {
+        return root;
+    }
+
+    /** Words the matches must or may contain (excluded ones left out), for highlighting snippets. */
+    public List<String> positiveTerms() {
+        List<String> terms = new ArrayList<>();
+        collect(root, terms);
+        return terms;
+    }
+
+    private static void collect(Node node, List<String> terms) {
+        if (node instanceof Term term) {
+            terms.add(term.term());
+        } else if (node instanceof Phrase phrase) {
+            terms.addAll(phrase.terms());
+        } else if (node instanceof And and) {
+            and.clauses().forEach(clause -> collect(clause, terms));
+        } else if (node instanceof Or or) {
+            or.clauses().forEach(clause -> collect(clause, terms));
+        }
+    }
+
+    public static SearchQuery parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        if (text.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Search query is longer than " + MAX_LENGTH + " characters");
+        }
+        Parser parser = new Parser(lex(text));
+        Node root = parser.parseOr();
+        if (parser.position < parser.tokens.size()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.tokens.get(parser.position) + "' in search query");
+        }
+        if (root == null) {
+            throw new IllegalArgumentException("Search query has no searchable words");
+        }
+        return new SearchQuery(text, root);
+    }
+
+    // Tokens are "(", ")", "-", "\"...\"" (quoted, quotes kept) and bare words
+    private static List<String> lex(String text) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                if (end < 0) throw new IllegalArgumentException("Unterminated phrase in search query");
+                tokens.add(text.substring(i, end + 1));
+                i = end + 1;
+            } else if (c == '-' && (i == 0 || Character.isWhitespace(text.charAt(i - 1)) || text.charAt(i - 1) == '(')) {
+                tokens.add("-");
+                i++;
+            } else {
+                int start = i;
+                while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                        && text.charAt(i) != '(' && text.charAt(i) != ')' && text.charAt(i) != '"') {
+                    i++;
+                }
+                tokens.add(text.substring(start, i));
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Parser {
+        final List<String> tokens;
+        int position;
+        int clauses;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        Node parseOr() {
+            List<Node> clauses = new ArrayList<>();
+            add(clauses, parseAnd());
+            while (accept("OR")) {
+                add(clauses, parseAnd());
+            }
+            return clauses.isEmpty() ? null : clauses.size() == 1 ? clauses.get(0) : new Or(clauses);
+        }
+
+        Node parseAnd() {
+            List<Node> clauses = new ArrayList<>();
+            while (position < tokens.size() && !peek(")") && !peek("OR")) {
+                accept("AND");
+                add(clauses, parseUnary());
+            }
+            return clauses.isEmpty() ? null : clauses.size() == 1 ? clauses.get(0) : new And(clauses);
+        }
+
+        Node parseUnary() {
+            if (accept("NOT") || accept("-")) {
+                Node clause = parseUnary();
+                return clause == null ? null : new Not(clause);
+            }
+            if (accept("(")) {
+                Node group = parseOr();
+                if (!accept(")")) throw new IllegalArgumentException("Missing ')' in search query");
+                return group;
+            }
+            if (position >= tokens.size()) throw new IllegalArgumentException("Search query ends unexpectedly");
+            String token = tokens.get(position++);
+            if (token.equals(")")) throw new IllegalArgumentException("Unexpected ')' in search query");
+            boolean quoted = token.startsWith("\"");
+            List<String> words = new ArrayList<>();
+            Tokenizer.forEachToken(quoted ? token.substring(1, token.length() - 1) : token, words::add);
+            if (words.isEmpty()) return null;
+            if (++clauses > MAX_CLAUSES) {
+                throw new IllegalArgumentException("Search query has more than " + MAX_CLAUSES + " terms");
+            }
+            return words.size() == 1 ? new Term(words.get(0)) : new Phrase(List.copyOf(words));
+        }
+
+        private void add(List<Node> clauses, Node clause) {
+            if (clause != null) clauses.add(clause);
+        }
+
+        private boolean peek(String token) {
+            return position < tokens.size() && tokens.get(position).equals(token);
+        }
+
+        private boolean accept(String token) {
+            if (!peek(token)) return false;
+            position++;
+            return true;
+        }
+    }
+}
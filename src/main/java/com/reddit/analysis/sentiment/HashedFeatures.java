@@ -0,0 +1,39 @@
+package com.reddit.analysis.sentiment;
+
+import com.reddit.analysis.text.Tokenizer;
+import com.reddit.analysis.util.Hashing;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Unigram and bigram features of text hashed into a fixed number of buckets (the hashing trick),
+ * so a model is a flat weight array and scanning allocates nothing: tokens are hashed in place,
+ * case-folded, with the same word boundaries as {@link Tokenizer}.
+ */
+public final class HashedFeatures {
+
+    private static final long BIGRAM_SEED = 0x9e3779b97f4a7c15L;
+
+    private HashedFeatures() {}
+
+    /** Calls {@code sink} with the bucket (below {@code mask + 1}) of every unigram and bigram in the range. */
+    public static void forEach(CharSequence text, int start, int end, int mask, IntConsumer sink) {
+        long previous = 0;
+        int tokenStart = -1;
+        for (int i = start; i <= end; i++) {
+            char c = i < end ? text.charAt(i) : ' ';
+            if (Tokenizer.isWordChar(c)) {
+                if (tokenStart < 0) tokenStart = i;
+                continue;
+            }
+            if (tokenStart < 0) continue;
+            long token = Hashing.hash64LowerCase(text, tokenStart, i);
+            tokenStart = -1;
+            sink.accept((int) token & mask);
+            if (previous != 0) {
+                sink.accept((int) Hashing.mix64(previous * BIGRAM_SEED + token) & mask);
+            }
+            previous = token;
+        }
+    }
+}
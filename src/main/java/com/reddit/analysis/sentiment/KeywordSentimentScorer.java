@@ -0,0 +1,54 @@
+package com.reddit.analysis.sentiment;
+
+import com.reddit.analysis.lexicon.Lexicon;
+import com.reddit.analysis.model.PostBatch;
+
+import java.util.function.Function;
+
+/**
+ * The original scorer: positive or negative when one dictionary's term count beats the other's by
+ * more than one, neutral otherwise. Terms come from a {@link Lexicon} and are matched in a single
+ * pass per document whatever the dictionary size.
+ */
+public class KeywordSentimentScorer implements SentimentScorer {
+
+    // Subreddit (null for none) to the lexicon currently in force for it
+    private final Function<String, Lexicon> lexicons;
+
+    /** Scores with the bundled dictionaries. */
+    public KeywordSentimentScorer() {
+        this(subreddit -> Lexicon.defaults());
+    }
+
+    public KeywordSentimentScorer(Function<String, Lexicon> lexicons) {
+        this.lexicons = lexicons;
+    }
+
+    @Override
+    public byte classify(CharSequence first, int firstStart, int firstEnd,
+                         CharSequence second, int secondStart, int secondEnd) {
+        return classify(lexicons.apply(null), first, firstStart, firstEnd, second, secondStart, secondEnd);
+    }
+
+    @Override
+    public SentimentScorer forSubreddit(String subreddit) {
+        Lexicon lexicon = lexicons.apply(subreddit);
+        return (first, firstStart, firstEnd, second, secondStart, secondEnd) ->
+                classify(lexicon, first, firstStart, firstEnd, second, secondStart, secondEnd);
+    }
+
+    private static byte classify(Lexicon lexicon, CharSequence first, int firstStart, int firstEnd,
+                                 CharSequence second, int secondStart, int secondEnd) {
+        int[] counts = new int[Lexicon.SENTIMENT_CATEGORIES];
+        lexicon.countSentiment(first, firstStart, firstEnd, counts);
+        lexicon.countSentiment(second, secondStart, secondEnd, counts);
+        int positive = counts[Lexicon.POSITIVE];
+        int negative = counts[Lexicon.NEGATIVE];
+        if (positive > negative + 1) {
+            return PostBatch.SENTIMENT_POSITIVE;
+        } else if (negative > positive + 1) {
+            return PostBatch.SENTIMENT_NEGATIVE;
+        }
+        return PostBatch.SENTIMENT_NEUTRAL;
+    }
+}
@@ -0,0 +1,135 @@
+package com.reddit.analysis.sentiment;
+
+import com.reddit.analysis.model.PostBatch;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.IntConsumer;
+
+/**
+ * Multinomial logistic regression over {@link HashedFeatures}: one weight per feature bucket and
+ * class in a flat {@code float[]} (bucket-major, so a feature's three weights share a cache line),
+ * then one bias per class. Feature counts are scaled by {@code 1/sqrt(n)} so long posts do not
+ * swamp the biases. Trained offline by {@link SentimentTrainer}; the label is the highest score.
+ */
+public final class LinearSentimentScorer implements SentimentScorer {
+
+    static final int CLASSES = 3;
+    // Class index is the label minus one
+    static final byte[] LABELS = {PostBatch.SENTIMENT_POSITIVE, PostBatch.SENTIMENT_NEUTRAL, PostBatch.SENTIMENT_NEGATIVE};
+
+    private static final int MAGIC = 0x52534c4d; // "RSLM"
+    private static final int VERSION = 1;
+
+    private final int bits;
+    private final int mask;
+    private final float[] weights;
+    // One scratch accumulator per thread, so scoring a document allocates nothing
+    private final ThreadLocal<Accumulator> accumulators = ThreadLocal.withInitial(Accumulator::new);
+
+    public LinearSentimentScorer(int bits, float[] weights) {
+        if (bits < 1 || bits > 26) {
+            throw new IllegalArgumentException("Feature bits must be between 1 and 26: " + bits);
+        }
+        if (weights.length != ((1 << bits) + 1) * CLASSES) {
+            throw new IllegalArgumentException("Expected " + ((1 << bits) + 1) * CLASSES + " weights for " + bits + " bits, got " + weights.length);
+        }
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.weights = weights;
+    }
+
+    public static float[] newWeights(int bits) {
+        return new float[((1 << bits) + 1) * CLASSES];
+    }
+
+    public int bits() {
+        return bits;
+    }
+
+    @Override
+    public byte classify(CharSequence first, int firstStart, int firstEnd,
+                         CharSequence second, int secondStart, int secondEnd) {
+        Accumulator accumulator = accumulators.get();
+        accumulator.reset();
+        HashedFeatures.forEach(first, firstStart, firstEnd, mask, accumulator);
+        HashedFeatures.forEach(second, secondStart, secondEnd, mask, accumulator);
+        return LABELS[accumulator.best()];
+    }
+
+    /** Class scores (before softmax) of a document's feature buckets, into {@code scores}. */
+    static void scores(float[] weights, int bits, int[] features, int count, double[] scores) {
+        double scale = count == 0 ? 0 : 1 / Math.sqrt(count);
+        int bias = (1 << bits) * CLASSES;
+        for (int k = 0; k < CLASSES; k++) {
+            double sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += weights[features[i] * CLASSES + k];
+            }
+            scores[k] = weights[bias + k] + sum * scale;
+        }
+    }
+
+    public static LinearSentimentScorer load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a sentiment model");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported sentiment model version " + version + " in " + path);
+            }
+            int bits = in.readInt();
+            if (bits < 1 || bits > 26 || in.readInt() != CLASSES) {
+                throw new IOException("Corrupt sentiment model header in " + path);
+            }
+            float[] weights = newWeights(bits);
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = in.readFloat();
+            }
+            return new LinearSentimentScorer(bits, weights);
+        }
+    }
+
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(bits);
+            out.writeInt(CLASSES);
+            for (float weight : weights) {
+                out.writeFloat(weight);
+            }
+        }
+    }
+
+    private final class Accumulator implements IntConsumer {
+        private double positive, neutral, negative;
+        private int count;
+
+        void reset() {
+            positive = neutral = negative = 0;
+            count = 0;
+        }
+
+        @Override
+        public void accept(int feature) {
+            int offset = feature * CLASSES;
+            positive += weights[offset];
+            neutral += weights[offset + 1];
+            negative += weights[offset + 2];
+            count++;
+        }
+
+        int best() {
+            double scale = count == 0 ? 0 : 1 / Math.sqrt(count);
+            int bias = (mask + 1) * CLASSES;
+            double p = weights[bias] + positive * scale;
+            double u = weights[bias + 1] + neutral * scale;
+            double n = weights[bias + 2] + negative * scale;
+            if (p > u && p > n) return 0;
+            return n > u ? 2 : 1;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.reddit.analysis.sentiment;
+
+import com.reddit.analysis.model.CommentData;
+import com.reddit.analysis.model.PostBatch;
+import com.reddit.analysis.model.PostData;
+
+/**
+ * Labels text as {@link PostBatch#SENTIMENT_POSITIVE}, {@link PostBatch#SENTIMENT_NEUTRAL} or
+ * {@link PostBatch#SENTIMENT_NEGATIVE}. Implementations are shared between threads and should not
+ * allocate per document, since every post and comment of an analysis goes through them.
+ */
+public interface SentimentScorer {
+
+    /** Label for two ranges scanned as if space-joined, such as a post's title and body. */
+    byte classify(CharSequence first, int firstStart, int firstEnd,
+                  CharSequence second, int secondStart, int secondEnd);
+
+    /**
+     * A scorer for one subreddit's posts, fixed for the duration of an analysis. Scorers with
+     * per-subreddit configuration resolve it here; the others return themselves.
+     */
+    default SentimentScorer forSubreddit(String subreddit) {
+        return this;
+    }
+
+    default byte classify(CharSequence text, int start, int end) {
+        return classify(text, start, end, "", 0, 0);
+    }
+
+    default byte classify(PostData post) {
+        String title = post.getTitle() == null ? "" : post.getTitle();
+        String content = post.getContent() == null ? "" : post.getContent();
+        return classify(title, 0, title.length(), content, 0, content.length());
+    }
+
+    default byte classify(CommentData comment) {
+        String content = comment.getContent() == null ? "" : comment.getContent();
+        return classify(content, 0, content.length());
+    }
+}
@@ -0,0 +1,152 @@
+package com.reddit.analysis.sentiment;
+
+import com.reddit.analysis.model.PostBatch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Offline training of a {@link LinearSentimentScorer} model by SGD on labeled text, one document
+ * per line as {@code label<TAB>text} with labels {@code positive}/{@code neutral}/{@code negative}
+ * (or {@code 1}/{@code 0}/{@code -1}). A share of the lines is held out, and accuracy on it is
+ * reported per epoch next to that of the keyword scorer. Needs nothing beyond the compiled classes:
+ * <pre>
+ * java -cp target/classes com.reddit.analysis.sentiment.SentimentTrainer labeled.tsv sentiment.model \
+ *     [--bits=18] [--epochs=10] [--learning-rate=0.5] [--l2=1e-6] [--holdout=0.1]
+ * </pre>
+ * Then run the service with {@code sentiment.scorer=linear} and {@code sentiment.model-path}.
+ */
+public final class SentimentTrainer {
+
+    private SentimentTrainer() {}
+
+    public static void main(String[] args) throws IOException {
+        List<String> paths = new ArrayList<>();
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                paths.add(arg);
+            }
+        }
+        if (paths.size() != 2) {
+            System.err.println("Usage: SentimentTrainer <labeled.tsv> <model-out> [--bits=18] [--epochs=10] "
+                    + "[--learning-rate=0.5] [--l2=1e-6] [--holdout=0.1]");
+            System.exit(2);
+        }
+        int bits = Integer.parseInt(options.getOrDefault("bits", "18"));
+        int epochs = Integer.parseInt(options.getOrDefault("epochs", "10"));
+        double learningRate = Double.parseDouble(options.getOrDefault("learning-rate", "0.5"));
+        double l2 = Double.parseDouble(options.getOrDefault("l2", "1e-6"));
+        double holdout = Double.parseDouble(options.getOrDefault("holdout", "0.1"));
+
+        List<Example> examples = read(Path.of(paths.get(0)), (1 << bits) - 1);
+        Collections.shuffle(examples, new Random(42));
+        int held = (int) (examples.size() * holdout);
+        List<Example> test = examples.subList(0, held);
+        List<Example> train = new ArrayList<>(examples.subList(held, examples.size()));
+        System.out.printf("%d training and %d held-out examples, %d feature buckets%n", train.size(), test.size(), 1 << bits);
+        if (!test.isEmpty()) {
+            System.out.printf("keyword scorer held-out accuracy: %.4f%n", accuracy(new KeywordSentimentScorer(), test));
+        }
+
+        float[] weights = LinearSentimentScorer.newWeights(bits);
+        LinearSentimentScorer scorer = new LinearSentimentScorer(bits, weights);
+        Random random = new Random(7);
+        double[] scores = new double[LinearSentimentScorer.CLASSES];
+        int bias = (1 << bits) * LinearSentimentScorer.CLASSES;
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            Collections.shuffle(train, random);
+            double rate = learningRate / Math.sqrt(1 + epoch);
+            double loss = 0;
+            for (Example example : train) {
+                LinearSentimentScorer.scores(weights, bits, example.features, example.features.length, scores);
+                loss -= softmax(scores, example.label);
+                double scale = example.features.length == 0 ? 0 : 1 / Math.sqrt(example.features.length);
+                for (int k = 0; k < LinearSentimentScorer.CLASSES; k++) {
+                    // Gradient of the cross-entropy with respect to class k's score
+                    double gradient = scores[k] - (k == example.label ? 1 : 0);
+                    for (int feature : example.features) {
+                        int index = feature * LinearSentimentScorer.CLASSES + k;
+                        weights[index] -= rate * (gradient * scale + l2 * weights[index]);
+                    }
+                    weights[bias + k] -= rate * gradient;
+                }
+            }
+            System.out.printf("epoch %d: training loss %.4f%s%n", epoch + 1, loss / Math.max(1, train.size()),
+                    test.isEmpty() ? "" : String.format(", held-out accuracy %.4f", accuracy(scorer, test)));
+        }
+        scorer.save(Path.of(paths.get(1)));
+        System.out.println("Model written to " + paths.get(1));
+    }
+
+    // Turns scores into probabilities in place; returns the log-probability of the given class
+    private static double softmax(double[] scores, int label) {
+        double max = Math.max(scores[0], Math.max(scores[1], scores[2]));
+        double sum = 0;
+        for (int k = 0; k < scores.length; k++) {
+            scores[k] = Math.exp(scores[k] - max);
+            sum += scores[k];
+        }
+        double logProbability = Math.log(scores[label] / sum);
+        for (int k = 0; k < scores.length; k++) {
+            scores[k] /= sum;
+        }
+        return logProbability;
+    }
+
+    private static double accuracy(SentimentScorer scorer, List<Example> examples) {
+        int correct = 0;
+        for (Example example : examples) {
+            if (scorer.classify(example.text, 0, example.text.length()) == LinearSentimentScorer.LABELS[example.label]) {
+                correct++;
+            }
+        }
+        return (double) correct / examples.size();
+    }
+
+    private static List<Example> read(Path path, int mask) throws IOException {
+        List<Example> examples = new ArrayList<>();
+        int[] buffer = new int[1024];
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int tab = line.indexOf('\t');
+                if (line.isBlank()) continue;
+                if (tab < 0) {
+                    throw new IOException("Line " + lineNumber + " has no tab between label and text");
+                }
+                int label = label(line.substring(0, tab).trim(), lineNumber);
+                String text = line.substring(tab + 1);
+                int[] count = {0};
+                int[][] features = {buffer};
+                HashedFeatures.forEach(text, 0, text.length(), mask, feature -> {
+                    if (count[0] == features[0].length) features[0] = Arrays.copyOf(features[0], count[0] * 2);
+                    features[0][count[0]++] = feature;
+                });
+                buffer = features[0];
+                examples.add(new Example(text, label, Arrays.copyOf(buffer, count[0])));
+            }
+        }
+        return examples;
+    }
+
+    private static int label(String label, int lineNumber) throws IOException {
+        switch (label.toLowerCase(Locale.ROOT)) {
+            case "positive": case "1": return PostBatch.SENTIMENT_POSITIVE - 1;
+            case "neutral": case "0": return PostBatch.SENTIMENT_NEUTRAL - 1;
+            case "negative": case "-1": return PostBatch.SENTIMENT_NEGATIVE - 1;
+            default: throw new IOException("Line " + lineNumber + " has unknown label '" + label + "'");
+        }
+    }
+
+    private record Example(String text, int label, int[] features) {
+    }
+}
@@ -0,0 +1,320 @@
+package com.reddit.analysis.service;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reddit.analysis.cache.SharedCache;
+import com.reddit.analysis.metrics.PipelineMetrics;
+import com.reddit.analysis.model.AnalysisRequest;
+import com.reddit.analysis.model.AnalysisResponse;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recent analysis results keyed by what was asked for, each tagged with a hash of the scraped
+ * content it was computed from. A re-scrape with the same hash reuses the result, so unchanged
+ * refreshes skip both the local analysis and the Gemini calls. Also keeps exponentially decayed
+ * request counts per key, which the refresh-ahead scheduler uses to pick what to keep warm.
+ * <p>
+ * Entries live in a bounded in-process LRU and, when a {@link SharedCache} is configured, in a tier
+ * shared by all replicas: local misses are filled from it, and {@link #lease} lets one replica
+ * compute a key while the others wait for its result instead of scraping and calling Gemini too.
+ */
+@Component
+public class AnalysisCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisCache.class);
+
+    private static final long LEASE_POLL_MIN_MS = 50;
+    private static final long LEASE_POLL_MAX_MS = 500;
+
+    @Autowired
+    private RedditScrapingService redditScrapingService;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private ObjectProvider<SharedCache> sharedCacheProvider;
+
+    @Autowired
+    private ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    @Value("${analysis.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${analysis.cache.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${analysis.cache.popularity-half-life-seconds:900}")
+    private long popularityHalfLifeSeconds;
+
+    // Longest a lease holder may take (LLM analyses included) before others give up on it
+    @Value("${analysis.cache.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${analysis.cache.lease-wait-ms:30000}")
+    private long leaseWaitMs;
+
+    // Share of the TTL left on the shared copy below which a revalidated hit rewrites it
+    @Value("${analysis.cache.shared-rewrite-below:0.5}")
+    private double sharedRewriteBelow;
+
+    private Map<String, Entry> entries;
+    private final Map<String, Popularity> popularity = new ConcurrentHashMap<>();
+    private SharedCache shared;
+    private AnalysisCacheCodec codec;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong leaseSequence = new AtomicLong();
+
+    /**
+     * Cached responses are shared; callers reshape copies and never modify them.
+     * {@code sharedExpiresAtMillis} is when the copy in the shared tier expires (0 without one),
+     * which lags {@code expiresAtMillis} once a hit has been revalidated locally.
+     */
+    public record Entry(long contentHash, AnalysisResponse response, long expiresAtMillis, long sharedExpiresAtMillis) {
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+
+    public record PopularKey(String key, AnalysisRequest request, double score) {
+    }
+
+    /**
+     * Outcome of {@link #lease}: either the result another replica computed while this one waited
+     * ({@link #computed()}), or permission to compute it here. Closing releases a held lease.
+     */
+    public final class Lease implements AutoCloseable {
+        private final String key;
+        private final String owner;
+        private final Entry computed;
+
+        private Lease(String key, String owner, Entry computed) {
+            this.key = key;
+            this.owner = owner;
+            this.computed = computed;
+        }
+
+        public Entry computed() {
+            return computed;
+        }
+
+        @Override
+        public void close() {
+            if (owner == null) return;
+            try {
+                shared.releaseLease(key, owner);
+            } catch (IOException e) {
+                // It expires on its own
+                logger.debug("Could not release lease on {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        entries = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        shared = sharedCacheProvider.getIfAvailable();
+        if (shared != null) {
+            codec = new AnalysisCacheCodec(objectMapperBuilder.getObject().factory(new SmileFactory()).build());
+            logger.info("Analysis cache shared through {}", shared.getClass().getSimpleName());
+        }
+    }
+
+    public String key(AnalysisRequest request) {
+        String input = request.getInput().trim();
+        String target = "thread".equals(request.getAnalysisType())
+                ? input.replaceAll("[?#].*$", "").replaceAll("/+$", "")
+                : redditScrapingService.extractSubredditName(input).toLowerCase(Locale.ROOT);
+        return String.join("|",
+                String.valueOf(request.getAnalysisType()),
+                target,
+                request.getSource() == null ? "live" : request.getSource(),
+                Boolean.toString(request.isIncludeLlm()),
+                String.valueOf(request.getTrendWindow()));
+    }
+
+    /** The local entry, else the shared one (which then stays local until it expires). */
+    public Entry get(String key) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.isExpired(now)) return entry;
+            entries.remove(key, entry);
+        }
+        entry = getShared(key, now);
+        if (entry != null) {
+            pipelineMetrics.count("analysis.cache.shared.hit", "requests", 1);
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /** Local tier only, so admission decisions never wait on the network. */
+    public boolean isFresh(String key) {
+        Entry entry = entries.get(key);
+        return entry != null && !entry.isExpired(System.currentTimeMillis());
+    }
+
+    public Entry put(String key, long contentHash, AnalysisResponse response) {
+        long expiresAtMillis = System.currentTimeMillis() + ttlSeconds * 1000;
+        Entry entry = new Entry(contentHash, response, expiresAtMillis, shared != null ? expiresAtMillis : 0);
+        entries.put(key, entry);
+        if (shared != null) {
+            try {
+                byte[] encoded = codec.encode(entry);
+                pipelineMetrics.count("analysis.cache.shared.size", "bytes", encoded.length);
+                shared.put(key, encoded, ttlSeconds * 1000);
+            } catch (IOException e) {
+                logger.warn("Could not write {} to the shared cache: {}", key, e.getMessage());
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Gives an entry just verified against upstream another TTL. Only the local copy is extended
+     * unless the shared copy is close to expiring, so hits do not each re-encode the response and
+     * write it to the shared tier; other replicas re-verify their own copies the same way.
+     */
+    public Entry revalidate(String key, Entry entry) {
+        long now = System.currentTimeMillis();
+        long ttlMillis = ttlSeconds * 1000;
+        if (shared != null && entry.sharedExpiresAtMillis() - now < ttlMillis * sharedRewriteBelow) {
+            return put(key, entry.contentHash(), entry.response());
+        }
+        Entry extended = new Entry(entry.contentHash(), entry.response(), now + ttlMillis, entry.sharedExpiresAtMillis());
+        entries.put(key, extended);
+        return extended;
+    }
+
+    /**
+     * Claims the right to compute {@code key} across replicas. While another replica holds the claim,
+     * waits for it to publish an entry newer than {@code stale} (which may be null) and returns that;
+     * takes over if the claim is released without one, and computes anyway if the wait times out or
+     * the shared tier is unavailable. Without a shared tier this returns immediately.
+     */
+    public Lease lease(String key, Entry stale) {
+        if (shared == null) return new Lease(key, null, null);
+        String owner = nodeId + ":" + leaseSequence.incrementAndGet();
+        long deadline = System.currentTimeMillis() + leaseWaitMs;
+        long pollMs = LEASE_POLL_MIN_MS;
+        // Against the stale entry's shared copy, since its local expiry may have been extended since
+        long staleExpiry = stale == null ? 0 : stale.sharedExpiresAtMillis();
+        try {
+            while (true) {
+                boolean acquired = shared.tryLease(key, owner, leaseMs);
+                long now = System.currentTimeMillis();
+                // Checked after acquiring too: the previous holder may have published and released just now
+                Entry published = getShared(key, now);
+                if (published != null && published.expiresAtMillis() > staleExpiry) {
+                    if (acquired) shared.releaseLease(key, owner);
+                    pipelineMetrics.count("analysis.cache.lease.waited", "requests", 1);
+                    entries.put(key, published);
+                    return new Lease(key, null, published);
+                }
+                if (acquired) return new Lease(key, owner, null);
+                if (now + pollMs > deadline) break;
+                Thread.sleep(pollMs);
+                pollMs = Math.min(LEASE_POLL_MAX_MS, pollMs * 2);
+            }
+            pipelineMetrics.count("analysis.cache.lease.timeout", "requests", 1);
+        } catch (IOException e) {
+            logger.warn("Shared cache lease on {} failed, computing locally: {}", key, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new Lease(key, null, null);
+    }
+
+    /**
+     * Lets one replica per {@code ttlMillis} refresh {@code key} ahead of expiry; the claim is never
+     * released early, so the other replicas pick the refreshed entry up from the shared tier.
+     */
+    public boolean claimRefresh(String key, long ttlMillis) {
+        if (shared == null) return true;
+        try {
+            return shared.tryLease("refresh:" + key, nodeId, ttlMillis);
+        } catch (IOException e) {
+            logger.debug("Refresh claim on {} failed: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    private Entry getShared(String key, long now) {
+        if (shared == null) return null;
+        try {
+            byte[] bytes = shared.get(key);
+            if (bytes == null) return null;
+            Entry entry = codec.decode(bytes);
+            return entry == null || entry.isExpired(now) ? null : entry;
+        } catch (IOException e) {
+            logger.warn("Could not read {} from the shared cache: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    public void recordAccess(String key, AnalysisRequest request) {
+        long now = System.nanoTime();
+        popularity.computeIfAbsent(key, k -> new Popularity(request)).hit(now, halfLifeNanos());
+        if (popularity.size() > maxEntries * 2) {
+            // Forget the coldest keys; they would not be refreshed anyway
+            popularity.entrySet().stream()
+                    .sorted(Comparator.comparingDouble(e -> e.getValue().score(now, halfLifeNanos())))
+                    .limit(popularity.size() - maxEntries)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(popularity::remove);
+        }
+    }
+
+    /** Most requested keys by decayed count, hottest first. */
+    public List<PopularKey> popular(int limit, double minScore) {
+        long now = System.nanoTime();
+        return popularity.entrySet().stream()
+                .map(e -> new PopularKey(e.getKey(), e.getValue().request, e.getValue().score(now, halfLifeNanos())))
+                .filter(popular -> popular.score() >= minScore)
+                .sorted(Comparator.comparingDouble(PopularKey::score).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private long halfLifeNanos() {
+        return TimeUnit.SECONDS.toNanos(popularityHalfLifeSeconds);
+    }
+
+    private static final class Popularity {
+        final AnalysisRequest request;
+        private double score;
+        private long updatedNanos = System.nanoTime();
+
+        Popularity(AnalysisRequest request) {
+            this.request = request;
+        }
+
+        synchronized void hit(long now, long halfLifeNanos) {
+            score = score(now, halfLifeNanos) + 1;
+            updatedNanos = now;
+        }
+
+        synchronized double score(long now, long halfLifeNanos) {
+            return score * Math.pow(0.5, (now - updatedNanos) / (double) halfLifeNanos);
+        }
+    }
+}
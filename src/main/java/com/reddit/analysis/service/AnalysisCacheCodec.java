@@ -0,0 +1,45 @@
+package com.reddit.analysis.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reddit.analysis.model.AnalysisResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary form of an {@link AnalysisCache.Entry} for the shared cache tier: a format byte, the content
+ * hash and expiry, then the response as Smile. The mapper must be the Smile one built from Boot's
+ * builder, so dates, modules and the field filter match the HTTP converters.
+ */
+final class AnalysisCacheCodec {
+
+    private static final byte FORMAT = 1;
+    private static final int HEADER_BYTES = 1 + Long.BYTES + Long.BYTES;
+
+    private final ObjectMapper smileMapper;
+
+    AnalysisCacheCodec(ObjectMapper smileMapper) {
+        this.smileMapper = smileMapper;
+    }
+
+    byte[] encode(AnalysisCache.Entry entry) throws IOException {
+        byte[] body = smileMapper.writeValueAsBytes(entry.response());
+        return ByteBuffer.allocate(HEADER_BYTES + body.length)
+                .put(FORMAT)
+                .putLong(entry.contentHash())
+                .putLong(entry.expiresAtMillis())
+                .put(body)
+                .array();
+    }
+
+    /** Null for values written in another format, which are treated as misses and overwritten. */
+    AnalysisCache.Entry decode(byte[] bytes) throws IOException {
+        if (bytes.length < HEADER_BYTES || bytes[0] != FORMAT) return null;
+        ByteBuffer header = ByteBuffer.wrap(bytes, 1, HEADER_BYTES - 1);
+        long contentHash = header.getLong();
+        long expiresAtMillis = header.getLong();
+        AnalysisResponse response = smileMapper.readValue(
+                bytes, HEADER_BYTES, bytes.length - HEADER_BYTES, AnalysisResponse.class);
+        return new AnalysisCache.Entry(contentHash, response, expiresAtMillis, expiresAtMillis);
+    }
+}
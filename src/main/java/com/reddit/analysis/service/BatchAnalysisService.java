@@ -0,0 +1,197 @@
+package com.reddit.analysis.service;
+
+import com.reddit.analysis.metrics.ServerTiming;
+import com.reddit.analysis.metrics.ServerTimingContext;
+import com.reddit.analysis.model.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Analyzes many subreddits/threads at once. Each item runs as a pipeline: the scrape on a
+ * bounded I/O pool (all fetches still share the global Reddit rate limiter), local analytics
+ * on a bounded CPU pool of its own rather than the JVM-wide common pool, and the two Gemini calls concurrently on an LLM pool, so the
+ * batch takes roughly as long as its slowest item rather than the sum of all items.
+ * Lazy, so the pools are only started by the first batch request.
+ */
+@Service
+@Lazy
+public class BatchAnalysisService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchAnalysisService.class);
+
+    @Autowired
+    private RedditScrapingService redditScrapingService;
+
+    @Autowired
+    private RedditAnalysisService redditAnalysisService;
+
+    @Value("${batch.scrape-concurrency:4}")
+    private int scrapeConcurrency;
+
+    @Value("${gemini.max-concurrency:4}")
+    private int llmConcurrency;
+
+    @Value("${batch.analytics-concurrency:0}")
+    private int analyticsConcurrency;
+
+    @Value("${batch.max-items:50}")
+    private int maxItems;
+
+    private ExecutorService scrapeExecutor;
+    private ExecutorService analyticsExecutor;
+    private ExecutorService llmExecutor;
+
+    @PostConstruct
+    public void init() {
+        scrapeExecutor = Executors.newFixedThreadPool(scrapeConcurrency, namedThreads("batch-scrape"));
+        int analyticsThreads = analyticsConcurrency > 0 ? analyticsConcurrency : Runtime.getRuntime().availableProcessors();
+        analyticsExecutor = Executors.newFixedThreadPool(analyticsThreads, namedThreads("batch-analytics"));
+        // Sized so the pool never queues behind LLMService's own concurrency cap
+        llmExecutor = Executors.newFixedThreadPool(llmConcurrency * 2, namedThreads("batch-llm"));
+    }
+
+    public BatchAnalysisResponse analyzeBatch(BatchAnalysisRequest batchRequest) {
+        long start = System.nanoTime();
+        if (batchRequest.getSubreddits().stream().anyMatch(BatchAnalysisService::isBlank)
+                || batchRequest.getThreads().stream().anyMatch(BatchAnalysisService::isBlank)) {
+            throw new IllegalArgumentException("Batch items must be non-empty subreddit names or thread URLs");
+        }
+
+        List<AnalysisRequest> requests = new ArrayList<>();
+        for (String subreddit : batchRequest.getSubreddits()) {
+            requests.add(newRequest(subreddit, "subreddit", batchRequest.isIncludeLlm()));
+        }
+        for (String thread : batchRequest.getThreads()) {
+            requests.add(newRequest(thread, "thread", batchRequest.isIncludeLlm()));
+        }
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one subreddit or thread is required");
+        }
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxItems + " items");
+        }
+
+        List<CompletableFuture<AnalysisResponse>> futures = new ArrayList<>();
+        for (AnalysisRequest request : requests) {
+            futures.add(analyzeAsync(request));
+        }
+
+        List<AnalysisResponse> results = new ArrayList<>();
+        List<SubredditComparison> comparison = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            AnalysisRequest request = requests.get(i);
+            try {
+                AnalysisResponse response = futures.get(i).join();
+                results.add(response);
+                comparison.add(toComparison(response));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.warn("Batch item {} failed: {}", request.getInput(), cause.getMessage());
+                AnalysisResponse errorResponse = new AnalysisResponse();
+                errorResponse.setInputSource(request.getInput());
+                errorResponse.setAnalysisType(request.getAnalysisType());
+                errorResponse.setLlmSummary("Error occurred during analysis: " + cause.getMessage());
+                results.add(errorResponse);
+
+                SubredditComparison row = new SubredditComparison();
+                row.setInputSource(request.getInput());
+                row.setAnalysisType(request.getAnalysisType());
+                row.setError(cause.getMessage());
+                comparison.add(row);
+            }
+        }
+
+        BatchAnalysisResponse response = new BatchAnalysisResponse();
+        response.setResults(results);
+        response.setComparison(comparison);
+        response.setWallTimeMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return response;
+    }
+
+    private CompletableFuture<AnalysisResponse> analyzeAsync(AnalysisRequest request) {
+        // Stages run on pool threads, so the request's Server-Timing is handed to each explicitly
+        ServerTiming timing = ServerTimingContext.current();
+        return CompletableFuture
+                .supplyAsync(ServerTimingContext.wrap(timing, () -> scrape(request)), scrapeExecutor)
+                .thenApplyAsync(batch -> ServerTimingContext.wrap(timing, () -> redditAnalysisService.analyzeLocally(request, batch)).get(),
+                        analyticsExecutor)
+                .thenCompose(analysis -> {
+                    if (!request.isIncludeLlm()) {
+                        return CompletableFuture.completedFuture(analysis.response);
+                    }
+                    CompletableFuture<Void> summary = CompletableFuture.runAsync(
+                            ServerTimingContext.wrap(timing, () -> redditAnalysisService.generateSummary(analysis)), llmExecutor);
+                    CompletableFuture<Void> insights = CompletableFuture.runAsync(
+                            ServerTimingContext.wrap(timing, () -> redditAnalysisService.generateBusinessInsights(analysis)), llmExecutor);
+                    return CompletableFuture.allOf(summary, insights).thenApply(done -> analysis.response);
+                });
+    }
+
+    private PostBatch scrape(AnalysisRequest request) {
+        try {
+            return redditScrapingService.scrapeRedditBatch(request);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private SubredditComparison toComparison(AnalysisResponse response) {
+        SubredditComparison row = new SubredditComparison();
+        row.setInputSource(response.getInputSource());
+        row.setAnalysisType(response.getAnalysisType());
+        AnalysisStats stats = response.getStats();
+        if (stats != null) {
+            row.setTotalPosts(stats.getTotalPosts());
+            row.setTotalComments(stats.getTotalComments());
+            row.setTotalUsers(stats.getTotalUsers());
+            row.setAverageScore(stats.getAverageScore());
+        }
+        SentimentAnalysis sentiment = response.getSentimentAnalysis();
+        if (sentiment != null) {
+            row.setPositivePercentage(sentiment.getPositivePercentage());
+            row.setNegativePercentage(sentiment.getNegativePercentage());
+            row.setOverallSentiment(sentiment.getOverallSentiment());
+        }
+        if (response.getKeyTopics() != null) {
+            row.setTopTopics(response.getKeyTopics().subList(0, Math.min(5, response.getKeyTopics().size())));
+        }
+        return row;
+    }
+
+    private AnalysisRequest newRequest(String input, String analysisType, boolean includeLlm) {
+        AnalysisRequest request = new AnalysisRequest(input, analysisType);
+        request.setIncludeLlm(includeLlm);
+        return request;
+    }
+
+    private static boolean isBlank(String item) {
+        return item == null || item.isBlank();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scrapeExecutor.shutdownNow();
+        analyticsExecutor.shutdownNow();
+        llmExecutor.shutdownNow();
+    }
+}
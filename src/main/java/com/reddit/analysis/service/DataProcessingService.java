@@ -1,94 +1,132 @@
 package com.reddit.analysis.service;
 
+import com.reddit.analysis.lexicon.Lexicon;
 import com.reddit.analysis.model.*;
+import com.reddit.analysis.sentiment.KeywordSentimentScorer;
+import com.reddit.analysis.sentiment.SentimentScorer;
+import com.reddit.analysis.stats.SlidingWindowAggregator;
+import com.reddit.analysis.stats.StatsAccumulator;
+import com.reddit.analysis.text.DocumentFrequencies;
+import com.reddit.analysis.text.PhraseCounter;
+import com.reddit.analysis.text.Tokenizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 public class DataProcessingService {
 
-    public AnalysisStats calculateStats(List<PostData> posts) {
-        AnalysisStats stats = new AnalysisStats();
+    private static final int PARALLEL_STATS_THRESHOLD = 5_000;
 
-        stats.setTotalPosts(posts.size());
+    // Replaced by the configured scorer (sentiment.scorer); the keyword scorer outside Spring
+    @Autowired(required = false)
+    private SentimentScorer sentimentScorer = new KeywordSentimentScorer();
 
-        // Use the dedicated realCommentCount field
-        int totalComments = posts.stream()
-                .mapToInt(PostData::getRealCommentCount)
-                .sum();
+    // Null outside Spring (benchmarks), where the bundled dictionaries are used
+    @Autowired
+    private LexiconService lexiconService;
 
-        stats.setTotalComments(totalComments);
+    // Null outside Spring (benchmarks), where topics are ranked by raw frequency
+    @Autowired
+    private TopicBaselines topicBaselines;
 
-        Set<String> uniqueUsers = posts.stream()
-                .map(PostData::getAuthor)
-                .filter(Objects::nonNull)
-                .filter(author -> !"unknown".equals(author))
-                .collect(Collectors.toSet());
+    @Value("${trend.hourly-buckets:48}")
+    private int hourlyBuckets;
 
-        stats.setTotalUsers(uniqueUsers.size());
+    @Value("${trend.daily-buckets:30}")
+    private int dailyBuckets;
 
-        PostData mostUpvoted = posts.stream()
-                .max(Comparator.comparingInt(PostData::getUpvotes))
-                .orElse(null);
-        if (mostUpvoted != null) {
-            stats.setMostUpvotedPost(mostUpvoted.getTitle());
-        }
+    public AnalysisStats calculateStats(List<PostData> posts) {
+        // Single pass with a mergeable accumulator; large crawls are split across cores
+        Stream<PostData> stream = posts.size() >= PARALLEL_STATS_THRESHOLD
+                ? posts.parallelStream()
+                : posts.stream();
 
-        double averageUpvotes = posts.stream()
-                .mapToInt(PostData::getUpvotes)
-                .average()
-                .orElse(0.0);
-        stats.setAverageScore(Math.round(averageUpvotes * 10.0) / 10.0);
+        return stream.collect(StatsAccumulator::new, StatsAccumulator::addPost, StatsAccumulator::merge)
+                .toStats();
+    }
 
-        return stats;
+    public AnalysisStats calculateStats(PostBatch batch) {
+        return accumulateStats(batch).toStats();
     }
 
+    public StatsAccumulator accumulateStats(PostBatch batch) {
+        IntStream indexes = batch.size() >= PARALLEL_STATS_THRESHOLD
+                ? IntStream.range(0, batch.size()).parallel()
+                : IntStream.range(0, batch.size());
 
+        StatsAccumulator stats = indexes.collect(StatsAccumulator::new,
+                (acc, i) -> acc.addPost(batch.title(i), batch.author(i), batch.upvotes(i), batch.commentCount(i)),
+                StatsAccumulator::merge);
+
+        CommentBatch comments = batch.comments();
+        for (int i = 0; i < comments.size(); i++) {
+            stats.addCommentAuthor(comments.author(i));
+        }
+        return stats;
+    }
 
     public SentimentAnalysis analyzeSentiment(List<PostData> posts) {
-        int positive = 0, neutral = 0, negative = 0;
+        PostBatch batch = PostBatch.of(posts);
+        SentimentAnalysis result = analyzeSentiment(batch);
+        for (int i = 0; i < posts.size(); i++) {
+            posts.get(i).setSentiment(PostBatch.sentimentLabel(batch.sentiment(i)));
+        }
+        return result;
+    }
 
-        // Enhanced keyword lists for better sentiment detection
-        List<String> positiveKeywords = Arrays.asList(
-                "good", "great", "excellent", "amazing", "love", "awesome", "fantastic",
-                "wonderful", "perfect", "best", "happy", "excited", "success", "achievement",
-                "growth", "opportunity", "helpful", "solved", "working", "easy", "smooth",
-                "recommend", "impressed", "satisfied", "brilliant", "outstanding"
-        );
-
-        List<String> negativeKeywords = Arrays.asList(
-                "bad", "terrible", "awful", "hate", "worst", "horrible", "annoying",
-                "frustrated", "angry", "disappointed", "useless", "broken", "failed",
-                "problem", "issue", "bug", "error", "difficult", "hard", "struggle",
-                "reject", "fired", "unemployment", "stress", "worry", "concern"
-        );
-
-        for (PostData post : posts) {
-            String content = (post.getTitle() + " " + post.getContent()).toLowerCase();
-
-            long positiveCount = positiveKeywords.stream()
-                    .mapToLong(keyword -> countOccurrences(content, keyword))
-                    .sum();
-
-            long negativeCount = negativeKeywords.stream()
-                    .mapToLong(keyword -> countOccurrences(content, keyword))
-                    .sum();
-
-            if (positiveCount > negativeCount + 1) {
+    public SentimentAnalysis analyzeSentiment(PostBatch batch) {
+        return analyzeSentiment(batch, null);
+    }
+
+    /** Labels posts and comments with the subreddit's scorer (its lexicon overrides, if any). */
+    public SentimentAnalysis analyzeSentiment(PostBatch batch, String subreddit) {
+        int positive = 0, neutral = 0, negative = 0;
+        String text = batch.text();
+        SentimentScorer scorer = sentimentScorer.forSubreddit(subreddit);
+
+        for (int i = 0; i < batch.size(); i++) {
+            // Title and content are adjacent in the buffer but scanned separately, as if space-joined
+            byte sentiment = scorer.classify(text, batch.titleStart(i), batch.titleEnd(i),
+                    text, batch.contentStart(i), batch.contentEnd(i));
+            batch.setSentiment(i, sentiment);
+            if (sentiment == PostBatch.SENTIMENT_POSITIVE) {
                 positive++;
-                post.setSentiment("positive");
-            } else if (negativeCount > positiveCount + 1) {
+            } else if (sentiment == PostBatch.SENTIMENT_NEGATIVE) {
                 negative++;
-                post.setSentiment("negative");
             } else {
                 neutral++;
-                post.setSentiment("neutral");
             }
         }
 
-        int total = posts.size();
+        // Comments are labelled for downstream consumers but do not change the post distribution
+        CommentBatch comments = batch.comments();
+        for (int i = 0; i < comments.size(); i++) {
+            comments.setSentiment(i, scorer.classify(comments.text(), comments.contentStart(i), comments.contentEnd(i)));
+        }
+
+        return toSentimentAnalysis(positive, neutral, negative);
+    }
+
+    public byte classifySentiment(CharSequence text, int start, int end) {
+        return sentimentScorer.classify(text, start, end);
+    }
+
+    /** Post label from title and content scanned as if space-joined, as in {@link #analyzeSentiment(PostBatch)}. */
+    public byte classifySentiment(CharSequence title, CharSequence content) {
+        return sentimentScorer.classify(title, 0, title.length(), content, 0, content.length());
+    }
+
+    public SentimentAnalysis toSentimentAnalysis(int positive, int neutral, int negative) {
+        int total = positive + neutral + negative;
         if (total == 0) {
             return new SentimentAnalysis(0, 100, 0, "neutral");
         }
@@ -109,63 +147,86 @@ public class DataProcessingService {
         return new SentimentAnalysis(positivePerc, neutralPerc, negativePerc, overall);
     }
 
-    private long countOccurrences(String text, String keyword) {
-        return Arrays.stream(text.split("\\W+"))
-                .mapToLong(word -> word.equals(keyword) ? 1 : 0)
-                .sum();
+    public List<String> extractTopics(List<PostData> posts) {
+        return extractTopics(PostBatch.of(posts));
     }
 
-    public List<String> extractTopics(List<PostData> posts) {
-        Map<String, Integer> topicFrequency = new HashMap<>();
-
-
-        Set<String> relevantTopics = new HashSet<>(Arrays.asList(
-                "javascript", "python", "java", "react", "nodejs", "angular", "vue",
-                "aws", "azure", "docker", "kubernetes", "microservices", "api", "database",
-                "frontend", "backend", "fullstack", "devops", "mobile", "android", "ios",
-                "machine", "learning", "data", "science", "artificial", "intelligence",
-                "startup", "company", "job", "interview", "salary", "career", "switch",
-                "remote", "work", "team", "project", "experience", "skills", "coding",
-                "programming", "development", "software", "engineering", "technical"
-        ));
-
-        for (PostData post : posts) {
-            String text = (post.getTitle() + " " + post.getContent()).toLowerCase();
-            String[] words = text.split("\\W+");
-
-            for (String word : words) {
-                if (word.length() > 3 && (relevantTopics.contains(word) || !isCommonWord(word))) {
-                    topicFrequency.put(word, topicFrequency.getOrDefault(word, 0) + 1);
-                }
-            }
+    public List<String> extractTopics(PostBatch batch) {
+        return extractTopics(batch, null);
+    }
+
+    public List<String> extractTopics(PostBatch batch, String subreddit) {
+        return topTopics(countKeywords(batch, lexicon(subreddit)), subreddit);
+    }
+
+    public List<String> topTopics(Map<String, Integer> topicFrequency) {
+        return topTopics(topicFrequency, null);
+    }
+
+    /**
+     * Ranks terms mentioned more than once by TF-IDF against the subreddit's document-frequency
+     * baseline (or the global one), so words common everywhere give way to what is distinctive
+     * about this batch. Raw frequency is used until a baseline has enough posts.
+     */
+    public List<String> topTopics(Map<String, Integer> topicFrequency, String subreddit) {
+        DocumentFrequencies background = topicBaselines == null ? null : topicBaselines.background(subreddit);
+        if (background == null) {
+            return topicFrequency.entrySet().stream()
+                    .filter(entry -> entry.getValue() > 1) // Only topics mentioned more than once
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(15)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
         }
 
-        return topicFrequency.entrySet().stream()
-                .filter(entry -> entry.getValue() > 1) // Only topics mentioned more than once
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+        // One pass to score, then a sort over precomputed scores
+        String[] terms = new String[topicFrequency.size()];
+        double[] scores = new double[terms.length];
+        int count = 0;
+        for (Map.Entry<String, Integer> entry : topicFrequency.entrySet()) {
+            int tf = entry.getValue();
+            if (tf > 1) {
+                terms[count] = entry.getKey();
+                scores[count++] = (1 + Math.log(tf)) * background.idf(entry.getKey());
+            }
+        }
+        return IntStream.range(0, count).boxed()
+                .sorted((a, b) -> Double.compare(scores[b], scores[a]))
                 .limit(15)
-                .map(Map.Entry::getKey)
+                .map(i -> terms[i])
                 .collect(Collectors.toList());
     }
 
-    public Map<String, Integer> getKeywordFrequency(List<PostData> posts) {
-        Map<String, Integer> frequency = new HashMap<>();
-
-        for (PostData post : posts) {
-            String text = (post.getTitle() + " " + post.getContent()).toLowerCase();
-            String[] words = text.split("\\W+");
-
-            for (String word : words) {
-                if (word.length() > 3 && !isCommonWord(word)) {
-                    frequency.put(word, frequency.getOrDefault(word, 0) + 1);
-                }
+    /**
+     * Multi-word phrases ("spring boot", "machine learning") in post titles and bodies, with counts.
+     * Placeholder bodies of link and title-only posts are skipped, as are URLs.
+     */
+    public Map<String, Integer> extractPhrases(PostBatch batch, String subreddit) {
+        Lexicon lexicon = lexicon(subreddit);
+        PhraseCounter counter = new PhraseCounter(word -> word.length() > 2 && !lexicon.isStopword(word));
+        String text = batch.text();
+        for (int i = 0; i < batch.size(); i++) {
+            counter.add(text, batch.titleStart(i), batch.titleEnd(i));
+            if (!batch.hasPlaceholderContent(i)) {
+                counter.add(text, batch.contentStart(i), batch.contentEnd(i));
             }
         }
+        return counter.top(15);
+    }
+
+    public Map<String, Integer> getKeywordFrequency(List<PostData> posts) {
+        return getKeywordFrequency(PostBatch.of(posts), null);
+    }
+
+    public Map<String, Integer> getKeywordFrequency(PostBatch batch, String subreddit) {
+        return topKeywords(countKeywords(batch, lexicon(subreddit)), 20);
+    }
 
+    public Map<String, Integer> topKeywords(Map<String, Integer> frequency, int limit) {
         return frequency.entrySet().stream()
                 .filter(entry -> entry.getValue() > 1)
                 .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(20)
+                .limit(limit)
                 .collect(Collectors.toMap(
                         Map.Entry::getKey,
                         Map.Entry::getValue,
@@ -174,18 +235,105 @@ public class DataProcessingService {
                 ));
     }
 
+    private Map<String, Integer> countKeywords(PostBatch batch, Lexicon lexicon) {
+        Map<String, Integer> frequency = new HashMap<>();
+        String text = batch.text();
+        for (int i = 0; i < batch.size(); i++) {
+            countKeywords(text, batch.titleStart(i), batch.titleEnd(i), lexicon, frequency);
+            countKeywords(text, batch.contentStart(i), batch.contentEnd(i), lexicon, frequency);
+        }
+        return frequency;
+    }
+
+    /** Counts keywords in a range; tokens arrive lower-cased, so they go straight to the stopword set. */
+    public void countKeywords(CharSequence text, int start, int end, Lexicon lexicon, Map<String, Integer> frequency) {
+        Tokenizer.forEachToken(text, start, end, word -> {
+            if (word.length() > 3 && !lexicon.isStopword(word)) {
+                frequency.merge(word, 1, Integer::sum);
+            }
+        });
+    }
+
+    /** The subreddit's lexicon (stopword overrides included); resolve once per analysis, not per token. */
+    public Lexicon lexicon(String subreddit) {
+        return lexiconService == null ? Lexicon.defaults() : lexiconService.lexicon(subreddit);
+    }
+
+    public SlidingWindowAggregator newTrendAggregator(String window) {
+        if ("hourly".equalsIgnoreCase(window)) {
+            return new SlidingWindowAggregator(3600, hourlyBuckets);
+        } else if ("daily".equalsIgnoreCase(window)) {
+            return new SlidingWindowAggregator(86400, dailyBuckets);
+        }
+        throw new IllegalArgumentException("Unsupported trend window: " + window + " (expected hourly or daily)");
+    }
+
+    /** Adds the posts and comments of a batch whose sentiment labels are already assigned. */
+    public void addToTrend(SlidingWindowAggregator trend, PostBatch batch, String subreddit) {
+        Lexicon lexicon = lexicon(subreddit);
+        String text = batch.text();
+        for (int i = 0; i < batch.size(); i++) {
+            Map<String, Integer> keywords = new HashMap<>();
+            countKeywords(text, batch.titleStart(i), batch.titleEnd(i), lexicon, keywords);
+            countKeywords(text, batch.contentStart(i), batch.contentEnd(i), lexicon, keywords);
+            trend.add(batch.createdEpochSeconds(i), batch.sentiment(i), keywords);
+        }
+
+        CommentBatch comments = batch.comments();
+        for (int i = 0; i < comments.size(); i++) {
+            Map<String, Integer> keywords = new HashMap<>();
+            countKeywords(comments.text(), comments.contentStart(i), comments.contentEnd(i), lexicon, keywords);
+            trend.add(comments.createdEpochSeconds(i), comments.sentiment(i), keywords);
+        }
+    }
+
+    public TrendAnalysis toTrendAnalysis(String window, SlidingWindowAggregator trend) {
+        List<TrendBucket> buckets = new ArrayList<>();
+        for (SlidingWindowAggregator.Bucket bucket : trend.buckets()) {
+            int positive = bucket.getSentimentCount(PostBatch.SENTIMENT_POSITIVE);
+            int neutral = bucket.getSentimentCount(PostBatch.SENTIMENT_NEUTRAL);
+            int negative = bucket.getSentimentCount(PostBatch.SENTIMENT_NEGATIVE);
+
+            TrendBucket trendBucket = new TrendBucket();
+            trendBucket.setStart(LocalDateTime.ofInstant(Instant.ofEpochSecond(bucket.getStartEpochSeconds()), ZoneId.systemDefault()));
+            trendBucket.setItemCount(positive + neutral + negative);
+            trendBucket.setSentiment(toSentimentAnalysis(positive, neutral, negative));
+            // Buckets are small, so single mentions still count towards a bucket's top keywords
+            trendBucket.setTopKeywords(bucket.getKeywordCounts().entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(5)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new)));
+            buckets.add(trendBucket);
+        }
+
+        int[] sentiment = trend.windowSentiment();
+        TrendAnalysis analysis = new TrendAnalysis();
+        analysis.setWindow(window.toLowerCase());
+        analysis.setBuckets(buckets);
+        analysis.setWindowSentiment(toSentimentAnalysis(sentiment[PostBatch.SENTIMENT_POSITIVE],
+                sentiment[PostBatch.SENTIMENT_NEUTRAL], sentiment[PostBatch.SENTIMENT_NEGATIVE]));
+        analysis.setWindowKeywords(topKeywords(trend.windowKeywords(), 20));
+        return analysis;
+    }
+
     public String combinePostsText(List<PostData> posts) {
+        return combinePostsText(PostBatch.of(posts));
+    }
+
+    public String combinePostsText(PostBatch batch) {
         StringBuilder combined = new StringBuilder();
+        String text = batch.text();
 
-        for (PostData post : posts) {
-            if (post.getTitle() != null && !post.getTitle().isEmpty()) {
-                combined.append("Title: ").append(post.getTitle()).append("\n");
+        // Stop once past the LLM limit, everything after it would be truncated anyway
+        for (int i = 0; i < batch.size() && combined.length() <= 6000; i++) {
+            if (batch.titleEnd(i) > batch.titleStart(i)) {
+                combined.append("Title: ").append(text, batch.titleStart(i), batch.titleEnd(i)).append("\n");
             }
-            if (post.getContent() != null && !post.getContent().isEmpty()) {
-                combined.append("Content: ").append(post.getContent()).append("\n");
+            if (batch.contentEnd(i) > batch.contentStart(i)) {
+                combined.append("Content: ").append(text, batch.contentStart(i), batch.contentEnd(i)).append("\n");
             }
-            combined.append("Author: ").append(post.getAuthor())
-                    .append(", Upvotes: ").append(post.getUpvotes()).append("\n");
+            combined.append("Author: ").append(batch.author(i))
+                    .append(", Upvotes: ").append(batch.upvotes(i)).append("\n");
             combined.append("---\n");
         }
 
@@ -197,17 +345,4 @@ public class DataProcessingService {
 
         return result;
     }
-
-    private boolean isCommonWord(String word) {
-        Set<String> commonWords = new HashSet<>(Arrays.asList(
-                "the", "and", "for", "are", "but", "not", "you", "all", "can", "had",
-                "her", "was", "one", "our", "out", "day", "get", "has", "him", "his",
-                "how", "man", "new", "now", "old", "see", "two", "way", "who", "boy",
-                "did", "its", "let", "put", "say", "she", "too", "use", "have", "this",
-                "that", "with", "they", "will", "your", "from", "what", "were", "been",
-                "their", "said", "each", "which", "there", "would", "make", "like",
-                "into", "time", "very", "when", "come", "may", "take", "them", "year"
-        ));
-        return commonWords.contains(word.toLowerCase());
-    }
 }
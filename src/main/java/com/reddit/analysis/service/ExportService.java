@@ -0,0 +1,124 @@
+package com.reddit.analysis.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.reddit.analysis.exception.TooManyRequestsException;
+import com.reddit.analysis.export.ExportFormat;
+import com.reddit.analysis.export.ExportRow;
+import com.reddit.analysis.export.RedditJsonStreamer;
+import com.reddit.analysis.export.RowWriter;
+import com.reddit.analysis.model.PostBatch;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Streams analyzed posts and comments from Reddit straight to the client. Rows are parsed,
+ * labelled and written one at a time, so nothing proportional to the thread size is held.
+ * Lazy: it is created on the first export, so startup does not pay for it.
+ */
+@Service
+@Lazy
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final String[] SORT_TYPES = {"hot", "top", "new"};
+    private static final int POSTS_PER_SORT = 35;
+    private static final int MAX_SUBREDDIT_POSTS = 100;
+
+    @Autowired
+    private RedditScrapingService redditScrapingService;
+
+    @Autowired
+    private DataProcessingService dataProcessingService;
+
+    @Value("${export.max-concurrent:4}")
+    private int maxConcurrent;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private Semaphore exports;
+
+    @PostConstruct
+    public void init() {
+        exports = new Semaphore(maxConcurrent);
+    }
+
+    public StreamingResponseBody exportThread(String threadUrl, ExportFormat format) {
+        acquire();
+        return out -> {
+            try (InputStream in = redditScrapingService.openThreadStream(threadUrl);
+                 RowWriter writer = RowWriter.create(format, out)) {
+                stream(in, writer, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Export interrupted", e);
+            } finally {
+                exports.release();
+            }
+        };
+    }
+
+    public StreamingResponseBody exportSubreddit(String subreddit, ExportFormat format) {
+        String subredditName = redditScrapingService.extractSubredditName(subreddit.trim());
+        acquire();
+        return out -> {
+            // Same hot/top/new merge as the analysis, deduplicated on post id
+            Set<String> seen = new HashSet<>();
+            try (RowWriter writer = RowWriter.create(format, out)) {
+                for (String sortType : SORT_TYPES) {
+                    if (seen.size() >= MAX_SUBREDDIT_POSTS) break;
+                    try (InputStream in = redditScrapingService.openListingStream(subredditName, sortType, POSTS_PER_SORT)) {
+                        stream(in, writer, seen);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("Export interrupted", e);
+                    } catch (RuntimeException e) {
+                        logger.warn("Error exporting {} posts of r/{}: {}", sortType, subredditName, e.getMessage());
+                    }
+                }
+            } finally {
+                exports.release();
+            }
+        };
+    }
+
+    private void stream(InputStream in, RowWriter writer, Set<String> seenPosts) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            new RedditJsonStreamer().stream(parser, row -> {
+                if (seenPosts != null && ExportRow.POST.equals(row.getType())
+                        && (seenPosts.size() >= MAX_SUBREDDIT_POSTS || !seenPosts.add(row.getId()))) {
+                    return;
+                }
+                row.setSentiment(PostBatch.sentimentLabel(sentiment(row)));
+                writer.write(row);
+            });
+        }
+    }
+
+    private byte sentiment(ExportRow row) {
+        String text = row.getText();
+        if (ExportRow.POST.equals(row.getType())) {
+            return dataProcessingService.classifySentiment(row.getTitle() == null ? "" : row.getTitle(), text);
+        }
+        return text == null ? PostBatch.SENTIMENT_NEUTRAL : dataProcessingService.classifySentiment(text, 0, text.length());
+    }
+
+    private void acquire() {
+        if (!exports.tryAcquire()) {
+            throw new TooManyRequestsException("Too many exports in progress", 5);
+        }
+    }
+}
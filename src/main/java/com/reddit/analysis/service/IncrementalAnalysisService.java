@@ -0,0 +1,389 @@
+package com.reddit.analysis.service;
+
+import com.reddit.analysis.lexicon.Lexicon;
+import com.reddit.analysis.model.*;
+import com.reddit.analysis.stats.SlidingWindowAggregator;
+import com.reddit.analysis.stats.WindowStats;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Incremental subreddit analysis over a sliding window of the newest posts. Each refresh
+ * only fetches posts newer than the last-seen cursor plus one batched score lookup for the
+ * posts already in the window, and folds them into running aggregates, so the work done
+ * tracks how much changed rather than the window size. Fetches and Gemini calls run outside
+ * the per-subreddit lock, which is only held while results are merged into the window.
+ */
+@Service
+public class IncrementalAnalysisService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalAnalysisService.class);
+
+    @Autowired
+    private RedditScrapingService redditScrapingService;
+
+    @Autowired
+    private DataProcessingService dataProcessingService;
+
+    @Autowired
+    private LLMService llmService;
+
+    @Value("${incremental.window-size:100}")
+    private int windowSize;
+
+    @Value("${incremental.max-subreddits:200}")
+    private int maxSubreddits;
+
+    // Least recently analyzed subreddits are dropped first; each entry holds a whole window
+    private Map<String, SubredditState> states;
+
+    @PostConstruct
+    public void init() {
+        states = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SubredditState> eldest) {
+                return size() > maxSubreddits;
+            }
+        });
+    }
+
+    public AnalysisResponse analyze(AnalysisRequest request) throws Exception {
+        String subreddit = redditScrapingService.extractSubredditName(request.getInput().trim());
+        SubredditState state = stateFor(subreddit);
+        refresh(state, null);
+
+        AnalysisResponse response = new AnalysisResponse();
+        String combinedText = null;
+        long contentVersion;
+        synchronized (state) {
+            response.setInputSource(request.getInput());
+            response.setAnalysisType(request.getAnalysisType());
+            response.setSentimentAnalysis(state.sentiment(dataProcessingService));
+            response.setKeyTopics(dataProcessingService.topTopics(state.keywordCounts, subreddit));
+            response.setKeywordFrequency(dataProcessingService.topKeywords(state.keywordCounts, 20));
+            // Recounted over the window: phrases are cheap next to keeping n-gram deltas per post
+            response.setPhrases(dataProcessingService.extractPhrases(PostBatch.of(state.newestFirstPosts()), subreddit));
+            response.setStats(state.stats.toStats());
+            if (request.getTrendWindow() != null) {
+                response.setTrends(dataProcessingService.toTrendAnalysis(request.getTrendWindow(),
+                        state.trend(request.getTrendWindow(), dataProcessingService)));
+            }
+
+            // Copies: later refreshes update window posts' scores in place, maybe mid-serialization
+            List<PostData> posts = state.newestFirstPosts();
+            posts.replaceAll(IncrementalAnalysisService::copyOf);
+            response.setAnalyzedPosts(posts);
+
+            // The LLM only sees changed content when new posts arrived since the last summary
+            contentVersion = state.contentVersion;
+            if (request.isIncludeLlm() && state.llmStale) {
+                combinedText = dataProcessingService.combinePostsText(state.newestFirst());
+            } else if (request.isIncludeLlm()) {
+                response.setLlmSummary(state.llmSummary);
+                response.setBusinessInsights(state.businessInsights);
+            }
+        }
+
+        if (combinedText != null) {
+            response.setLlmSummary(llmService.generateSummary(combinedText, request.getAnalysisType(), subreddit));
+            response.setBusinessInsights(llmService.generateBusinessInsights(combinedText, response.getKeyTopics(), subreddit));
+            synchronized (state) {
+                // Kept only if no refresh changed the window while Gemini was answering
+                if (state.contentVersion == contentVersion) {
+                    state.llmSummary = response.getLlmSummary();
+                    state.businessInsights = response.getBusinessInsights();
+                    state.llmStale = false;
+                }
+            }
+        }
+        return response;
+    }
+
+    SubredditState stateFor(String subreddit) {
+        return states.computeIfAbsent(subreddit.toLowerCase(Locale.ROOT), k -> new SubredditState(subreddit));
+    }
+
+    /**
+     * A window owned by one watch. Watches keep their own rather than sharing the on-demand one,
+     * whose refreshes would absorb changes the watch never pushes, so its subscribers'
+     * snapshot plus deltas always add up to the watch's window.
+     */
+    SubredditState newWatchState(String subreddit) {
+        return new SubredditState(subreddit);
+    }
+
+    /** Refreshes a watch's window and returns what changed, or null when nothing did. */
+    WatchUpdate refreshUpdate(SubredditState state) throws Exception {
+        Map<String, Integer> keywordDelta = new HashMap<>();
+        Refresh refresh = refresh(state, keywordDelta);
+        if (refresh.added().isEmpty() && keywordDelta.isEmpty() && !refresh.scoresChanged()) {
+            return null;
+        }
+        synchronized (state) {
+            return toUpdate(state, refresh.added(), keywordDelta);
+        }
+    }
+
+    /** Current aggregates without fetching anything, refreshing first only if never loaded. */
+    WatchUpdate snapshot(SubredditState state) throws Exception {
+        boolean loaded;
+        synchronized (state) {
+            loaded = state.cursor != null;
+        }
+        if (!loaded) {
+            refresh(state, new HashMap<>());
+        }
+        synchronized (state) {
+            return toUpdate(state, state.newestFirstPosts(), new HashMap<>(state.keywordCounts));
+        }
+    }
+
+    private WatchUpdate toUpdate(SubredditState state, List<PostData> posts, Map<String, Integer> keywordDelta) {
+        WatchUpdate update = new WatchUpdate();
+        update.setSubreddit(state.subreddit);
+        List<PostSummary> summaries = new ArrayList<>(posts.size());
+        for (PostData post : posts) {
+            summaries.add(new PostSummary(post.getId(), post.getTitle(), post.getAuthor(), post.getUpvotes(), post.getSentiment()));
+        }
+        update.setNewPosts(summaries);
+        update.setKeywordDelta(keywordDelta);
+        update.setSentimentAnalysis(state.sentiment(dataProcessingService));
+        update.setKeywordFrequency(dataProcessingService.topKeywords(state.keywordCounts, 20));
+        update.setStats(state.stats.toStats());
+        return update;
+    }
+
+    /**
+     * Brings the window up to date: fetches against a snapshot of the cursor and window ids, then
+     * merges under the lock. When another refresh merged in the meantime its window is at least
+     * as new, so this one's results are dropped rather than applied twice.
+     */
+    private Refresh refresh(SubredditState state, Map<String, Integer> keywordDelta) throws Exception {
+        String cursor;
+        List<String> windowIds;
+        long generation;
+        synchronized (state) {
+            cursor = state.cursor;
+            windowIds = new ArrayList<>(state.window.keySet());
+            generation = state.generation;
+        }
+
+        PostBatch current = null;
+        PostBatch fresh = null;
+        if (cursor != null) {
+            current = redditScrapingService.fetchPostsById(windowIds);
+            // A removed cursor post makes `before` return nothing forever, so start over
+            if (windowIds.contains(cursor)) {
+                fresh = redditScrapingService.fetchNewPosts(state.subreddit, "t3_" + cursor, windowSize);
+                if (fresh.size() >= windowSize) fresh = null;
+            }
+            if (fresh == null) {
+                logger.info("Incremental window for r/{} is stale, reloading", state.subreddit);
+            }
+        }
+        boolean reload = fresh == null;
+        if (reload) {
+            fresh = redditScrapingService.fetchNewPosts(state.subreddit, null, windowSize);
+        }
+        dataProcessingService.analyzeSentiment(fresh, state.subreddit);
+
+        synchronized (state) {
+            if (state.generation != generation) {
+                return new Refresh(List.of(), false);
+            }
+            state.generation++;
+            boolean scoresChanged = current != null && applyScoreDeltas(state, current);
+            if (reload && cursor != null) {
+                if (keywordDelta != null) {
+                    state.keywordCounts.forEach((word, count) -> keywordDelta.merge(word, -count, Integer::sum));
+                }
+                state.reset();
+            }
+            return new Refresh(fold(state, fresh, keywordDelta), scoresChanged);
+        }
+    }
+
+    private boolean applyScoreDeltas(SubredditState state, PostBatch current) {
+        boolean changed = false;
+        for (int i = 0; i < current.size(); i++) {
+            WindowPost windowPost = state.window.get(current.id(i));
+            if (windowPost == null) continue;
+            PostData post = windowPost.post;
+            int oldUpvotes = post.getUpvotes();
+            int commentDelta = current.commentCount(i) - post.getRealCommentCount();
+            if (current.upvotes(i) == oldUpvotes && commentDelta == 0) continue;
+
+            changed = true;
+            post.setUpvotes(current.upvotes(i));
+            post.setRealCommentCount(current.commentCount(i));
+            state.stats.update(post.getId(), post.getTitle(), oldUpvotes, post.getUpvotes(), commentDelta);
+        }
+        return changed;
+    }
+
+    /** Folds an already sentiment-labelled batch into the window; returns the posts it added. */
+    private List<PostData> fold(SubredditState state, PostBatch batch, Map<String, Integer> keywordDelta) {
+        String text = batch.text();
+        Lexicon lexicon = dataProcessingService.lexicon(state.subreddit);
+        List<PostData> added = new ArrayList<>();
+
+        // Listings are newest first; the window is kept oldest first so eviction is from the head
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (state.window.containsKey(batch.id(i))) continue;
+            Map<String, Integer> keywords = new HashMap<>();
+            dataProcessingService.countKeywords(text, batch.titleStart(i), batch.titleEnd(i), lexicon, keywords);
+            dataProcessingService.countKeywords(text, batch.contentStart(i), batch.contentEnd(i), lexicon, keywords);
+
+            WindowPost windowPost = new WindowPost(batch.toPostData(i), batch.sentiment(i), keywords);
+            state.add(windowPost);
+            if (keywordDelta != null) {
+                keywords.forEach((word, count) -> keywordDelta.merge(word, count, Integer::sum));
+            }
+            for (SlidingWindowAggregator trend : state.trends.values()) {
+                trend.add(batch.createdEpochSeconds(i), windowPost.sentiment, keywords);
+            }
+            added.add(windowPost.post);
+        }
+
+        Iterator<WindowPost> oldest = state.window.values().iterator();
+        while (state.window.size() > windowSize) {
+            WindowPost evictedPost = oldest.next();
+            state.subtract(evictedPost);
+            if (keywordDelta != null) {
+                evictedPost.keywords.forEach((word, count) -> keywordDelta.merge(word, -count, Integer::sum));
+            }
+            oldest.remove();
+        }
+
+        if (keywordDelta != null) {
+            keywordDelta.values().removeIf(count -> count == 0);
+        }
+        if (!added.isEmpty()) {
+            state.cursor = added.get(added.size() - 1).getId();
+            state.llmStale = true;
+            state.contentVersion++;
+        }
+        Collections.reverse(added); // newest first, like the listing
+        return added;
+    }
+
+    static final class SubredditState {
+        final String subreddit;
+        String cursor;
+        final LinkedHashMap<String, WindowPost> window = new LinkedHashMap<>();
+        final int[] sentimentCounts = new int[4];
+        final Map<String, Integer> keywordCounts = new HashMap<>();
+        // Trend aggregators outlive window eviction; they age out by time instead
+        final Map<String, SlidingWindowAggregator> trends = new HashMap<>();
+        WindowStats stats = new WindowStats();
+        String llmSummary;
+        String businessInsights;
+        boolean llmStale = true;
+        // Bumped by every merge, and by every merge that changed the posts the LLM would see
+        long generation;
+        long contentVersion;
+
+        SubredditState(String subreddit) {
+            this.subreddit = subreddit;
+        }
+
+        void add(WindowPost windowPost) {
+            PostData post = windowPost.post;
+            window.put(post.getId(), windowPost);
+            sentimentCounts[windowPost.sentiment]++;
+            windowPost.keywords.forEach((word, count) -> keywordCounts.merge(word, count, Integer::sum));
+            stats.add(post.getId(), post.getTitle(), post.getAuthor(), post.getUpvotes(), post.getRealCommentCount());
+        }
+
+        void subtract(WindowPost windowPost) {
+            PostData post = windowPost.post;
+            sentimentCounts[windowPost.sentiment]--;
+            windowPost.keywords.forEach((word, count) ->
+                    keywordCounts.computeIfPresent(word, (w, total) -> total - count == 0 ? null : total - count));
+            stats.remove(post.getId(), post.getAuthor(), post.getUpvotes(), post.getRealCommentCount());
+        }
+
+        SlidingWindowAggregator trend(String trendWindow, DataProcessingService dataProcessingService) {
+            return trends.computeIfAbsent(trendWindow.toLowerCase(Locale.ROOT), w -> {
+                SlidingWindowAggregator trend = dataProcessingService.newTrendAggregator(w);
+                for (WindowPost windowPost : window.values()) {
+                    LocalDateTime created = windowPost.post.getCreatedTime();
+                    if (created != null) {
+                        trend.add(created.atZone(ZoneId.systemDefault()).toEpochSecond(), windowPost.sentiment, windowPost.keywords);
+                    }
+                }
+                return trend;
+            });
+        }
+
+        void reset() {
+            cursor = null;
+            window.clear();
+            Arrays.fill(sentimentCounts, 0);
+            keywordCounts.clear();
+            // Reloaded posts would be counted twice otherwise
+            trends.clear();
+            stats = new WindowStats();
+            llmStale = true;
+            contentVersion++;
+        }
+
+        SentimentAnalysis sentiment(DataProcessingService dataProcessingService) {
+            return dataProcessingService.toSentimentAnalysis(
+                    sentimentCounts[PostBatch.SENTIMENT_POSITIVE],
+                    sentimentCounts[PostBatch.SENTIMENT_NEUTRAL],
+                    sentimentCounts[PostBatch.SENTIMENT_NEGATIVE]);
+        }
+
+        List<PostData> newestFirstPosts() {
+            List<PostData> posts = new ArrayList<>(window.size());
+            for (WindowPost windowPost : window.values()) {
+                posts.add(windowPost.post);
+            }
+            Collections.reverse(posts);
+            return posts;
+        }
+
+        PostBatch newestFirst() {
+            return PostBatch.of(newestFirstPosts());
+        }
+    }
+
+    private static PostData copyOf(PostData post) {
+        PostData copy = new PostData();
+        copy.setId(post.getId());
+        copy.setTitle(post.getTitle());
+        copy.setContent(post.getContent());
+        copy.setAuthor(post.getAuthor());
+        copy.setUpvotes(post.getUpvotes());
+        copy.setDownvotes(post.getDownvotes());
+        copy.setCreatedTime(post.getCreatedTime());
+        copy.setComments(post.getComments());
+        copy.setSentiment(post.getSentiment());
+        copy.setRealCommentCount(post.getRealCommentCount());
+        return copy;
+    }
+
+    private record Refresh(List<PostData> added, boolean scoresChanged) {
+    }
+
+    static final class WindowPost {
+        final PostData post;
+        final byte sentiment;
+        final Map<String, Integer> keywords;
+
+        WindowPost(PostData post, byte sentiment, Map<String, Integer> keywords) {
+            this.post = post;
+            this.sentiment = sentiment;
+            this.keywords = keywords;
+        }
+    }
+}
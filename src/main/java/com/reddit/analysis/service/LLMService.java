@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.reddit.analysis.metrics.PipelineMetrics;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +15,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import java.util.List;
+import java.util.concurrent.Semaphore;
 
 @Service
 public class LLMService {
@@ -28,15 +31,29 @@ public class LLMService {
     @Value("${gemini.api.url}")
     private String geminiApiUrl;
 
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Value("${gemini.max-concurrency:4}")
+    private int maxConcurrency;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // Process-wide cap on in-flight Gemini calls, independent of how many analyses run
+    private Semaphore geminiPermits;
+
+    @PostConstruct
+    public void init() {
+        geminiPermits = new Semaphore(maxConcurrency, true);
+    }
+
     public String generateSummary(String text, String analysisType, String subredditName) {
         if (isApiKeyInvalid()) {
             return "Please configure your Gemini API key in application.properties to enable AI-powered insights.";
         }
 
-        String prompt = buildSummaryPrompt(text, analysisType, subredditName);
-        String response = callGeminiAPI(prompt);
+        String prompt = pipelineMetrics.time("llm.prompt", () -> buildSummaryPrompt(text, analysisType, subredditName));
+        String response = pipelineMetrics.time("llm.gemini.summary", () -> callGeminiAPI(prompt));
         return cleanResponse(response);
     }
 
@@ -45,8 +62,8 @@ public class LLMService {
             return "Please configure your Gemini API key in application.properties to enable AI-powered business insights.";
         }
 
-        String prompt = buildBusinessInsightsPrompt(text, keyTopics, subredditName);
-        String response = callGeminiAPI(prompt);
+        String prompt = pipelineMetrics.time("llm.prompt", () -> buildBusinessInsightsPrompt(text, keyTopics, subredditName));
+        String response = pipelineMetrics.time("llm.gemini.insights", () -> callGeminiAPI(prompt));
         return cleanResponse(response);
     }
 
@@ -103,7 +120,7 @@ public class LLMService {
         return prompt.toString();
     }
 
-    private String cleanResponse(String response) {
+    String cleanResponse(String response) {
         if (response == null) return "No response generated.";
 
         return response
@@ -124,6 +141,7 @@ public class LLMService {
             ArrayNode partsArray = objectMapper.createArrayNode();
             ObjectNode partObject = objectMapper.createObjectNode();
 
+            pipelineMetrics.count("llm.prompt.size", "chars", prompt.length());
             partObject.put("text", prompt);
             partsArray.add(partObject);
             contentObject.set("parts", partsArray);
@@ -140,13 +158,19 @@ public class LLMService {
             String apiEndpoint = geminiApiUrl + "?key=" + geminiApiKey;
             logger.info("Calling Gemini API: {}", maskKey(apiEndpoint));
 
-            String response = webClient.post()
-                    .uri(apiEndpoint)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
+            String response;
+            geminiPermits.acquire();
+            try {
+                response = webClient.post()
+                        .uri(apiEndpoint)
+                        .header("Content-Type", "application/json")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .block();
+            } finally {
+                geminiPermits.release();
+            }
 
             JsonNode responseNode = objectMapper.readTree(response);
             if (responseNode.has("candidates") && responseNode.get("candidates").size() > 0) {
@@ -0,0 +1,137 @@
+package com.reddit.analysis.service;
+
+import com.reddit.analysis.lexicon.Lexicon;
+import com.reddit.analysis.util.Hashing;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Dictionaries under {@code lexicon.path}: {@code positive.txt}, {@code negative.txt} and
+ * {@code stopwords.txt} replace the bundled lists, and {@code r/<subreddit>/<name>.txt} adds terms
+ * for one subreddit ({@code -term} removes one). The directory is polled for changes; everything
+ * is recompiled off to the side and swapped in with one volatile write, so analyses in flight
+ * finish on the lexicon they started with. A dictionary that fails to load keeps the old lexicon.
+ */
+@Service
+public class LexiconService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LexiconService.class);
+
+    private static final String SUBREDDITS = "r";
+    private static final String SUFFIX = ".txt";
+
+    @Value("${lexicon.path:data/lexicon}")
+    private String path;
+
+    private volatile Snapshot snapshot = new Snapshot(0, Lexicon.defaults(), Map.of());
+
+    @PostConstruct
+    public void load() {
+        reloadIfChanged();
+    }
+
+    /** The lexicon for a subreddit (with its overrides, if any), or the global one for null. */
+    public Lexicon lexicon(String subreddit) {
+        Snapshot current = snapshot;
+        if (subreddit == null || current.bySubreddit.isEmpty()) return current.global;
+        return current.bySubreddit.getOrDefault(subreddit.toLowerCase(Locale.ROOT), current.global);
+    }
+
+    /**
+     * Identifies the dictionaries in use, for anything derived from them that is cached or tagged:
+     * it changes whenever a reload swaps in a new lexicon.
+     */
+    public long signature() {
+        return snapshot.signature;
+    }
+
+    @Scheduled(fixedDelayString = "${lexicon.reload-interval-ms:10000}")
+    public void reloadIfChanged() {
+        Path directory = Paths.get(path);
+        long signature;
+        try {
+            signature = signature(directory);
+        } catch (IOException e) {
+            logger.warn("Cannot scan lexicon directory {}: {}", directory, e.getMessage());
+            return;
+        }
+        if (signature == snapshot.signature) return;
+        try {
+            snapshot = compile(directory, signature);
+            logger.info("Lexicon compiled: {} sentiment terms, {} stopwords, {} subreddit overrides",
+                    snapshot.global.sentimentTerms(), snapshot.global.stopwords(), snapshot.bySubreddit.size());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to compile lexicon from {}; keeping the previous one", directory, e);
+        }
+    }
+
+    private static Snapshot compile(Path directory, long signature) throws IOException {
+        Map<String, Collection<String>> base = new HashMap<>();
+        for (String dictionary : Lexicon.DICTIONARIES) {
+            Path file = directory.resolve(dictionary + SUFFIX);
+            base.put(dictionary, Files.isRegularFile(file) ? read(file) : Lexicon.bundled(dictionary));
+        }
+
+        Map<String, Lexicon> bySubreddit = new HashMap<>();
+        Path subreddits = directory.resolve(SUBREDDITS);
+        if (Files.isDirectory(subreddits)) {
+            try (Stream<Path> entries = Files.list(subreddits)) {
+                for (Path subreddit : entries.filter(Files::isDirectory).toList()) {
+                    Map<String, Collection<String>> dictionaries = new HashMap<>();
+                    for (String dictionary : Lexicon.DICTIONARIES) {
+                        Set<String> terms = new LinkedHashSet<>(base.get(dictionary));
+                        Path file = subreddit.resolve(dictionary + SUFFIX);
+                        if (Files.isRegularFile(file)) {
+                            for (String term : read(file)) {
+                                if (term.startsWith("-")) {
+                                    terms.remove(term.substring(1).strip());
+                                } else {
+                                    terms.add(term);
+                                }
+                            }
+                        }
+                        dictionaries.put(dictionary, terms);
+                    }
+                    bySubreddit.put(subreddit.getFileName().toString().toLowerCase(Locale.ROOT), Lexicon.compile(dictionaries));
+                }
+            }
+        }
+        return new Snapshot(signature, Lexicon.compile(base), Map.copyOf(bySubreddit));
+    }
+
+    private static List<String> read(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return Lexicon.read(reader);
+        }
+    }
+
+    // Order-independent digest of dictionary file names, sizes and modification times; 1 when there are none
+    private static long signature(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return 1;
+        long signature = 1;
+        try (Stream<Path> files = Files.walk(directory, 3)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(SUFFIX) && Files.isRegularFile(f)).toList()) {
+                long h = Hashing.hash64(directory.relativize(file).toString());
+                h ^= Files.getLastModifiedTime(file).toMillis() * 31 + Files.size(file);
+                signature += Hashing.mix64(h);
+            }
+        }
+        return signature;
+    }
+
+    private record Snapshot(long signature, Lexicon global, Map<String, Lexicon> bySubreddit) {
+    }
+}
@@ -1,17 +1,22 @@
 package com.reddit.analysis.service;
 
+import com.reddit.analysis.metrics.PipelineMetrics;
 import com.reddit.analysis.model.*;
+import com.reddit.analysis.stats.SlidingWindowAggregator;
+import com.reddit.analysis.util.Hashing;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 @Service
 public class RedditAnalysisService {
 
+    // Bump when the analysis output changes for the same input, so clients drop cached copies
+    static final int ANALYSIS_VERSION = 2;
+
     @Autowired
     private RedditScrapingService redditScrapingService;
 
@@ -21,21 +26,183 @@ public class RedditAnalysisService {
     @Autowired
     private DataProcessingService dataProcessingService;
 
+    @Autowired
+    private IncrementalAnalysisService incrementalAnalysisService;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private AnalysisCache analysisCache;
+
+    @Autowired
+    private LexiconService lexiconService;
+
     public AnalysisResponse performAnalysis(AnalysisRequest request) throws Exception {
+        if (request.isIncremental() && !"thread".equals(request.getAnalysisType())
+                && !"store".equals(request.getSource())) {
+            return incrementalAnalysisService.analyze(request);
+        }
+
+        // Scrape Reddit data
+        PostBatch batch = redditScrapingService.scrapeRedditBatch(request);
+
+        PendingAnalysis analysis = analyzeLocally(request, batch);
+        if (request.isIncludeLlm()) {
+            generateSummary(analysis);
+            generateBusinessInsights(analysis);
+        }
+        return analysis.response;
+    }
+
+    /**
+     * Answers If-None-Match from the cache when it can, else scrapes, derives an ETag from the
+     * scraped content, and only analyzes when needed: returns null without analyzing when
+     * {@code notModified} accepts the ETag (the client already has it), and reuses the cached result
+     * when the content is unchanged since it was computed. A cached entry that has not expired was
+     * checked against Reddit within the cache TTL, and is what a request without If-None-Match would
+     * be served, so a client holding its ETag gets a 304 without a scrape; the scrape happens once
+     * the entry expires. {@code variant} covers anything else that changes the representation, such
+     * as projections and the format.
+     */
+    public ConditionalAnalysis performConditionalAnalysis(AnalysisRequest request, String variant, String ifNoneMatch,
+                                                          Predicate<String> notModified) throws Exception {
+        String key = analysisCache.key(request);
+        analysisCache.recordAccess(key, request);
+        AnalysisCache.Entry cached = ifNoneMatch != null ? analysisCache.get(key) : null;
+        if (cached != null) {
+            String cachedEtag = etag(cached.contentHash(), variant);
+            // notModified is only consulted once per request, as it writes the response headers
+            if (matchesAny(ifNoneMatch, cachedEtag) && notModified.test(cachedEtag)) {
+                pipelineMetrics.count("analysis.cache.not-modified", "requests", 1);
+                return null;
+            }
+        }
+        PostBatch batch = redditScrapingService.scrapeRedditBatch(request);
+        long contentHash = contentHash(key, batch);
+        if (notModified.test(etag(contentHash, variant))) {
+            return null;
+        }
+        // Tagged by the entry, which may be another replica's result for a slightly different scrape
+        AnalysisCache.Entry entry = cachedOrAnalyze(key, request, batch, contentHash);
+        return new ConditionalAnalysis(etag(entry.contentHash(), variant), entry.response());
+    }
+
+    /** Re-scrapes a cached analysis ahead of expiry; only re-analyzes if the content changed. */
+    void refresh(AnalysisRequest request) throws Exception {
+        String key = analysisCache.key(request);
+        PostBatch batch = redditScrapingService.scrapeRedditBatch(request);
+        cachedOrAnalyze(key, request, batch, contentHash(key, batch));
+    }
+
+    private AnalysisCache.Entry cachedOrAnalyze(String key, AnalysisRequest request, PostBatch batch, long contentHash) {
+        AnalysisCache.Entry cached = analysisCache.get(key);
+        if (cached != null && cached.contentHash() == contentHash) {
+            pipelineMetrics.count("analysis.cache.hit", "requests", 1);
+            // Just verified against upstream, so it is good for another TTL
+            return analysisCache.revalidate(key, cached);
+        }
+
+        // Only one replica analyzes a key at a time; the others take its result
+        try (AnalysisCache.Lease lease = analysisCache.lease(key, cached)) {
+            if (lease.computed() != null) {
+                return lease.computed();
+            }
+            PendingAnalysis analysis = analyzeLocally(request, batch);
+            if (request.isIncludeLlm()) {
+                generateSummary(analysis);
+                generateBusinessInsights(analysis);
+            }
+            return analysisCache.put(key, contentHash, analysis.response);
+        }
+    }
+
+    private long contentHash(String key, PostBatch batch) {
+        long h = Hashing.mix64(ANALYSIS_VERSION);
+        h = Hashing.mix64(h ^ Hashing.hash64(key));
+        // Sentiment and phrases depend on the dictionaries, so a lexicon reload misses the cache
+        h = Hashing.mix64(h ^ lexiconService.signature());
+        for (int i = 0; i < batch.size(); i++) {
+            h = Hashing.mix64(h ^ Hashing.hash64(batch.id(i)));
+            h = Hashing.mix64(h ^ (((long) batch.upvotes(i) << 32) | (batch.commentCount(i) & 0xffffffffL)));
+        }
+        CommentBatch comments = batch.comments();
+        for (int i = 0; i < comments.size(); i++) {
+            h = Hashing.mix64(h ^ Hashing.hash64(comments.id(i)));
+            h = Hashing.mix64(h ^ comments.upvotes(i));
+        }
+        return h;
+    }
+
+    // Weak comparison against an If-None-Match list, as checkNotModified does
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) candidate = candidate.substring(2);
+            if (candidate.equals("*") || candidate.equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    // Weak validator: the same content may be sent gzipped or in another encoding. Includes the
+    // current lexicon too, so a cached entry analyzed before a reload no longer answers with a 304
+    private String etag(long contentHash, String variant) {
+        long h = Hashing.mix64(contentHash ^ Hashing.hash64(variant));
+        return "W/\"" + Long.toHexString(Hashing.mix64(h ^ lexiconService.signature())) + "\"";
+    }
+
+    /** Everything except the Gemini calls; CPU-bound and safe to run on a compute pool. */
+    PendingAnalysis analyzeLocally(AnalysisRequest request, PostBatch batch) {
         AnalysisResponse response = new AnalysisResponse();
         response.setInputSource(request.getInput());
         response.setAnalysisType(request.getAnalysisType());
 
-        // Scrape Reddit data
-        List<PostData> posts = redditScrapingService.scrapeRedditData(request);
+        pipelineMetrics.count("analysis.request.posts", "posts", batch.size());
+        pipelineMetrics.count("analysis.request.comments", "comments", batch.comments().size());
 
         // Process data and extract insights
-        SentimentAnalysis sentiment = dataProcessingService.analyzeSentiment(posts);
-        List<String> keyTopics = dataProcessingService.extractTopics(posts);
-        Map<String, Integer> keywordFreq = dataProcessingService.getKeywordFrequency(posts);
-        AnalysisStats stats = dataProcessingService.calculateStats(posts);
+        SentimentAnalysis sentiment = pipelineMetrics.time("processing.sentiment", () -> dataProcessingService.analyzeSentiment(batch, subredditName(request)));
+        List<String> keyTopics = pipelineMetrics.time("processing.topics", () -> dataProcessingService.extractTopics(batch, subredditName(request)));
+        Map<String, Integer> keywordFreq = pipelineMetrics.time("processing.keywords", () -> dataProcessingService.getKeywordFrequency(batch, subredditName(request)));
+        Map<String, Integer> phrases = pipelineMetrics.time("processing.phrases", () -> dataProcessingService.extractPhrases(batch, subredditName(request)));
+        AnalysisStats stats = pipelineMetrics.time("processing.stats", () -> dataProcessingService.calculateStats(batch));
+
+        response.setSentimentAnalysis(sentiment);
+        response.setKeyTopics(keyTopics);
+        response.setKeywordFrequency(keywordFreq);
+        response.setPhrases(phrases);
+        // Beans are only materialized for the posts returned, after sentiment labels are set
+        response.setAnalyzedPosts(pipelineMetrics.time("processing.materialize", batch::toPostDataList));
+        response.setStats(stats);
+
+        if (request.getTrendWindow() != null) {
+            response.setTrends(pipelineMetrics.time("processing.trends", () -> {
+                SlidingWindowAggregator trend = dataProcessingService.newTrendAggregator(request.getTrendWindow());
+                dataProcessingService.addToTrend(trend, batch, subredditName(request));
+                return dataProcessingService.toTrendAnalysis(request.getTrendWindow(), trend);
+            }));
+        }
 
-        // Extract subreddit name for AI analysis
+        String combinedText = request.isIncludeLlm()
+                ? pipelineMetrics.time("processing.combine", () -> dataProcessingService.combinePostsText(batch))
+                : null;
+        return new PendingAnalysis(request, response, combinedText, subredditName(request));
+    }
+
+    // Generate LLM insights with dynamic subreddit name
+    void generateSummary(PendingAnalysis analysis) {
+        analysis.response.setLlmSummary(llmService.generateSummary(
+                analysis.combinedText, analysis.request.getAnalysisType(), analysis.subredditName));
+    }
+
+    void generateBusinessInsights(PendingAnalysis analysis) {
+        analysis.response.setBusinessInsights(llmService.generateBusinessInsights(
+                analysis.combinedText, analysis.response.getKeyTopics(), analysis.subredditName));
+    }
+
+    // Extract subreddit name for AI analysis
+    private String subredditName(AnalysisRequest request) {
         String subredditName = "unknown";
         if (request.getInput() != null) {
             String input = request.getInput().trim();
@@ -50,22 +217,23 @@ public class RedditAnalysisService {
                 subredditName = input;
             }
         }
+        return subredditName;
+    }
 
-        // Generate LLM insights with dynamic subreddit name
-        String combinedText = dataProcessingService.combinePostsText(posts);
-        String llmSummary = llmService.generateSummary(combinedText, request.getAnalysisType(), subredditName);
-        String businessInsights = llmService.generateBusinessInsights(combinedText, keyTopics, subredditName);
-
+    public record ConditionalAnalysis(String etag, AnalysisResponse response) {
+    }
 
-        response.setSentimentAnalysis(sentiment);
-        response.setKeyTopics(keyTopics);
-        response.setKeywordFrequency(keywordFreq);
-        response.setLlmSummary(llmSummary);
-        response.setBusinessInsights(businessInsights);
-        response.setAnalyzedPosts(posts);
-        response.setStats(stats);
+    static final class PendingAnalysis {
+        final AnalysisRequest request;
+        final AnalysisResponse response;
+        final String combinedText;
+        final String subredditName;
 
-        return response;
+        PendingAnalysis(AnalysisRequest request, AnalysisResponse response, String combinedText, String subredditName) {
+            this.request = request;
+            this.response = response;
+            this.combinedText = combinedText;
+            this.subredditName = subredditName;
+        }
     }
-
-}
\ No newline at end of file
+}
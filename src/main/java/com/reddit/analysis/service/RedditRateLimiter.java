@@ -0,0 +1,80 @@
+package com.reddit.analysis.service;
+
+import com.reddit.analysis.capture.UpstreamCaptureFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket shared by every Reddit API call in the process, sized to the OAuth quota.
+ * Foreground fetches block until a token is available; optional work (background polls,
+ * speculative requests) uses {@link #tryAcquire()} and is skipped when the budget is spent.
+ * Replaying a capture never touches Reddit, so the budget is not enforced then.
+ */
+@Component
+public class RedditRateLimiter {
+
+    private final UpstreamCaptureFilter upstreamCapture;
+    private final double permitsPerNano;
+    private final double capacity;
+    private double available;
+    private long lastRefill;
+
+    public RedditRateLimiter(@Value("${reddit.rate-limit.requests-per-minute:90}") int requestsPerMinute,
+                             @Value("${reddit.rate-limit.burst:10}") int burst,
+                             UpstreamCaptureFilter upstreamCapture) {
+        this.upstreamCapture = upstreamCapture;
+        this.permitsPerNano = requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.capacity = burst;
+        this.available = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        if (upstreamCapture.isReplaying()) return;
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (available >= 1) {
+                    available -= 1;
+                    return;
+                }
+                waitNanos = (long) ((1 - available) / permitsPerNano);
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(waitNanos, 1_000_000));
+        }
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /** Takes all {@code permits} or none, so multi-call work never strands a partial reservation. */
+    public synchronized boolean tryAcquire(int permits) {
+        if (upstreamCapture.isReplaying()) return true;
+        refill();
+        if (available >= permits) {
+            available -= permits;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized double availablePermits() {
+        if (upstreamCapture.isReplaying()) return capacity;
+        refill();
+        return available;
+    }
+
+    public double getCapacity() {
+        return capacity;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        available = Math.min(capacity, available + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+}
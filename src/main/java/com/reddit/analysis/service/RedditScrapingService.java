@@ -3,29 +3,87 @@ package com.reddit.analysis.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reddit.analysis.model.AnalysisRequest;
+import com.reddit.analysis.model.CommentBatch;
+import com.reddit.analysis.model.PostBatch;
 import com.reddit.analysis.model.PostData;
+import com.reddit.analysis.metrics.PipelineMetrics;
+import com.reddit.analysis.stats.LatencyWindow;
+import com.reddit.analysis.store.PostStore;
+import com.reddit.analysis.util.DataBufferInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 public class RedditScrapingService {
 
+    private static final Logger logger = LoggerFactory.getLogger(RedditScrapingService.class);
+
     @Autowired
     private WebClient webClient;
 
     @Autowired
     private RedditAuthService redditAuthService;
 
+    @Autowired
+    private PostStore postStore;
+
+    @Autowired
+    private RedditRateLimiter redditRateLimiter;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Value("${reddit.api.base-url:https://oauth.reddit.com}")
+    private String apiBaseUrl;
+
+    // Hedging: duplicate a slow listing/comments fetch once it passes this percentile of recent latency
+    @Value("${reddit.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${reddit.hedge.percentile:95}")
+    private double hedgePercentile;
+
+    @Value("${reddit.hedge.min-delay-ms:50}")
+    private long hedgeMinDelayMs;
+
+    @Value("${reddit.hedge.min-samples:50}")
+    private int hedgeMinSamples;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private static final int MAX_SUBREDDIT_POSTS = 100;
+    private static final int MAX_INFO_IDS = 100;
+    // Network buffers read ahead of a streaming consumer
+    private static final int STREAM_PREFETCH = 4;
+    private static final int LATENCY_WINDOW_SAMPLES = 1024;
+
+    // Recent fetch latency per hedged kind of call ("listing", "thread")
+    private final Map<String, LatencyWindow> fetchLatency = new ConcurrentHashMap<>();
+
     public List<PostData> scrapeRedditData(AnalysisRequest request) throws Exception {
+        return scrapeRedditBatch(request).toPostDataList();
+    }
+
+    public PostBatch scrapeRedditBatch(AnalysisRequest request) throws Exception {
+        if ("store".equals(request.getSource())) {
+            return readFromStore(request);
+        }
         if ("thread".equals(request.getAnalysisType())) {
             return scrapeThreadData(request);
         } else {
@@ -33,18 +91,13 @@ public class RedditScrapingService {
         }
     }
 
-    private List<PostData> scrapeThreadData(AnalysisRequest request) throws Exception {
-        List<PostData> posts = new ArrayList<>();
-        String cleanUrl = cleanThreadUrl(request.getInput());
-
-        // Extract subreddit and thread ID from URL
-        // Example URL: https://www.reddit.com/r/SpringBoot/comments/1nakb4q/thread-title/
-        String[] parts = cleanUrl.split("/");
-        String subreddit = parts[4]; // r/SpringBoot
-        String threadId = parts[6];  // comments ID
+    private PostBatch scrapeThreadData(AnalysisRequest request) throws Exception {
+        String[] thread = threadPath(request.getInput());
+        String subreddit = thread[0];
+        String threadId = thread[1];
 
-        String apiUrl = String.format("https://oauth.reddit.com/r/%s/comments/%s?raw_json=1", subreddit, threadId);
-        System.out.println("Fetching thread data from (OAuth): " + apiUrl);
+        String apiUrl = String.format("%s/r/%s/comments/%s?raw_json=1", apiBaseUrl, subreddit, threadId);
+        logger.info("Fetching thread data from (OAuth): {}", apiUrl);
 
         int maxRetries = 3;
         int attempt = 0;
@@ -52,20 +105,16 @@ public class RedditScrapingService {
 
         while (attempt < maxRetries) {
             try {
-                String jsonResponse = webClient.get()
-                        .uri(apiUrl)
-                        .header("Authorization", "Bearer " + redditAuthService.getAccessToken())
-                        .header("User-Agent", "PostAnalysisBot/1.0 by u/Shrawann_07")
-                        .retrieve()
-                        .bodyToMono(String.class)
-                        .block();
+                String jsonResponse = fetchJson(apiUrl, "thread");
 
-                return parseThreadJson(jsonResponse);
+                PostBatch batch = pipelineMetrics.time("reddit.parse", () -> parseThreadJson(jsonResponse));
+                postStore.write(subreddit, batch);
+                return batch;
 
             } catch (Exception e) {
                 lastException = e;
                 attempt++;
-                System.err.println("Attempt " + attempt + " failed: " + e.getMessage());
+                logger.warn("Attempt {} failed: {}", attempt, e.getMessage());
                 Thread.sleep(1000 * attempt); // exponential backoff
             }
         }
@@ -81,51 +130,185 @@ public class RedditScrapingService {
         return url;
     }
 
-    private List<PostData> scrapeSubredditData(AnalysisRequest request) throws Exception {
-        List<PostData> allPosts = new ArrayList<>();
+    // Subreddit and thread id of a URL like https://www.reddit.com/r/SpringBoot/comments/1nakb4q/thread-title/
+    private String[] threadPath(String threadUrl) {
+        String[] parts = cleanThreadUrl(threadUrl.trim()).split("/");
+        if (parts.length < 7 || !"r".equals(parts[3]) || !"comments".equals(parts[5])
+                || parts[4].isEmpty() || parts[6].isEmpty()) {
+            throw new IllegalArgumentException("Not a Reddit thread URL: " + threadUrl);
+        }
+        return new String[]{parts[4], parts[6]};
+    }
+
+    private PostBatch scrapeSubredditData(AnalysisRequest request) throws Exception {
+        PostBatch.Builder batch = new PostBatch.Builder();
         String[] sortTypes = {"hot", "top", "new"};
         int postsPerSort = 35;
 
+        String subredditName = extractSubredditName(request.getInput().trim());
         for (String sortType : sortTypes) {
             try {
                 String apiUrl = buildRedditApiUrl(request, sortType, postsPerSort); // proper variable
-                String jsonResponse = webClient.get()
-                        .uri(apiUrl)
-                        .header("Authorization", "Bearer " + redditAuthService.getAccessToken())
-                        .header("User-Agent", "PostAnalysisBot/1.0 by u/Shrawann_07")
-                        .retrieve()
-                        .bodyToMono(String.class)
-                        .block();
-
-                List<PostData> posts = parseRedditJson(jsonResponse);
-                allPosts.addAll(posts);
-
-                Thread.sleep(1000); // prevent rate-limit
+                String jsonResponse = fetchJson(apiUrl, "listing");
+
+                pipelineMetrics.time("reddit.parse", () -> {
+                    parseRedditJson(jsonResponse, batch);
+                    return null;
+                });
             } catch (Exception e) {
-                System.err.println("Error fetching " + sortType + " posts: " + e.getMessage());
+                logger.warn("Error fetching {} posts: {}", sortType, e.getMessage());
             }
         }
 
-        // Remove duplicates
-        List<PostData> uniquePosts = new ArrayList<>();
-        List<String> seenIds = new ArrayList<>();
-        for (PostData post : allPosts) {
-            if (!seenIds.contains(post.getId())) {
-                seenIds.add(post.getId());
-                uniquePosts.add(post);
-            }
+        PostBatch posts = batch.build();
+        postStore.write(subredditName, posts);
+        return posts;
+    }
+
+    /**
+     * Posts newer than the {@code before} fullname in the subreddit's /new listing, newest first.
+     * A null cursor returns the newest page.
+     */
+    public PostBatch fetchNewPosts(String subreddit, String before, int limit) throws Exception {
+        String apiUrl = String.format("%s/r/%s/new?limit=%d&raw_json=1", apiBaseUrl, subreddit, limit);
+        if (before != null) {
+            apiUrl += "&before=" + before;
+        }
+        PostBatch.Builder batch = new PostBatch.Builder();
+        parseRedditJson(fetchJson(apiUrl), batch);
+        PostBatch posts = batch.build();
+        postStore.write(subreddit, posts);
+        return posts;
+    }
+
+    /**
+     * Current state of posts by id, used to pick up score and comment count changes. Sent in
+     * chunks of {@value #MAX_INFO_IDS}, the most /api/info accepts per call.
+     */
+    public PostBatch fetchPostsById(List<String> postIds) throws Exception {
+        PostBatch.Builder batch = new PostBatch.Builder();
+        for (int from = 0; from < postIds.size(); from += MAX_INFO_IDS) {
+            String fullnames = postIds.subList(from, Math.min(from + MAX_INFO_IDS, postIds.size())).stream()
+                    .map(id -> "t3_" + id)
+                    .collect(Collectors.joining(","));
+            parseRedditJson(fetchJson(apiBaseUrl + "/api/info?raw_json=1&id=" + fullnames), batch);
         }
+        return batch.build();
+    }
+
+    /** Raw thread response (post listing then comment listing) as a stream; the caller closes it. */
+    public InputStream openThreadStream(String threadUrl) throws InterruptedException {
+        String[] thread = threadPath(threadUrl);
+        return openJsonStream(String.format("%s/r/%s/comments/%s?raw_json=1", apiBaseUrl, thread[0], thread[1]));
+    }
+
+    /** Raw listing response for one sort order as a stream; the caller closes it. */
+    public InputStream openListingStream(String subreddit, String sortType, int limit) throws InterruptedException {
+        return openJsonStream(String.format("%s/r/%s/%s?limit=%d&raw_json=1", apiBaseUrl, subreddit, sortType, limit));
+    }
+
+    private InputStream openJsonStream(String apiUrl) throws InterruptedException {
+        redditRateLimiter.acquire();
+        String accessToken = redditAuthService.getAccessToken();
+        return new DataBufferInputStream(webClient.get()
+                .uri(apiUrl)
+                .header("Authorization", "Bearer " + accessToken)
+                .header("User-Agent", "PostAnalysisBot/1.0 by u/Shrawann_07")
+                .retrieve()
+                .bodyToFlux(DataBuffer.class), STREAM_PREFETCH);
+    }
+
+    private String fetchJson(String apiUrl) throws InterruptedException {
+        return fetchJson(apiUrl, null);
+    }
+
+    /** {@code hedgeKind} groups fetches with similar latency for hedging; null never hedges. */
+    private String fetchJson(String apiUrl, String hedgeKind) throws InterruptedException {
+        redditRateLimiter.acquire(); // global budget replaces fixed sleeps between calls
+        String accessToken = redditAuthService.getAccessToken();
+        byte[] body = pipelineMetrics.time("reddit.fetch", () -> (hedgeEnabled && hedgeKind != null
+                ? hedged(apiUrl, accessToken, hedgeKind)
+                : get(apiUrl, accessToken)).block());
+        if (body == null) {
+            return null;
+        }
+        pipelineMetrics.count("reddit.response.size", "bytes", body.length);
+        return new String(body, StandardCharsets.UTF_8);
+    }
 
-        return uniquePosts.subList(0, Math.min(uniquePosts.size(), 100));
+    private Mono<byte[]> get(String apiUrl, String accessToken) {
+        return webClient.get()
+                .uri(apiUrl)
+                .header("Authorization", "Bearer " + accessToken)
+                .header("User-Agent", "PostAnalysisBot/1.0 by u/Shrawann_07")
+                .retrieve()
+                .bodyToMono(byte[].class);
+    }
+
+    /**
+     * Sends one duplicate of the request if it has not answered by the configured percentile of
+     * recent latency for its kind, and takes whichever copy answers first. The duplicate only goes
+     * out if the rate budget has a token to spare at that moment, so hedges never wait for tokens
+     * or take them from queued foreground fetches.
+     */
+    private Mono<byte[]> hedged(String apiUrl, String accessToken, String kind) {
+        LatencyWindow latency = fetchLatency.computeIfAbsent(kind, k -> new LatencyWindow(LATENCY_WINDOW_SAMPLES));
+        Mono<Answer> primary = timed(get(apiUrl, accessToken), latency).map(body -> new Answer(body, false));
+        if (latency.size() < hedgeMinSamples) {
+            return primary.map(Answer::body);
+        }
+        Duration delay = Duration.ofNanos(Math.max(latency.percentile(hedgePercentile),
+                TimeUnit.MILLISECONDS.toNanos(hedgeMinDelayMs)));
+        Mono<Answer> hedge = Mono.delay(delay).flatMap(tick -> {
+            if (!redditRateLimiter.tryAcquire()) {
+                pipelineMetrics.count("reddit.hedge.skipped", "requests", 1);
+                return Mono.never();
+            }
+            pipelineMetrics.count("reddit.hedge.sent", "requests", 1);
+            return timed(get(apiUrl, accessToken), latency).map(body -> new Answer(body, true));
+        });
+        // The first signal wins, so a fast failure of the original is not masked by waiting on the hedge
+        return Mono.firstWithSignal(primary, hedge)
+                .doOnNext(answer -> {
+                    if (answer.hedge()) pipelineMetrics.count("reddit.hedge.won", "requests", 1);
+                })
+                .map(Answer::body);
+    }
+
+    // A copy cancelled because the other answered first records how long it had waited, a lower bound
+    private static Mono<byte[]> timed(Mono<byte[]> request, LatencyWindow latency) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request.doFinally(signal -> {
+                if (signal != SignalType.ON_ERROR) latency.record(System.nanoTime() - start);
+            });
+        });
+    }
+
+    private record Answer(byte[] body, boolean hedge) {
+    }
+
+    private PostBatch readFromStore(AnalysisRequest request) {
+        PostBatch batch;
+        if ("thread".equals(request.getAnalysisType())) {
+            String[] thread = threadPath(request.getInput());
+            batch = postStore.readPost(thread[0], thread[1]);
+        } else {
+            batch = postStore.read(extractSubredditName(request.getInput().trim()), MAX_SUBREDDIT_POSTS);
+        }
+        if (batch.size() == 0) {
+            throw new IllegalStateException("No stored posts found for " + request.getInput());
+        }
+        return batch;
     }
 
     private String buildRedditApiUrl(AnalysisRequest request, String sortType, int limit) {
         String subredditName = extractSubredditName(request.getInput().trim());
-        return String.format("https://oauth.reddit.com/r/%s/%s?limit=%d", subredditName, sortType, limit);
+        return String.format("%s/r/%s/%s?limit=%d", apiBaseUrl, subredditName, sortType, limit);
     }
 
 
-    private String extractSubredditName(String input) {
+    public String extractSubredditName(String input) {
         if (input.contains("reddit.com/r/")) {
             String subredditName = input.substring(input.indexOf("/r/") + 3);
             if (subredditName.contains("/")) subredditName = subredditName.substring(0, subredditName.indexOf("/"));
@@ -134,8 +317,8 @@ public class RedditScrapingService {
         else return input;
     }
 
-    private List<PostData> parseThreadJson(String jsonResponse) throws Exception {
-        List<PostData> posts = new ArrayList<>();
+    PostBatch parseThreadJson(String jsonResponse) throws Exception {
+        PostBatch.Builder batch = new PostBatch.Builder();
         JsonNode rootNode = objectMapper.readTree(jsonResponse);
 
         if (rootNode.isArray() && rootNode.size() >= 2) {
@@ -144,80 +327,79 @@ public class RedditScrapingService {
                 JsonNode children = postListing.get("data").get("children");
                 for (JsonNode child : children) {
                     if (child.has("data")) {
-                        PostData mainPost = parsePost(child.get("data"));
+                        int mainPost = addPost(child.get("data"), batch);
                         JsonNode commentsListing = rootNode.get(1);
-                        mainPost.setRealCommentCount(countComments(commentsListing));
-                        posts.add(mainPost);
+                        batch.setCommentCount(mainPost, parseComments(commentsListing, mainPost, batch));
                     }
                 }
             }
         }
-        return posts;
+        return batch.build();
     }
 
-    private List<PostData> parseRedditJson(String jsonResponse) throws Exception {
-        List<PostData> posts = new ArrayList<>();
+    // Duplicates across listings are skipped and only the first MAX_SUBREDDIT_POSTS unique posts are kept
+    void parseRedditJson(String jsonResponse, PostBatch.Builder batch) throws Exception {
         JsonNode rootNode = objectMapper.readTree(jsonResponse);
 
         if (rootNode.isArray()) {
             for (JsonNode node : rootNode) {
                 if (node.has("data") && node.get("data").has("children")) {
-                    posts.addAll(parsePostsFromChildren(node.get("data").get("children")));
+                    parsePostsFromChildren(node.get("data").get("children"), batch);
                 }
             }
         } else if (rootNode.has("data") && rootNode.get("data").has("children")) {
-            posts.addAll(parsePostsFromChildren(rootNode.get("data").get("children")));
+            parsePostsFromChildren(rootNode.get("data").get("children"), batch);
         }
-        return posts;
     }
 
-    private List<PostData> parsePostsFromChildren(JsonNode children) {
-        List<PostData> posts = new ArrayList<>();
+    private void parsePostsFromChildren(JsonNode children, PostBatch.Builder batch) {
         for (JsonNode child : children) {
-            if (child.has("data") && "t3".equals(child.path("kind").asText())) {
-                posts.add(parsePost(child.get("data")));
+            if (batch.size() >= MAX_SUBREDDIT_POSTS) return;
+            if (child.has("data") && "t3".equals(child.path("kind").asText())
+                    && !batch.contains(child.get("data").path("id").asText(""))) {
+                addPost(child.get("data"), batch);
             }
         }
-        return posts;
     }
 
-    private PostData parsePost(JsonNode data) {
-        PostData post = new PostData();
-        post.setId(data.path("id").asText(""));
-        post.setTitle(data.path("title").asText(""));
+    private int addPost(JsonNode data, PostBatch.Builder batch) {
         String content = data.has("selftext") && !data.get("selftext").asText().isEmpty()
                 ? data.get("selftext").asText()
-                : (data.has("url") && !data.get("url").asText().isEmpty()
-                ? (data.get("url").asText().contains("reddit.com") ? "Discussion thread" : "Link post: " + data.get("url").asText())
-                : "Title-only post");
-        post.setContent(content);
-        post.setAuthor(data.path("author").asText("unknown"));
-        post.setUpvotes(data.path("ups").asInt(0));
-        post.setDownvotes(0);
-        if (data.has("created_utc")) {
-            post.setCreatedTime(LocalDateTime.ofInstant(Instant.ofEpochSecond(data.get("created_utc").asLong()), ZoneId.systemDefault()));
-        }
-        post.setRealCommentCount(data.path("num_comments").asInt(0));
-        post.setComments(new ArrayList<>());
-        return post;
-    }
-
-    private int countComments(JsonNode commentsListing) {
+                : PostBatch.placeholderContent(data.path("url").asText(""));
+        long created = data.has("created_utc") ? data.get("created_utc").asLong() : PostBatch.NO_TIMESTAMP;
+        return batch.add(
+                data.path("id").asText(""),
+                data.path("title").asText(""),
+                content,
+                data.path("author").asText("unknown"),
+                data.path("ups").asInt(0),
+                data.path("num_comments").asInt(0),
+                created);
+    }
+
+    private int parseComments(JsonNode commentsListing, int post, PostBatch.Builder batch) {
         int count = 0;
         if (commentsListing.has("data") && commentsListing.get("data").has("children")) {
-            count = countCommentsRecursive(commentsListing.get("data").get("children"));
+            count = parseCommentsRecursive(commentsListing.get("data").get("children"), post, -1, batch.comments());
         }
         return count;
     }
 
-    private int countCommentsRecursive(JsonNode children) {
+    private int parseCommentsRecursive(JsonNode children, int post, int parent, CommentBatch.Builder comments) {
         int count = 0;
         for (JsonNode child : children) {
             if ("t1".equals(child.path("kind").asText())) {
                 count++;
-                JsonNode replies = child.path("data").path("replies");
+                JsonNode data = child.path("data");
+                int comment = comments.add(post, parent,
+                        data.path("id").asText(""),
+                        data.path("body").asText(""),
+                        data.path("author").asText("unknown"),
+                        data.path("ups").asInt(0),
+                        data.has("created_utc") ? data.get("created_utc").asLong() : PostBatch.NO_TIMESTAMP);
+                JsonNode replies = data.path("replies");
                 if (!replies.isMissingNode() && replies.has("data") && replies.get("data").has("children")) {
-                    count += countCommentsRecursive(replies.get("data").get("children"));
+                    count += parseCommentsRecursive(replies.get("data").get("children"), post, comment, comments);
                 }
             }
         }
@@ -0,0 +1,185 @@
+package com.reddit.analysis.service;
+
+import com.reddit.analysis.capture.UpstreamCaptureFilter;
+import com.reddit.analysis.metrics.PipelineMetrics;
+import com.reddit.analysis.model.AnalysisRequest;
+import com.reddit.analysis.util.Hashing;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Keeps the most requested analyses warm by re-running them shortly before their cache entries
+ * expire. Refreshes draw from their own slice of the Reddit rate budget and of the Gemini
+ * concurrency limit, so foreground requests keep the rest, and both the tick interval and each
+ * key's refresh point are jittered so replicas and hot keys do not refresh in lockstep.
+ */
+@Component
+public class RefreshAheadScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshAheadScheduler.class);
+
+    // Listing calls per subreddit scrape (hot/top/new); a thread is one call
+    private static final int SUBREDDIT_FETCHES = 3;
+
+    @Autowired
+    private RedditAnalysisService redditAnalysisService;
+
+    @Autowired
+    private AnalysisCache analysisCache;
+
+    @Autowired
+    private RedditRateLimiter redditRateLimiter;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private UpstreamCaptureFilter upstreamCapture;
+
+    @Value("${refresh-ahead.enabled:true}")
+    private boolean enabled;
+
+    @Value("${refresh-ahead.tick-ms:15000}")
+    private long tickMs;
+
+    @Value("${refresh-ahead.jitter-ms:5000}")
+    private long jitterMs;
+
+    @Value("${refresh-ahead.lead-seconds:60}")
+    private long leadSeconds;
+
+    @Value("${refresh-ahead.max-keys:20}")
+    private int maxKeys;
+
+    @Value("${refresh-ahead.min-score:3}")
+    private double minScore;
+
+    @Value("${refresh-ahead.max-concurrent:2}")
+    private int maxConcurrent;
+
+    @Value("${refresh-ahead.reddit-share:0.2}")
+    private double redditShare;
+
+    @Value("${refresh-ahead.gemini-share:0.25}")
+    private double geminiShare;
+
+    @Value("${reddit.rate-limit.requests-per-minute:90}")
+    private int redditRequestsPerMinute;
+
+    @Value("${reddit.rate-limit.burst:10}")
+    private int redditBurst;
+
+    @Value("${gemini.max-concurrency:4}")
+    private int geminiMaxConcurrency;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService refreshers;
+    private RedditRateLimiter redditBudget;
+    private Semaphore geminiPermits;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        redditBudget = new RedditRateLimiter(
+                Math.max(1, (int) Math.round(redditRequestsPerMinute * redditShare)),
+                Math.max(SUBREDDIT_FETCHES, (int) Math.round(redditBurst * redditShare)),
+                upstreamCapture);
+        geminiPermits = new Semaphore(Math.max(1, (int) Math.round(geminiMaxConcurrency * geminiShare)));
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemon("refresh-ahead-scheduler"));
+        refreshers = Executors.newFixedThreadPool(maxConcurrent, daemon("refresh-ahead"));
+        scheduleNextTick();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+        if (refreshers != null) refreshers.shutdownNow();
+    }
+
+    private void scheduleNextTick() {
+        long delay = tickMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(-jitterMs, jitterMs + 1) : 0);
+        scheduler.schedule(this::tick, Math.max(1000, delay), TimeUnit.MILLISECONDS);
+    }
+
+    void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            for (AnalysisCache.PopularKey popular : analysisCache.popular(maxKeys, minScore)) {
+                if (inFlight.contains(popular.key()) || !isDue(popular.key(), now)) continue;
+                int fetches = fetches(popular.request());
+                if (!hasBudget(popular.request(), fetches)) {
+                    pipelineMetrics.count("refresh.ahead.skipped", "refreshes", 1);
+                    continue; // a cheaper key (a thread is one fetch) may still fit
+                }
+                // Another replica is refreshing it; its result reaches this one through the shared cache
+                if (!analysisCache.claimRefresh(popular.key(), leadSeconds * 1000)) continue;
+                reserveBudget(popular.request(), fetches);
+                inFlight.add(popular.key());
+                refreshers.execute(() -> refresh(popular));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Refresh-ahead tick failed: {}", e.getMessage());
+        } finally {
+            if (!scheduler.isShutdown()) scheduleNextTick();
+        }
+    }
+
+    // Due within the lead window before expiry, pulled earlier by up to one jitter interval per key
+    private boolean isDue(String key, long now) {
+        AnalysisCache.Entry entry = analysisCache.get(key);
+        if (entry == null) return true;
+        long jitter = jitterMs > 0 ? Math.floorMod(Hashing.mix64(Hashing.hash64(key) ^ entry.expiresAtMillis()), jitterMs) : 0;
+        return now >= entry.expiresAtMillis() - leadSeconds * 1000 - jitter;
+    }
+
+    private static int fetches(AnalysisRequest request) {
+        return "store".equals(request.getSource()) ? 0
+                : "thread".equals(request.getAnalysisType()) ? 1 : SUBREDDIT_FETCHES;
+    }
+
+    private boolean hasBudget(AnalysisRequest request, int fetches) {
+        // Leave the shared bucket alone while foreground traffic is draining it
+        if (redditRateLimiter.availablePermits() < fetches + 1) return false;
+        if (request.isIncludeLlm() && geminiPermits.availablePermits() == 0) return false;
+        return redditBudget.availablePermits() >= fetches;
+    }
+
+    // Only the tick thread takes from the background budget, so what hasBudget saw is still there
+    private void reserveBudget(AnalysisRequest request, int fetches) {
+        if (request.isIncludeLlm()) geminiPermits.acquireUninterruptibly();
+        if (fetches > 0) redditBudget.tryAcquire(fetches);
+    }
+
+    private void refresh(AnalysisCache.PopularKey popular) {
+        AnalysisRequest request = popular.request();
+        try {
+            pipelineMetrics.time("refresh.ahead", () -> {
+                redditAnalysisService.refresh(request);
+                return null;
+            });
+            logger.debug("Refreshed {} (score {})", popular.key(), String.format("%.1f", popular.score()));
+        } catch (Exception e) {
+            logger.warn("Refresh-ahead of {} failed: {}", popular.key(), e.getMessage());
+        } finally {
+            if (request.isIncludeLlm()) geminiPermits.release();
+            inFlight.remove(popular.key());
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,215 @@
+package com.reddit.analysis.service;
+
+import com.reddit.analysis.metrics.PipelineMetrics;
+import com.reddit.analysis.model.CommentBatch;
+import com.reddit.analysis.model.PostBatch;
+import com.reddit.analysis.model.SearchHit;
+import com.reddit.analysis.model.SearchResponse;
+import com.reddit.analysis.search.InvertedIndex;
+import com.reddit.analysis.search.SearchQuery;
+import com.reddit.analysis.store.PostStore;
+import com.reddit.analysis.store.PostWriteListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Keyword search over everything scraped. Every batch written to the {@link PostStore} is added to
+ * an {@link InvertedIndex}, which is saved periodically and loaded (or rebuilt from the store when
+ * there is no saved copy) when the service is first used: a search or the first store write, which
+ * keeps loading the index off the startup path. Hits are filled in from the store.
+ */
+@Service
+@Lazy
+public class SearchService implements PostWriteListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    private static final int SNIPPET_CHARS = 200;
+
+    @Autowired
+    private PostStore postStore;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Value("${search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.path:data/search/index.bin}")
+    private String indexPath;
+
+    @Value("${search.max-limit:100}")
+    private int maxLimit;
+
+    // Superseded documents are dropped from the index before saving once they hold this share of ids
+    @Value("${search.compact-retired-ratio:0.2}")
+    private double compactRetiredRatio;
+
+    private volatile InvertedIndex index = new InvertedIndex();
+    private volatile boolean dirty;
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) return;
+        Path file = Paths.get(indexPath);
+        long start = System.nanoTime();
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                index = InvertedIndex.readFrom(in);
+            } catch (IOException e) {
+                logger.warn("Could not load search index from {}, rebuilding: {}", file, e.getMessage());
+                index = new InvertedIndex();
+                rebuildFromStore();
+            }
+        } else {
+            rebuildFromStore();
+        }
+        logger.info("Search index ready with {} documents and {} terms ({} KB of postings) in {} ms",
+                index.documentCount(), index.termCount(), index.postingsBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void rebuildFromStore() {
+        for (String subreddit : postStore.subreddits()) {
+            addBatch(subreddit, postStore.read(subreddit, Integer.MAX_VALUE));
+        }
+    }
+
+    @Override
+    public void onWrite(String subreddit, PostBatch batch) {
+        if (!enabled) return;
+        pipelineMetrics.time("search.index", () -> {
+            addBatch(subreddit, batch);
+            return null;
+        });
+    }
+
+    private void addBatch(String subreddit, PostBatch batch) {
+        boolean changed = false;
+        for (int i = 0; i < batch.size(); i++) {
+            changed |= index.add(subreddit, batch.id(i), null, batch.title(i), batch.content(i));
+        }
+        CommentBatch comments = batch.comments();
+        for (int i = 0; i < comments.size(); i++) {
+            changed |= index.add(subreddit, batch.id(comments.postIndex(i)), comments.id(i), comments.content(i));
+        }
+        if (changed) dirty = true;
+    }
+
+    public SearchResponse search(String queryText, String subreddit, int offset, int limit) {
+        if (!enabled) throw new IllegalStateException("Search is disabled");
+        if (offset < 0 || limit < 1) throw new IllegalArgumentException("offset must be >= 0 and limit >= 1");
+        SearchQuery query = SearchQuery.parse(queryText);
+        String only = subreddit == null || subreddit.isBlank() ? null : subreddit.trim().replaceFirst("^r/", "");
+
+        long start = System.nanoTime();
+        InvertedIndex.Result result = pipelineMetrics.time("search.query",
+                () -> index.search(query, only, offset, Math.min(limit, maxLimit)));
+        List<SearchHit> hits = pipelineMetrics.time("search.hits", () -> toHits(result.hits(), query.positiveTerms()));
+
+        SearchResponse response = new SearchResponse();
+        response.setQuery(query.text());
+        response.setSubreddit(only);
+        response.setTotalHits(result.total());
+        response.setOffset(offset);
+        response.setHits(hits);
+        response.setTookMillis((System.nanoTime() - start) / 1_000_000.0);
+        return response;
+    }
+
+    // One store read per post, shared by that post's matching comments
+    private List<SearchHit> toHits(List<InvertedIndex.DocRef> refs, List<String> terms) {
+        Map<String, PostBatch> posts = new HashMap<>();
+        List<SearchHit> hits = new ArrayList<>(refs.size());
+        for (InvertedIndex.DocRef ref : refs) {
+            PostBatch post = posts.computeIfAbsent(ref.subreddit() + "/" + ref.postId(),
+                    k -> postStore.readPost(ref.subreddit(), ref.postId()));
+            SearchHit hit = new SearchHit();
+            hit.setType(ref.commentId() == null ? "post" : "comment");
+            hit.setSubreddit(ref.subreddit());
+            hit.setPostId(ref.postId());
+            hit.setCommentId(ref.commentId());
+            hit.setPermalink("https://www.reddit.com/r/" + ref.subreddit() + "/comments/" + ref.postId() + "/"
+                    + (ref.commentId() == null ? "" : "_/" + ref.commentId() + "/"));
+            if (post.size() > 0) {
+                hit.setTitle(post.title(0));
+                if (ref.commentId() == null) {
+                    hit.setSnippet(snippet(post.content(0).isEmpty() ? post.title(0) : post.content(0), terms));
+                    hit.setAuthor(post.author(0));
+                    hit.setUpvotes(post.upvotes(0));
+                } else {
+                    CommentBatch comments = post.comments();
+                    for (int i = 0; i < comments.size(); i++) {
+                        if (comments.id(i).equals(ref.commentId())) {
+                            hit.setSnippet(snippet(comments.content(i), terms));
+                            hit.setAuthor(comments.author(i));
+                            hit.setUpvotes(comments.upvotes(i));
+                            break;
+                        }
+                    }
+                }
+            }
+            hits.add(hit);
+        }
+        return hits;
+    }
+
+    // Text around the earliest query word, falling back to the start of the text
+    private static String snippet(String text, List<String> terms) {
+        if (text.length() <= SNIPPET_CHARS) return text;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int first = -1;
+        for (String term : terms) {
+            int at = lower.indexOf(term);
+            if (at >= 0 && (first < 0 || at < first)) first = at;
+        }
+        int start = Math.max(0, Math.min(first < 0 ? 0 : first - SNIPPET_CHARS / 4, text.length() - SNIPPET_CHARS));
+        int end = Math.min(text.length(), start + SNIPPET_CHARS);
+        return (start > 0 ? "..." : "") + text.substring(start, end) + (end < text.length() ? "..." : "");
+    }
+
+    @Scheduled(fixedDelayString = "${search.persist-interval-ms:60000}")
+    public void persist() {
+        if (!enabled || !dirty) return;
+        dirty = false;
+        Path file = Paths.get(indexPath);
+        try {
+            if (index.retiredRatio() >= compactRetiredRatio) {
+                pipelineMetrics.time("search.compact", () -> {
+                    index.compact();
+                    return null;
+                });
+            }
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                index.writeTo(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            logger.error("Failed to save search index to {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        persist();
+    }
+}
@@ -0,0 +1,166 @@
+package com.reddit.analysis.service;
+
+import com.reddit.analysis.exception.TooManyRequestsException;
+import com.reddit.analysis.model.WatchUpdate;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Live subreddit watches. All subscribers of a subreddit share one poller that refreshes
+ * the watch's own incremental window (through the global Reddit rate limiter) and pushes the
+ * resulting delta to every subscriber as a server-sent event. A new subscriber gets a snapshot
+ * first, sent under the same lock as the polls, and only then joins the delta fan-out, so every
+ * delta it sees is relative to that snapshot. Lazy: created with the first watch.
+ */
+@Service
+@Lazy
+public class SubredditWatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubredditWatchService.class);
+
+    @Autowired
+    private IncrementalAnalysisService incrementalAnalysisService;
+
+    @Value("${watch.poll-interval-ms:30000}")
+    private long pollIntervalMs;
+
+    @Value("${watch.max-subscribers-per-subreddit:200}")
+    private int maxSubscribers;
+
+    private final ScheduledExecutorService pollers = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "subreddit-watch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(String subreddit) {
+        String key = subreddit.toLowerCase(Locale.ROOT);
+        SseEmitter emitter = new SseEmitter(0L); // held open until the client disconnects
+
+        // The slot is reserved now and taken once the snapshot is out; the watch stays up meanwhile
+        Watch watch = watches.compute(key, (k, existing) -> {
+            Watch w = existing != null ? existing
+                    : new Watch(key, subreddit, incrementalAnalysisService.newWatchState(subreddit));
+            if (w.subscribers.size() + w.joining >= maxSubscribers) {
+                throw new TooManyRequestsException("Too many watchers for r/" + subreddit + ", please retry later",
+                        Math.max(1, TimeUnit.MILLISECONDS.toSeconds(pollIntervalMs)));
+            }
+            w.joining++;
+            if (w.poller == null) {
+                w.poller = pollers.scheduleWithFixedDelay(() -> poll(w), pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+                logger.info("Started watch poller for r/{}", subreddit);
+            }
+            return w;
+        });
+
+        emitter.onCompletion(() -> unsubscribe(key, emitter));
+        emitter.onTimeout(() -> unsubscribe(key, emitter));
+        emitter.onError(e -> unsubscribe(key, emitter));
+
+        pollers.execute(() -> join(watch, emitter));
+        return emitter;
+    }
+
+    // New subscribers get the current aggregates as a baseline for the deltas that follow
+    private void join(Watch watch, SseEmitter emitter) {
+        synchronized (watch) {
+            boolean sent;
+            try {
+                emitter.send(SseEmitter.event().name("snapshot").data(incrementalAnalysisService.snapshot(watch.state)));
+                sent = true;
+            } catch (Exception e) {
+                logger.warn("Failed to send watch snapshot for r/{}: {}", watch.subreddit, e.getMessage());
+                emitter.completeWithError(e);
+                sent = false;
+            }
+            boolean joined = sent;
+            watches.computeIfPresent(watch.key, (k, w) -> {
+                w.joining--;
+                if (joined) {
+                    w.subscribers.add(emitter);
+                }
+                return stopIfIdle(w);
+            });
+        }
+    }
+
+    public int subscriberCount(String subreddit) {
+        Watch watch = watches.get(subreddit.toLowerCase(Locale.ROOT));
+        return watch != null ? watch.subscribers.size() : 0;
+    }
+
+    private void poll(Watch watch) {
+        synchronized (watch) {
+            try {
+                WatchUpdate update = incrementalAnalysisService.refreshUpdate(watch.state);
+                if (update == null) return;
+                for (SseEmitter emitter : watch.subscribers) {
+                    send(watch, emitter, "delta", update);
+                }
+            } catch (Exception e) {
+                logger.warn("Watch poll failed for r/{}: {}", watch.subreddit, e.getMessage());
+            }
+        }
+    }
+
+    private void send(Watch watch, SseEmitter emitter, String event, WatchUpdate update) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(update));
+        } catch (IOException | IllegalStateException e) {
+            // Cancels the poller too when this was the last subscriber
+            unsubscribe(watch.key, emitter);
+        }
+    }
+
+    private void unsubscribe(String key, SseEmitter emitter) {
+        watches.computeIfPresent(key, (k, watch) -> {
+            watch.subscribers.remove(emitter);
+            return stopIfIdle(watch);
+        });
+    }
+
+    // Called inside the map's compute for the key, which guards joining and the poller
+    private Watch stopIfIdle(Watch watch) {
+        if (!watch.subscribers.isEmpty() || watch.joining > 0) {
+            return watch;
+        }
+        watch.poller.cancel(false);
+        logger.info("Stopped watch poller for r/{}", watch.subreddit);
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollers.shutdownNow();
+        watches.values().forEach(watch -> watch.subscribers.forEach(SseEmitter::complete));
+    }
+
+    private static final class Watch {
+        private final String key;
+        private final String subreddit;
+        private final IncrementalAnalysisService.SubredditState state;
+        private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+        private int joining; // subscribers waiting for their snapshot
+        private ScheduledFuture<?> poller;
+
+        private Watch(String key, String subreddit, IncrementalAnalysisService.SubredditState state) {
+            this.key = key;
+            this.subreddit = subreddit;
+            this.state = state;
+        }
+    }
+}
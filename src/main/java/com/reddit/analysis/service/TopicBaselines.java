@@ -0,0 +1,151 @@
+package com.reddit.analysis.service;
+
+import com.reddit.analysis.model.PostBatch;
+import com.reddit.analysis.store.PostStore;
+import com.reddit.analysis.store.PostWriteListener;
+import com.reddit.analysis.text.DocumentFrequencies;
+import com.reddit.analysis.text.Tokenizer;
+import com.reddit.analysis.util.Hashing;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Document frequencies of post terms per subreddit and across all subreddits, the background that
+ * topic extraction scores a batch against. Fed from every post store write (each post counted
+ * once), saved periodically under {@code topics.path} and reloaded, or rebuilt from the store.
+ */
+@Component
+public class TopicBaselines implements PostWriteListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicBaselines.class);
+
+    private static final String GLOBAL_FILE = "global.df";
+    private static final String SUBREDDIT_PREFIX = "r-";
+    private static final String SUFFIX = ".df";
+    // Words of three letters or fewer are never topics, so they are not counted
+    private static final int MIN_TERM_LENGTH = 4;
+
+    @Autowired
+    private PostStore postStore;
+
+    @Value("${topics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${topics.path:data/topics}")
+    private String path;
+
+    // A baseline with fewer posts is too noisy; the global one (or raw counts) is used instead
+    @Value("${topics.min-background-docs:200}")
+    private int minBackgroundDocs;
+
+    private final Map<String, DocumentFrequencies> bySubreddit = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private volatile DocumentFrequencies global = new DocumentFrequencies();
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) return;
+        Path directory = Paths.get(path);
+        Files.createDirectories(directory);
+        Path globalFile = directory.resolve(GLOBAL_FILE);
+        if (!Files.exists(globalFile)) {
+            for (String subreddit : postStore.subreddits()) {
+                onWrite(subreddit, postStore.read(subreddit, Integer.MAX_VALUE));
+            }
+            logger.info("Topic baselines rebuilt from the post store: {} posts in {} subreddits",
+                    global.documentCount(), bySubreddit.size());
+            return;
+        }
+        global = read(globalFile);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SUBREDDIT_PREFIX) && name.endsWith(SUFFIX)) {
+                    bySubreddit.put(name.substring(SUBREDDIT_PREFIX.length(), name.length() - SUFFIX.length()), read(file));
+                }
+            }
+        }
+        logger.info("Topic baselines loaded: {} posts, {} terms, {} subreddits",
+                global.documentCount(), global.termCount(), bySubreddit.size());
+    }
+
+    @Override
+    public void onWrite(String subreddit, PostBatch batch) {
+        if (!enabled) return;
+        String key = subreddit.toLowerCase(Locale.ROOT);
+        DocumentFrequencies local = bySubreddit.computeIfAbsent(key, k -> new DocumentFrequencies());
+        long[] terms = new long[256];
+        String text = batch.text();
+        for (int i = 0; i < batch.size(); i++) {
+            long[][] buffer = {terms};
+            int[] count = {0};
+            Tokenizer.forEachToken(text, batch.titleStart(i), batch.contentEnd(i), word -> {
+                if (word.length() < MIN_TERM_LENGTH) return;
+                if (count[0] == buffer[0].length) buffer[0] = Arrays.copyOf(buffer[0], count[0] * 2);
+                buffer[0][count[0]++] = Hashing.hash64(word);
+            });
+            terms = buffer[0];
+            long document = Hashing.hash64(batch.id(i));
+            if (local.addDocument(document, terms, count[0])) dirty.add(key);
+            if (global.addDocument(document, terms, count[0])) dirty.add("");
+        }
+    }
+
+    /** The subreddit's baseline once it is large enough, else the global one, else null. */
+    public DocumentFrequencies background(String subreddit) {
+        if (!enabled) return null;
+        DocumentFrequencies local = subreddit == null ? null : bySubreddit.get(subreddit.toLowerCase(Locale.ROOT));
+        if (local != null && local.documentCount() >= minBackgroundDocs) return local;
+        return global.documentCount() >= minBackgroundDocs ? global : null;
+    }
+
+    @Scheduled(fixedDelayString = "${topics.persist-interval-ms:60000}")
+    public void persist() {
+        if (!enabled) return;
+        Path directory = Paths.get(path);
+        for (String key : new ArrayList<>(dirty)) {
+            dirty.remove(key);
+            Path file = directory.resolve(key.isEmpty() ? GLOBAL_FILE : SUBREDDIT_PREFIX + key + SUFFIX);
+            try {
+                write(file, key.isEmpty() ? global : bySubreddit.get(key));
+            } catch (IOException e) {
+                dirty.add(key);
+                logger.error("Failed to save topic baseline {}", file, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        persist();
+    }
+
+    private static DocumentFrequencies read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return DocumentFrequencies.readFrom(in);
+        }
+    }
+
+    private static void write(Path file, DocumentFrequencies table) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            table.writeTo(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,71 @@
+package com.reddit.analysis.stats;
+
+import com.reddit.analysis.util.Hashing;
+
+/**
+ * Fixed-size cardinality estimator. Two sketches with the same precision can be
+ * merged by taking the register-wise maximum.
+ */
+public class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 12; // 4096 registers, ~1.6% standard error
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between 4 and 18");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public void offer(CharSequence value) {
+        offerHash(Hashing.hash64(value));
+    }
+
+    public void offerHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // The sentinel bit caps the rank at 64 - precision + 1
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+
+        // Small-range correction: linear counting is far more accurate while registers are sparse
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog sketches of different precision");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+}
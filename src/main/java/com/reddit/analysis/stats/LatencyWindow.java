@@ -0,0 +1,49 @@
+package com.reddit.analysis.stats;
+
+import java.util.Arrays;
+
+/**
+ * Percentiles over the most recent latency samples, kept in a fixed-size ring. Percentiles are
+ * recomputed from a sorted copy at most once per {@code capacity / 16} new samples, so reading
+ * one on every request stays cheap.
+ */
+public class LatencyWindow {
+
+    private final long[] samples;
+    private final int recomputeEvery;
+    private int next;
+    private int size;
+    private int sinceSorted;
+    private long[] sorted = new long[0];
+
+    public LatencyWindow(int capacity) {
+        if (capacity < 16) {
+            throw new IllegalArgumentException("LatencyWindow needs room for at least 16 samples");
+        }
+        this.samples = new long[capacity];
+        this.recomputeEvery = capacity / 16;
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) size++;
+        sinceSorted++;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Nearest-rank percentile ({@code 0 < percentile <= 100}) in nanoseconds, or -1 with no samples. */
+    public synchronized long percentile(double percentile) {
+        if (size == 0) return -1;
+        if (sorted.length != size || sinceSorted >= recomputeEvery) {
+            sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            sinceSorted = 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * size);
+        return sorted[Math.min(size, Math.max(1, rank)) - 1];
+    }
+}
@@ -0,0 +1,135 @@
+package com.reddit.analysis.stats;
+
+import com.reddit.analysis.model.PostBatch;
+
+import java.util.*;
+
+/**
+ * Ring buffer of fixed-width time buckets holding sentiment counts and keyword counters.
+ * The window is anchored at the newest event seen; advancing it evicts the oldest buckets
+ * and subtracts them from the running window totals, so each event costs O(1) plus one
+ * counter update per distinct keyword it carries.
+ */
+public class SlidingWindowAggregator {
+
+    private final long bucketSeconds;
+    private final int bucketCount;
+    private final long[] bucketIndexes;
+    private final int[][] sentimentCounts;
+    private final List<Map<String, Integer>> keywordCounts;
+
+    private final int[] windowSentiment = new int[4];
+    private final Map<String, Integer> windowKeywords = new HashMap<>();
+    private long headIndex = Long.MIN_VALUE;
+
+    public SlidingWindowAggregator(long bucketSeconds, int bucketCount) {
+        this.bucketSeconds = bucketSeconds;
+        this.bucketCount = bucketCount;
+        this.bucketIndexes = new long[bucketCount];
+        this.sentimentCounts = new int[bucketCount][4];
+        this.keywordCounts = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            keywordCounts.add(new HashMap<>());
+        }
+        Arrays.fill(bucketIndexes, Long.MIN_VALUE);
+    }
+
+    /** Adds one post or comment; events older than the window are ignored. */
+    public void add(long epochSeconds, byte sentiment, Map<String, Integer> keywords) {
+        if (epochSeconds == PostBatch.NO_TIMESTAMP) return;
+        long index = Math.floorDiv(epochSeconds, bucketSeconds);
+        if (headIndex != Long.MIN_VALUE && index <= headIndex - bucketCount) return;
+        if (index > headIndex) {
+            advance(index);
+        }
+
+        int slot = (int) Math.floorMod(index, (long) bucketCount);
+        if (bucketIndexes[slot] != index) {
+            evict(slot);
+            bucketIndexes[slot] = index;
+        }
+        sentimentCounts[slot][sentiment]++;
+        windowSentiment[sentiment]++;
+        Map<String, Integer> bucketKeywords = keywordCounts.get(slot);
+        keywords.forEach((word, count) -> {
+            bucketKeywords.merge(word, count, Integer::sum);
+            windowKeywords.merge(word, count, Integer::sum);
+        });
+    }
+
+    // Slots between the old and new head held buckets that have now left the window
+    private void advance(long newHead) {
+        if (headIndex != Long.MIN_VALUE) {
+            long steps = Math.min(newHead - headIndex, bucketCount);
+            for (long k = 1; k <= steps; k++) {
+                int slot = (int) Math.floorMod(headIndex + k, (long) bucketCount);
+                if (bucketIndexes[slot] != Long.MIN_VALUE && bucketIndexes[slot] <= newHead - bucketCount) {
+                    evict(slot);
+                    bucketIndexes[slot] = Long.MIN_VALUE;
+                }
+            }
+        }
+        headIndex = newHead;
+    }
+
+    private void evict(int slot) {
+        int[] counts = sentimentCounts[slot];
+        for (int s = 0; s < counts.length; s++) {
+            windowSentiment[s] -= counts[s];
+            counts[s] = 0;
+        }
+        keywordCounts.get(slot).forEach((word, count) ->
+                windowKeywords.computeIfPresent(word, (w, total) -> total - count == 0 ? null : total - count));
+        keywordCounts.get(slot).clear();
+    }
+
+    public long getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    /** Buckets from oldest to newest, skipping slots that are empty or fell out of the window. */
+    public List<Bucket> buckets() {
+        List<Bucket> result = new ArrayList<>();
+        if (headIndex == Long.MIN_VALUE) return result;
+        for (long index = headIndex - bucketCount + 1; index <= headIndex; index++) {
+            int slot = (int) Math.floorMod(index, (long) bucketCount);
+            if (bucketIndexes[slot] != index) continue;
+            result.add(new Bucket(index * bucketSeconds, sentimentCounts[slot].clone(), keywordCounts.get(slot)));
+        }
+        return result;
+    }
+
+    /** Sentiment counts over the window; always the sum of {@link #buckets()}. */
+    public int[] windowSentiment() {
+        return windowSentiment.clone();
+    }
+
+    /** Keyword counts over the window; always the sum of {@link #buckets()}, with no zero entries. */
+    public Map<String, Integer> windowKeywords() {
+        return Collections.unmodifiableMap(windowKeywords);
+    }
+
+    public static final class Bucket {
+        private final long startEpochSeconds;
+        private final int[] sentimentCounts;
+        private final Map<String, Integer> keywordCounts;
+
+        private Bucket(long startEpochSeconds, int[] sentimentCounts, Map<String, Integer> keywordCounts) {
+            this.startEpochSeconds = startEpochSeconds;
+            this.sentimentCounts = sentimentCounts;
+            this.keywordCounts = keywordCounts;
+        }
+
+        public long getStartEpochSeconds() {
+            return startEpochSeconds;
+        }
+
+        public int getSentimentCount(byte sentiment) {
+            return sentimentCounts[sentiment];
+        }
+
+        public Map<String, Integer> getKeywordCounts() {
+            return Collections.unmodifiableMap(keywordCounts);
+        }
+    }
+}
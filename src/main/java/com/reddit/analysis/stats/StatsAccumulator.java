@@ -0,0 +1,119 @@
+package com.reddit.analysis.stats;
+
+import com.reddit.analysis.model.AnalysisStats;
+import com.reddit.analysis.model.CommentData;
+import com.reddit.analysis.model.PostData;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Single-pass, mergeable accumulator behind {@link AnalysisStats}. Memory stays constant
+ * regardless of how many posts and comments are fed in, so partial results from parallel
+ * partitions or successive crawl pages can be combined with {@link #merge}.
+ * {@code totalUsers} counts distinct post authors, exactly up to {@link #EXACT_AUTHOR_LIMIT} and
+ * estimated beyond; comment authors only feed {@code mostActiveUser}.
+ */
+public class StatsAccumulator {
+
+    static final int EXACT_AUTHOR_LIMIT = 4096;
+
+    private long totalPosts;
+    private long totalComments;
+    private long upvoteSum;
+    private int maxUpvotes = Integer.MIN_VALUE;
+    private String mostUpvotedPost;
+
+    private final HyperLogLog uniqueAuthors = new HyperLogLog();
+    // Dropped (null) once it outgrows the limit; the sketch takes over from there
+    private Set<String> exactAuthors = new HashSet<>();
+    private final TopKSketch activeAuthors = new TopKSketch();
+
+    public void addPost(PostData post) {
+        addPost(post.getTitle(), post.getAuthor(), post.getUpvotes(), post.getRealCommentCount());
+        addComments(post.getComments());
+    }
+
+    public void addPost(String title, String author, int upvotes, int commentCount) {
+        totalPosts++;
+        totalComments += commentCount;
+        upvoteSum += upvotes;
+        if (upvotes > maxUpvotes) {
+            maxUpvotes = upvotes;
+            mostUpvotedPost = title;
+        }
+        if (author == null || "unknown".equals(author)) return;
+        uniqueAuthors.offer(author);
+        if (exactAuthors != null && exactAuthors.add(author) && exactAuthors.size() > EXACT_AUTHOR_LIMIT) {
+            exactAuthors = null;
+        }
+        activeAuthors.offer(author);
+    }
+
+    public void addComment(CommentData comment) {
+        addCommentAuthor(comment.getAuthor());
+        addComments(comment.getReplies());
+    }
+
+    // Comment counts come from the post's realCommentCount; parsed comments only contribute authors
+    public void addCommentAuthor(String author) {
+        if (author == null || "unknown".equals(author)) return;
+        activeAuthors.offer(author);
+    }
+
+    private void addComments(List<CommentData> comments) {
+        if (comments == null) return;
+        for (CommentData comment : comments) {
+            addComment(comment);
+        }
+    }
+
+    public StatsAccumulator merge(StatsAccumulator other) {
+        totalPosts += other.totalPosts;
+        totalComments += other.totalComments;
+        upvoteSum += other.upvoteSum;
+        // Strictly greater keeps the earlier partition's post on ties, matching a sequential scan
+        if (other.maxUpvotes > maxUpvotes) {
+            maxUpvotes = other.maxUpvotes;
+            mostUpvotedPost = other.mostUpvotedPost;
+        }
+        uniqueAuthors.merge(other.uniqueAuthors);
+        if (exactAuthors != null && other.exactAuthors != null) {
+            exactAuthors.addAll(other.exactAuthors);
+            if (exactAuthors.size() > EXACT_AUTHOR_LIMIT) exactAuthors = null;
+        } else {
+            exactAuthors = null;
+        }
+        activeAuthors.merge(other.activeAuthors);
+        return this;
+    }
+
+    public AnalysisStats toStats() {
+        AnalysisStats stats = new AnalysisStats();
+        stats.setTotalPosts((int) totalPosts);
+        stats.setTotalComments((int) totalComments);
+        stats.setTotalUsers(exactAuthors != null ? exactAuthors.size() : (int) uniqueAuthors.estimate());
+        stats.setMostActiveUser(activeAuthors.top());
+        stats.setMostUpvotedPost(mostUpvotedPost);
+        double averageUpvotes = totalPosts == 0 ? 0.0 : (double) upvoteSum / totalPosts;
+        stats.setAverageScore(Math.round(averageUpvotes * 10.0) / 10.0);
+        return stats;
+    }
+
+    public long getTotalPosts() {
+        return totalPosts;
+    }
+
+    public long getTotalComments() {
+        return totalComments;
+    }
+
+    public long getUpvoteSum() {
+        return upvoteSum;
+    }
+
+    public int getMaxUpvotes() {
+        return maxUpvotes;
+    }
+}
@@ -0,0 +1,131 @@
+package com.reddit.analysis.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy hitters summary. Tracks at most {@code capacity} keys; when full,
+ * a new key evicts the current minimum and inherits its count as the error bound.
+ */
+public class TopKSketch {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+
+    public TopKSketch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TopKSketch(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(String key) {
+        offer(key, 1);
+    }
+
+    public void offer(String key, long increment) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += increment;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(key, increment, 0));
+            return;
+        }
+        Counter min = minCounter();
+        counters.remove(min.key);
+        counters.put(key, new Counter(key, min.count + increment, min.count));
+    }
+
+    /**
+     * Folds in another sketch. A key tracked by only one side may still have occurred up to the
+     * other side's minimum count there, so that minimum is added to its count and its error, as the
+     * Space-Saving merge requires for the bounds to hold.
+     */
+    public void merge(TopKSketch other) {
+        long ourMin = minCount();
+        long theirMin = other.minCount();
+        for (Counter ours : counters.values()) {
+            if (!other.counters.containsKey(ours.key)) {
+                ours.count += theirMin;
+                ours.error += theirMin;
+            }
+        }
+        for (Counter theirs : other.counters.values()) {
+            Counter ours = counters.get(theirs.key);
+            if (ours != null) {
+                ours.count += theirs.count;
+                ours.error += theirs.error;
+            } else {
+                counters.put(theirs.key, new Counter(theirs.key, theirs.count + ourMin, theirs.error + ourMin));
+            }
+        }
+        if (counters.size() > capacity) {
+            List<Counter> sorted = sortedCounters();
+            counters.clear();
+            for (Counter counter : sorted.subList(0, capacity)) {
+                counters.put(counter.key, counter);
+            }
+        }
+    }
+
+    public String top() {
+        Counter best = null;
+        for (Counter counter : counters.values()) {
+            if (best == null || counter.count > best.count) {
+                best = counter;
+            }
+        }
+        return best != null ? best.key : null;
+    }
+
+    public List<Map.Entry<String, Long>> top(int k) {
+        List<Map.Entry<String, Long>> result = new ArrayList<>();
+        for (Counter counter : sortedCounters()) {
+            if (result.size() == k) break;
+            result.add(Map.entry(counter.key, counter.count));
+        }
+        return result;
+    }
+
+    // Most an untracked key can have occurred: 0 until the sketch is full and has started evicting
+    private long minCount() {
+        return counters.size() < capacity || counters.isEmpty() ? 0 : minCounter().count;
+    }
+
+    private Counter minCounter() {
+        Counter min = null;
+        for (Counter counter : counters.values()) {
+            if (min == null || counter.count < min.count) {
+                min = counter;
+            }
+        }
+        return min;
+    }
+
+    private List<Counter> sortedCounters() {
+        List<Counter> sorted = new ArrayList<>(counters.values());
+        sorted.sort(Comparator.comparingLong((Counter c) -> c.count).reversed());
+        return sorted;
+    }
+
+    private static final class Counter {
+        private final String key;
+        private long count;
+        private long error;
+
+        private Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
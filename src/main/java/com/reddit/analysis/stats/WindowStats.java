@@ -0,0 +1,88 @@
+package com.reddit.analysis.stats;
+
+import com.reddit.analysis.model.AnalysisStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@link AnalysisStats} over a sliding window of posts, where every post's contribution can be
+ * taken back out exactly, so eviction and score changes cost O(log n) instead of a rebuild.
+ * Unlike {@link StatsAccumulator} it keeps per-author and per-score counts, which is fine for a
+ * window of a few hundred posts but not for a crawl. Like the incremental window it only sees
+ * posts, so {@code mostActiveUser} is the author with the most posts in the window.
+ */
+public class WindowStats {
+
+    private long totalPosts;
+    private long totalComments;
+    private long upvoteSum;
+    // Insertion ordered, so ties go to the author who posted first, as in a sequential scan
+    private final Map<String, Integer> postsByAuthor = new LinkedHashMap<>();
+    // Score -> post id -> title, ids in the order they reached that score
+    private final TreeMap<Integer, Map<String, String>> postsByUpvotes = new TreeMap<>();
+
+    public void add(String id, String title, String author, int upvotes, int commentCount) {
+        totalPosts++;
+        totalComments += commentCount;
+        upvoteSum += upvotes;
+        postsByUpvotes.computeIfAbsent(upvotes, score -> new LinkedHashMap<>()).put(id, title);
+        if (author != null && !"unknown".equals(author)) {
+            postsByAuthor.merge(author, 1, Integer::sum);
+        }
+    }
+
+    /** Takes out a post added earlier, with its current score and comment count. */
+    public void remove(String id, String author, int upvotes, int commentCount) {
+        totalPosts--;
+        totalComments -= commentCount;
+        upvoteSum -= upvotes;
+        removeScore(id, upvotes);
+        if (author != null && !"unknown".equals(author)) {
+            postsByAuthor.computeIfPresent(author, (a, posts) -> posts == 1 ? null : posts - 1);
+        }
+    }
+
+    public void update(String id, String title, int oldUpvotes, int newUpvotes, int commentDelta) {
+        totalComments += commentDelta;
+        if (newUpvotes == oldUpvotes) return;
+        upvoteSum += newUpvotes - oldUpvotes;
+        removeScore(id, oldUpvotes);
+        postsByUpvotes.computeIfAbsent(newUpvotes, score -> new LinkedHashMap<>()).put(id, title);
+    }
+
+    public AnalysisStats toStats() {
+        AnalysisStats stats = new AnalysisStats();
+        stats.setTotalPosts((int) totalPosts);
+        stats.setTotalComments((int) totalComments);
+        stats.setTotalUsers(postsByAuthor.size());
+        stats.setMostActiveUser(mostActiveUser());
+        Map.Entry<Integer, Map<String, String>> top = postsByUpvotes.lastEntry();
+        stats.setMostUpvotedPost(top != null ? top.getValue().values().iterator().next() : null);
+        double averageUpvotes = totalPosts == 0 ? 0.0 : (double) upvoteSum / totalPosts;
+        stats.setAverageScore(Math.round(averageUpvotes * 10.0) / 10.0);
+        return stats;
+    }
+
+    private void removeScore(String id, int upvotes) {
+        Map<String, String> posts = postsByUpvotes.get(upvotes);
+        if (posts == null) return;
+        posts.remove(id);
+        if (posts.isEmpty()) {
+            postsByUpvotes.remove(upvotes);
+        }
+    }
+
+    private String mostActiveUser() {
+        String best = null;
+        int bestPosts = 0;
+        for (Map.Entry<String, Integer> entry : postsByAuthor.entrySet()) {
+            if (entry.getValue() > bestPosts) {
+                best = entry.getKey();
+                bestPosts = entry.getValue();
+            }
+        }
+        return best;
+    }
+}
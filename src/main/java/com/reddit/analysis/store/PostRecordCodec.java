@@ -0,0 +1,188 @@
+package com.reddit.analysis.store;
+
+import com.reddit.analysis.model.CommentBatch;
+import com.reddit.analysis.model.PostBatch;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary layout of a stored post: key fields first so the index can be rebuilt by reading
+ * only the record prefix, followed by the post columns and its comments in parse order.
+ */
+final class PostRecordCodec {
+
+    private static final byte VERSION = 1;
+
+    private PostRecordCodec() {}
+
+    static byte[] encode(String subreddit, PostBatch batch, int post, long storedAtEpochSeconds) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + batch.contentEnd(post) - batch.titleStart(post));
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            writeString(out, subreddit);
+            writeString(out, batch.id(post));
+            out.writeLong(storedAtEpochSeconds);
+            writeString(out, batch.title(post));
+            writeString(out, batch.content(post));
+            writeString(out, batch.author(post));
+            out.writeInt(batch.upvotes(post));
+            out.writeInt(batch.commentCount(post));
+            out.writeLong(batch.createdEpochSeconds(post));
+
+            CommentBatch comments = batch.comments();
+            int first = -1;
+            int count = 0;
+            for (int i = 0; i < comments.size(); i++) {
+                if (comments.postIndex(i) == post) {
+                    if (first < 0) first = i;
+                    count++;
+                }
+            }
+            out.writeInt(count);
+            for (int i = 0; i < comments.size(); i++) {
+                if (comments.postIndex(i) != post) continue;
+                writeString(out, comments.id(i));
+                // Parents are stored relative to the post's first comment
+                out.writeInt(comments.parentIndex(i) < 0 ? -1 : comments.parentIndex(i) - first);
+                writeString(out, comments.content(i));
+                writeString(out, comments.author(i));
+                out.writeInt(comments.upvotes(i));
+                out.writeLong(comments.createdEpochSeconds(i));
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String readSubreddit(ByteBuffer record) {
+        ByteBuffer view = record.duplicate();
+        view.get();
+        return readString(view);
+    }
+
+    static String readPostId(ByteBuffer record) {
+        ByteBuffer view = record.duplicate();
+        view.get();
+        skipString(view);
+        return readString(view);
+    }
+
+    static long readStoredAt(ByteBuffer record) {
+        ByteBuffer view = record.duplicate();
+        view.get();
+        skipString(view);
+        skipString(view);
+        return view.getLong();
+    }
+
+    static long readCreatedEpochSeconds(ByteBuffer record) {
+        ByteBuffer view = record.duplicate();
+        view.get();
+        skipString(view);
+        skipString(view);
+        view.getLong();
+        skipString(view);
+        skipString(view);
+        skipString(view);
+        view.getInt();
+        view.getInt();
+        return view.getLong();
+    }
+
+    static int readCommentCount(ByteBuffer record) {
+        ByteBuffer view = record.duplicate();
+        view.position(view.position() + commentsOffset(view));
+        return view.getInt();
+    }
+
+    /**
+     * The post columns of {@code record} followed by the comments of {@code previous}, for a
+     * listing re-scrape that refreshes a post without fetching its thread.
+     */
+    static byte[] withComments(byte[] record, ByteBuffer previous) {
+        int head = commentsOffset(ByteBuffer.wrap(record));
+        ByteBuffer tail = previous.duplicate();
+        tail.position(tail.position() + commentsOffset(tail));
+        byte[] merged = new byte[head + tail.remaining()];
+        System.arraycopy(record, 0, merged, 0, head);
+        tail.get(merged, head, tail.remaining());
+        return merged;
+    }
+
+    // Bytes from the start of the record to its comment count
+    private static int commentsOffset(ByteBuffer record) {
+        ByteBuffer view = record.duplicate();
+        int start = view.position();
+        view.get();
+        skipString(view);
+        skipString(view);
+        view.getLong();
+        skipString(view);
+        skipString(view);
+        skipString(view);
+        view.getInt();
+        view.getInt();
+        view.getLong();
+        return view.position() - start;
+    }
+
+    static void decodeInto(ByteBuffer record, PostBatch.Builder batch) {
+        ByteBuffer view = record.duplicate();
+        view.get();
+        skipString(view);
+        String id = readString(view);
+        view.getLong();
+        String title = readString(view);
+        String content = readString(view);
+        String author = readString(view);
+        int upvotes = view.getInt();
+        int commentCount = view.getInt();
+        long created = view.getLong();
+        int post = batch.add(id, title, content, author, upvotes, commentCount, created);
+
+        CommentBatch.Builder comments = batch.comments();
+        int base = comments.size();
+        int count = view.getInt();
+        for (int i = 0; i < count; i++) {
+            String commentId = readString(view);
+            int parent = view.getInt();
+            String body = readString(view);
+            String commentAuthor = readString(view);
+            int commentUpvotes = view.getInt();
+            long commentCreated = view.getLong();
+            comments.add(post, parent < 0 ? -1 : base + parent, commentId, body, commentAuthor, commentUpvotes, commentCreated);
+        }
+    }
+
+    static byte[] copy(ByteBuffer record) {
+        byte[] bytes = new byte[record.remaining()];
+        record.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer view) {
+        int length = view.getInt();
+        byte[] bytes = new byte[length];
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void skipString(ByteBuffer view) {
+        int length = view.getInt();
+        view.position(view.position() + length);
+    }
+}
@@ -0,0 +1,351 @@
+package com.reddit.analysis.store;
+
+import com.reddit.analysis.model.PostBatch;
+import com.reddit.analysis.util.Hashing;
+import com.reddit.analysis.util.LongLongHashMap;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Embedded append-only store of scraped posts and their comments, keyed by subreddit and
+ * post id. Writes append to the active memory-mapped segment; re-scraping a post appends a
+ * newer version and the old record becomes garbage until compaction rewrites the segment.
+ * A version without comments (from a listing) keeps the comments of the version it replaces.
+ * Once the segments add up to more than {@code store.max-bytes}, the oldest is dropped with
+ * every post whose latest version it holds, so the store keeps the most recently written posts.
+ */
+@Component
+public class PostStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostStore.class);
+
+    // Looked up per write, so listeners may depend on the store without a cycle
+    @Autowired
+    private ObjectProvider<PostWriteListener> writeListeners;
+
+    @Value("${store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${store.path:data/store}")
+    private String storePath;
+
+    @Value("${store.segment-size-bytes:16777216}")
+    private int segmentSize;
+
+    @Value("${store.compaction-threshold:0.5}")
+    private double compactionThreshold;
+
+    @Value("${store.max-bytes:1073741824}")
+    private long maxBytes;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    // subreddit (lower-case) -> hash64(post id) -> (segment id << 32 | offset); a hit is checked
+    // against the record's own id, so a hash collision reads as a miss rather than the wrong post
+    private final Map<String, LongLongHashMap> index = new HashMap<>();
+    // Segments no longer reachable from the index, deleted once no read that started earlier is running
+    private final Queue<Segment> retired = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger activeReads = new AtomicInteger();
+    private Path directory;
+    private Segment active;
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) return;
+        directory = Paths.get(storePath);
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().matches("segment-\\d{8}\\.dat"))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : files) {
+            Segment segment = Segment.open(directory, Segment.parseId(file), segmentSize);
+            segments.put(segment.id(), segment);
+            // Later records supersede earlier ones, so replaying in file order rebuilds the index
+            segment.recover((offset, record) -> indexRecord(segment, offset, record));
+        }
+        active = segments.isEmpty() ? newSegment(0) : segments.lastEntry().getValue();
+        logger.info("Post store opened at {} with {} segments and {} subreddits", directory, segments.size(), index.size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void write(String subreddit, PostBatch batch) {
+        if (batch.size() == 0) return;
+        writeListeners.orderedStream().forEach(listener -> listener.onWrite(subreddit, batch));
+        if (!enabled) return;
+        long now = System.currentTimeMillis() / 1000;
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                byte[] record = PostRecordCodec.encode(subreddit, batch, i, now);
+                if (PostRecordCodec.readCommentCount(ByteBuffer.wrap(record)) == 0) {
+                    long previous = find(subreddit, batch.id(i));
+                    if (previous != LongLongHashMap.ABSENT && PostRecordCodec.readCommentCount(locate(previous)) > 0) {
+                        record = PostRecordCodec.withComments(record, locate(previous));
+                    }
+                }
+                append(subreddit, batch.id(i), record);
+            }
+            enforceSizeLimit();
+        } catch (IOException e) {
+            logger.error("Failed to write {} posts for r/{} to the post store", batch.size(), subreddit, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Newest stored posts of a subreddit by creation time, or an empty batch. */
+    public PostBatch read(String subreddit, int limit) {
+        PostBatch.Builder batch = new PostBatch.Builder();
+        if (!enabled) return batch.build();
+        beginRead();
+        try {
+            LongLongHashMap posts = index.get(key(subreddit));
+            List<ByteBuffer> records = new ArrayList<>(posts == null ? 0 : posts.size());
+            if (posts != null) {
+                posts.forEach((postKey, location) -> records.add(locate(location)));
+            }
+            records.sort(Comparator.comparingLong(PostRecordCodec::readCreatedEpochSeconds).reversed());
+            for (ByteBuffer record : records.subList(0, Math.min(limit, records.size()))) {
+                PostRecordCodec.decodeInto(record, batch);
+            }
+        } finally {
+            endRead();
+        }
+        return batch.build();
+    }
+
+    public PostBatch readPost(String subreddit, String postId) {
+        PostBatch.Builder batch = new PostBatch.Builder();
+        if (!enabled) return batch.build();
+        beginRead();
+        try {
+            long location = find(subreddit, postId);
+            if (location != LongLongHashMap.ABSENT) {
+                PostRecordCodec.decodeInto(locate(location), batch);
+            }
+        } finally {
+            endRead();
+        }
+        return batch.build();
+    }
+
+    /** Subreddits with stored posts, lower-cased. */
+    public List<String> subreddits() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(index.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size(String subreddit) {
+        lock.readLock().lock();
+        try {
+            LongLongHashMap posts = index.get(key(subreddit));
+            return posts == null ? 0 : posts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${store.compaction-interval-ms:600000}")
+    public void compact() {
+        if (!enabled) return;
+        lock.writeLock().lock();
+        try {
+            deleteRetired();
+            for (Segment segment : new ArrayList<>(segments.values())) {
+                if (segment == active || segment.writePosition() == 0) continue;
+                double liveRatio = (double) segment.liveBytes() / segment.writePosition();
+                if (liveRatio >= compactionThreshold) continue;
+
+                int[] moved = new int[1];
+                segment.forEach((offset, record) -> {
+                    String subreddit = PostRecordCodec.readSubreddit(record);
+                    String postId = PostRecordCodec.readPostId(record);
+                    if (find(subreddit, postId) == location(segment, offset)) {
+                        try {
+                            append(subreddit, postId, PostRecordCodec.copy(record));
+                            moved[0]++;
+                        } catch (IOException e) {
+                            throw new IllegalStateException("Compaction failed to copy " + postId, e);
+                        }
+                    }
+                });
+                active.flush();
+                retire(segment);
+                logger.info("Compacted segment {} ({} live records moved)", segment.id(), moved[0]);
+            }
+            enforceSizeLimit();
+        } catch (IllegalStateException e) {
+            logger.error("Post store compaction failed", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) return;
+        lock.writeLock().lock();
+        try {
+            segments.values().forEach(Segment::flush);
+            deleteRetired();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void append(String subreddit, String postId, byte[] record) throws IOException {
+        if (!active.fits(record.length)) {
+            active.flush();
+            active = newSegment(active.id() + 1, record.length);
+        }
+        int offset = active.append(record);
+        long previous = index.computeIfAbsent(key(subreddit), k -> new LongLongHashMap())
+                .put(Hashing.hash64(postId), location(active, offset));
+        if (previous != LongLongHashMap.ABSENT) {
+            release(previous);
+        }
+    }
+
+    private void indexRecord(Segment segment, int offset, ByteBuffer record) {
+        String subreddit = PostRecordCodec.readSubreddit(record);
+        String postId = PostRecordCodec.readPostId(record);
+        long previous = index.computeIfAbsent(key(subreddit), k -> new LongLongHashMap())
+                .put(Hashing.hash64(postId), location(segment, offset));
+        if (previous != LongLongHashMap.ABSENT) {
+            release(previous);
+        }
+    }
+
+    // Location of the latest version of a post, or ABSENT. Callers hold the lock.
+    private long find(String subreddit, String postId) {
+        LongLongHashMap posts = index.get(key(subreddit));
+        if (posts == null) return LongLongHashMap.ABSENT;
+        long location = posts.get(Hashing.hash64(postId));
+        if (location == LongLongHashMap.ABSENT || !postId.equals(PostRecordCodec.readPostId(locate(location)))) {
+            return LongLongHashMap.ABSENT;
+        }
+        return location;
+    }
+
+    // Drops the oldest segments, and the posts whose latest version they hold, until under the cap
+    private void enforceSizeLimit() {
+        long total = 0;
+        for (Segment segment : segments.values()) {
+            total += segment.capacity();
+        }
+        while (total > maxBytes && segments.firstEntry().getValue() != active) {
+            Segment oldest = segments.firstEntry().getValue();
+            int[] dropped = new int[1];
+            oldest.forEach((offset, record) -> {
+                String subreddit = key(PostRecordCodec.readSubreddit(record));
+                LongLongHashMap posts = index.get(subreddit);
+                long postKey = Hashing.hash64(PostRecordCodec.readPostId(record));
+                if (posts != null && posts.get(postKey) == location(oldest, offset)) {
+                    posts.remove(postKey);
+                    dropped[0]++;
+                    if (posts.size() == 0) {
+                        index.remove(subreddit);
+                    }
+                }
+            });
+            total -= oldest.capacity();
+            retire(oldest);
+            logger.info("Dropped segment {} ({} posts) to keep the store under {} bytes", oldest.id(), dropped[0], maxBytes);
+        }
+    }
+
+    // Unreachable from now on; the file goes once reads that may still hold its records are done
+    private void retire(Segment segment) {
+        segments.remove(segment.id());
+        retired.add(segment);
+        if (activeReads.get() == 0) {
+            deleteRetired();
+        }
+    }
+
+    private void beginRead() {
+        lock.readLock().lock();
+        activeReads.incrementAndGet();
+    }
+
+    private void endRead() {
+        try {
+            if (activeReads.decrementAndGet() == 0 && !retired.isEmpty()) {
+                deleteRetired();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void deleteRetired() {
+        Segment segment;
+        while ((segment = retired.poll()) != null) {
+            try {
+                Files.deleteIfExists(segment.path());
+            } catch (IOException e) {
+                logger.warn("Could not delete retired segment {}: {}", segment.path(), e.getMessage());
+            }
+        }
+    }
+
+    private void release(long location) {
+        Segment segment = segments.get((int) (location >>> 32));
+        if (segment != null) {
+            segment.release((int) location);
+        }
+    }
+
+    private ByteBuffer locate(long location) {
+        return segments.get((int) (location >>> 32)).read((int) location);
+    }
+
+    private Segment newSegment(int id) throws IOException {
+        return newSegment(id, 0);
+    }
+
+    private Segment newSegment(int id, int minimumPayload) throws IOException {
+        int capacity = Math.max(segmentSize, minimumPayload + 2 * Segment.HEADER_BYTES);
+        Segment segment = Segment.open(directory, id, capacity);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private static long location(Segment segment, int offset) {
+        return ((long) segment.id() << 32) | (offset & 0xffffffffL);
+    }
+
+    private static String key(String subreddit) {
+        return subreddit.toLowerCase(Locale.ROOT);
+    }
+}
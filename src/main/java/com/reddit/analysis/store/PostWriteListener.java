@@ -0,0 +1,12 @@
+package com.reddit.analysis.store;
+
+import com.reddit.analysis.model.PostBatch;
+
+/**
+ * Notified of every batch handed to {@link PostStore#write}, including when the store itself is
+ * disabled, so derived structures (such as the search index) see all scraped content.
+ */
+public interface PostWriteListener {
+
+    void onWrite(String subreddit, PostBatch batch);
+}
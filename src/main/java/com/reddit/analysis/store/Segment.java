@@ -0,0 +1,162 @@
+package com.reddit.analysis.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One append-only segment file, mapped read-write for its full capacity. Records are
+ * {@code [int length][int crc32c][payload]}; a zero length marks the end of written data, which
+ * is what a freshly mapped (zero-filled) region reads as. A mapped write reaches the disk in no
+ * particular order, so after a crash a length can be there without its payload; the checksum
+ * catches that, and recovery treats the first record that fails it as the end of the segment.
+ */
+class Segment {
+
+    private static final Logger logger = LoggerFactory.getLogger(Segment.class);
+
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final int id;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int writePosition;
+    private long liveBytes;
+
+    private Segment(int id, Path path, MappedByteBuffer buffer, int capacity) {
+        this.id = id;
+        this.path = path;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    static Segment open(Path directory, int id, int capacity) throws IOException {
+        Path path = directory.resolve(fileName(id));
+        if (Files.exists(path)) {
+            capacity = (int) Math.max(capacity, Files.size(path));
+        }
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new Segment(id, path, buffer, capacity);
+        }
+    }
+
+    static String fileName(int id) {
+        return String.format("segment-%08d.dat", id);
+    }
+
+    static int parseId(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring("segment-".length(), name.length() - ".dat".length()));
+    }
+
+    int id() {
+        return id;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int writePosition() {
+        return writePosition;
+    }
+
+    long liveBytes() {
+        return liveBytes;
+    }
+
+    boolean fits(int payloadLength) {
+        // Leave room for the terminating zero length after the record
+        return writePosition + HEADER_BYTES + payloadLength + HEADER_BYTES <= capacity;
+    }
+
+    int append(byte[] payload) {
+        int offset = writePosition;
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + HEADER_BYTES);
+        view.put(payload);
+        view.putInt(offset + Integer.BYTES, checksum(payload));
+        view.putInt(offset, payload.length);
+        writePosition = offset + HEADER_BYTES + payload.length;
+        liveBytes += HEADER_BYTES + payload.length;
+        return offset;
+    }
+
+    ByteBuffer read(int offset) {
+        ByteBuffer view = buffer.duplicate();
+        int length = view.getInt(offset);
+        view.position(offset + HEADER_BYTES);
+        view.limit(offset + HEADER_BYTES + length);
+        return view.slice();
+    }
+
+    int recordBytes(int offset) {
+        return HEADER_BYTES + buffer.getInt(offset);
+    }
+
+    void release(int offset) {
+        liveBytes -= recordBytes(offset);
+    }
+
+    /** Visits every written record in file order, stopping at the first one that fails its checksum. */
+    int forEach(RecordVisitor visitor) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= capacity) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > capacity) break;
+            ByteBuffer record = read(offset);
+            if (checksum(record.duplicate()) != buffer.getInt(offset + Integer.BYTES)) {
+                logger.warn("Segment {} record at offset {} fails its checksum; treating it as the end of the segment", id, offset);
+                break;
+            }
+            visitor.visit(offset, record);
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    /** Rebuilds the write position and live byte count of a segment reopened from disk. */
+    void recover(RecordVisitor visitor) {
+        liveBytes = 0;
+        writePosition = forEach((offset, record) -> {
+            liveBytes += recordBytes(offset);
+            visitor.visit(offset, record);
+        });
+    }
+
+    void flush() {
+        buffer.force();
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static int checksum(ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    interface RecordVisitor {
+        void visit(int offset, ByteBuffer record);
+    }
+}
@@ -0,0 +1,86 @@
+package com.reddit.analysis.text;
+
+import com.reddit.analysis.util.Hashing;
+import com.reddit.analysis.util.LongIntHashMap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Background corpus statistics for topic scoring: how many documents contain each term, keyed by
+ * the term's 64-bit hash. Document keys are remembered too, so a post that is scraped again is
+ * only counted once. Thread-safe.
+ */
+public class DocumentFrequencies {
+
+    private static final int MAGIC = 0x52444654; // "RDFT"
+    private static final int VERSION = 1;
+
+    private final LongIntHashMap frequencies;
+    private final LongIntHashMap documents;
+    private int documentCount;
+
+    public DocumentFrequencies() {
+        this(new LongIntHashMap(1024), new LongIntHashMap(256), 0);
+    }
+
+    private DocumentFrequencies(LongIntHashMap frequencies, LongIntHashMap documents, int documentCount) {
+        this.frequencies = frequencies;
+        this.documents = documents;
+        this.documentCount = documentCount;
+    }
+
+    /**
+     * Counts a document once per distinct term in {@code termHashes[0..count)}, which may repeat;
+     * the array is sorted in place. Returns false when the document was already counted.
+     */
+    public synchronized boolean addDocument(long documentKey, long[] termHashes, int count) {
+        if (documents.containsKey(documentKey)) return false;
+        documents.put(documentKey, 1);
+        documentCount++;
+        Arrays.sort(termHashes, 0, count);
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || termHashes[i] != termHashes[i - 1]) {
+                frequencies.addTo(termHashes[i], 1);
+            }
+        }
+        return true;
+    }
+
+    public synchronized int documentCount() {
+        return documentCount;
+    }
+
+    public synchronized int documentFrequency(CharSequence term) {
+        return frequencies.get(Hashing.hash64(term));
+    }
+
+    /** Smoothed inverse document frequency, {@code ln((N + 1) / (df + 1)) + 1}; unseen terms score highest. */
+    public synchronized double idf(CharSequence term) {
+        return Math.log((documentCount + 1.0) / (frequencies.get(Hashing.hash64(term)) + 1.0)) + 1;
+    }
+
+    public synchronized int termCount() {
+        return frequencies.size();
+    }
+
+    public synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(documentCount);
+        frequencies.writeTo(out);
+        documents.writeTo(out);
+    }
+
+    public static DocumentFrequencies readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a document frequency table");
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("Unsupported document frequency table version " + version);
+        int documentCount = in.readInt();
+        LongIntHashMap frequencies = LongIntHashMap.readFrom(in);
+        LongIntHashMap documents = LongIntHashMap.readFrom(in);
+        return new DocumentFrequencies(frequencies, documents, documentCount);
+    }
+}
@@ -0,0 +1,151 @@
+package com.reddit.analysis.text;
+
+import com.reddit.analysis.util.Hashing;
+import com.reddit.analysis.util.LongIntHashMap;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Counts bigrams and trigrams of adjacent candidate words and ranks them by normalized pointwise
+ * mutual information, so "spring boot" outranks two words that are merely frequent. Tokens are
+ * interned to int ids as they are scanned (a string is only built for a new word) and n-grams are
+ * counted under packed ids in primitive maps. A word rejected by the predicate breaks the run, and
+ * so does a URL, whose parts ("https github com") are skipped rather than counted.
+ * Not thread-safe; one instance per corpus.
+ */
+public final class PhraseCounter {
+
+    // Rarer n-grams get inflated PMI from chance co-occurrence
+    private static final int MIN_COUNT = 3;
+    private static final int TRIGRAM_ID_BITS = 21;
+    private static final long TRIGRAM_ID_MASK = (1L << TRIGRAM_ID_BITS) - 1;
+
+    private final Predicate<String> phraseWord;
+    // Token hash -> id + 1, so the 0 returned for absent keys is never a valid id
+    private final LongIntHashMap ids = new LongIntHashMap(1024);
+    private final LongIntHashMap bigrams = new LongIntHashMap(1024);
+    private final LongIntHashMap trigrams = new LongIntHashMap(1024);
+    private final StringBuilder word = new StringBuilder();
+    private String[] words = new String[256];
+    private boolean[] candidates = new boolean[256];
+    private int[] counts = new int[256];
+    private int vocabulary;
+    private long tokens;
+
+    public PhraseCounter(Predicate<String> phraseWord) {
+        this.phraseWord = phraseWord;
+    }
+
+    /** Counts one field of text; n-grams never span two calls. */
+    public void add(CharSequence text, int start, int end) {
+        int previous = -1;
+        int beforePrevious = -1;
+        for (int i = start; i <= end; i++) {
+            char c = i < end ? text.charAt(i) : ' ';
+            if (word.length() == 0 && (i == start || Character.isWhitespace(text.charAt(i - 1)))) {
+                int urlEnd = Tokenizer.urlEnd(text, i, end);
+                if (urlEnd >= 0) {
+                    previous = beforePrevious = -1;
+                    i = urlEnd; // the whitespace after it, or end
+                    continue;
+                }
+            }
+            if (Tokenizer.isWordChar(c)) {
+                word.append(Tokenizer.lower(c));
+                continue;
+            }
+            if (word.length() == 0) continue;
+            int id = intern();
+            word.setLength(0);
+            tokens++;
+            counts[id]++;
+            if (!candidates[id]) {
+                previous = beforePrevious = -1;
+                continue;
+            }
+            if (previous >= 0 && previous != id) {
+                bigrams.addTo(((long) previous << 32) | id, 1);
+                if (beforePrevious >= 0 && beforePrevious != previous
+                        && (beforePrevious | previous | id) <= TRIGRAM_ID_MASK) {
+                    trigrams.addTo(((long) beforePrevious << 2 * TRIGRAM_ID_BITS) | ((long) previous << TRIGRAM_ID_BITS) | id, 1);
+                }
+            }
+            beforePrevious = previous;
+            previous = id;
+        }
+    }
+
+    /**
+     * Up to {@code limit} phrases and their counts, best first. A bigram that mostly occurs inside
+     * one trigram ("learning engineer" in "machine learning engineer") is left to the trigram.
+     */
+    public Map<String, Integer> top(int limit) {
+        List<Scored> scored = new ArrayList<>();
+        LongIntHashMap absorbed = new LongIntHashMap();
+        trigrams.forEach((key, count) -> {
+            if (count < MIN_COUNT) return;
+            int[] phrase = {(int) (key >>> 2 * TRIGRAM_ID_BITS), (int) ((key >>> TRIGRAM_ID_BITS) & TRIGRAM_ID_MASK), (int) (key & TRIGRAM_ID_MASK)};
+            scored.add(score(phrase, count));
+            absorb(absorbed, ((long) phrase[0] << 32) | phrase[1], count);
+            absorb(absorbed, ((long) phrase[1] << 32) | phrase[2], count);
+        });
+        bigrams.forEach((key, count) -> {
+            if (count < MIN_COUNT || absorbed.containsKey(key)) return;
+            int[] phrase = {(int) (key >>> 32), (int) key};
+            scored.add(score(phrase, count));
+        });
+        scored.sort(Comparator.comparingDouble(Scored::score).reversed());
+
+        Map<String, Integer> top = new LinkedHashMap<>();
+        for (Scored candidate : scored) {
+            if (top.size() == limit || candidate.score() <= 0) break;
+            top.put(phrase(candidate.ids()), candidate.count());
+        }
+        return top;
+    }
+
+    private void absorb(LongIntHashMap absorbed, long bigram, int trigramCount) {
+        if (trigramCount * 3 >= bigrams.get(bigram) * 2) {
+            absorbed.put(bigram, 1);
+        }
+    }
+
+    // NPMI = ln(p(xyz) / (p(x)p(y)p(z))) / -((n - 1) ln p(xyz)), in [-1, 1], weighted by ln(count)
+    private Scored score(int[] phrase, int count) {
+        double logJoint = Math.log((double) count / tokens);
+        double pmi = logJoint;
+        for (int id : phrase) {
+            pmi -= Math.log((double) counts[id] / tokens);
+        }
+        double npmi = pmi / (-(phrase.length - 1) * logJoint);
+        return new Scored(phrase, count, npmi * Math.log(count));
+    }
+
+    private String phrase(int[] phrase) {
+        StringJoiner joiner = new StringJoiner(" ");
+        for (int id : phrase) {
+            joiner.add(words[id]);
+        }
+        return joiner.toString();
+    }
+
+    private int intern() {
+        long hash = Hashing.hash64(word);
+        int id = ids.get(hash) - 1;
+        if (id >= 0) return id;
+        id = vocabulary++;
+        if (id == words.length) {
+            words = Arrays.copyOf(words, id * 2);
+            candidates = Arrays.copyOf(candidates, id * 2);
+            counts = Arrays.copyOf(counts, id * 2);
+        }
+        words[id] = word.toString();
+        candidates[id] = phraseWord.test(words[id]);
+        ids.put(hash, id + 1);
+        return id;
+    }
+
+    private record Scored(int[] ids, int count, double score) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.reddit.analysis.text;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Word tokenizer equivalent to lower-casing the text and splitting on {@code \W+}, but
+ * scanning a range of a shared buffer in place instead of allocating the combined string
+ * and the split array.
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {}
+
+    public static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    public static char lower(char c) {
+        return (c >= 'A' && c <= 'Z') ? (char) (c + 32) : c;
+    }
+
+    /** End of the URL starting at {@code start} (the next whitespace, or {@code end}), or -1 if none starts there. */
+    public static int urlEnd(CharSequence text, int start, int end) {
+        if (!startsWithIgnoreCase(text, start, end, "http://") && !startsWithIgnoreCase(text, start, end, "https://")
+                && !startsWithIgnoreCase(text, start, end, "www.")) {
+            return -1;
+        }
+        int i = start;
+        while (i < end && !Character.isWhitespace(text.charAt(i))) i++;
+        return i;
+    }
+
+    private static boolean startsWithIgnoreCase(CharSequence text, int start, int end, String prefix) {
+        if (end - start < prefix.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (lower(text.charAt(start + i)) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    public static void forEachToken(CharSequence text, Consumer<String> consumer) {
+        forEachToken(text, 0, text.length(), consumer);
+    }
+
+    public static void forEachToken(CharSequence text, int start, int end, Consumer<String> consumer) {
+        char[] buffer = new char[64];
+        int length = 0;
+        for (int i = start; i <= end; i++) {
+            char c = i < end ? text.charAt(i) : ' ';
+            if (isWordChar(c)) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, length * 2);
+                }
+                buffer[length++] = lower(c);
+            } else if (length > 0) {
+                consumer.accept(new String(buffer, 0, length));
+                length = 0;
+            }
+        }
+    }
+}
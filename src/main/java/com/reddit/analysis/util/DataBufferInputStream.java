@@ -0,0 +1,64 @@
+package com.reddit.analysis.util;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Blocking {@link InputStream} over a {@code Flux<DataBuffer>} that requests at most
+ * {@code prefetch} buffers ahead of the reader, so a slow consumer applies backpressure to the
+ * connection rather than letting the body accumulate. Closing early cancels the upstream and
+ * releases anything already fetched.
+ */
+public class DataBufferInputStream extends InputStream {
+
+    private final Stream<DataBuffer> stream;
+    private final Iterator<DataBuffer> buffers;
+    private DataBuffer current;
+    private boolean closed;
+
+    public DataBufferInputStream(Flux<DataBuffer> body, int prefetch) {
+        this.stream = body.doOnDiscard(DataBuffer.class, DataBufferUtils::release).toStream(prefetch);
+        this.buffers = stream.iterator();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int n = read(one, 0, 1);
+        return n < 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) throws IOException {
+        if (closed) throw new IOException("Stream closed");
+        if (length == 0) return 0;
+        while (current == null || current.readableByteCount() == 0) {
+            if (current != null) {
+                DataBufferUtils.release(current);
+                current = null;
+            }
+            if (!buffers.hasNext()) return -1;
+            current = buffers.next();
+        }
+        int n = Math.min(length, current.readableByteCount());
+        current.read(target, offset, n);
+        return n;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        if (current != null) {
+            DataBufferUtils.release(current);
+            current = null;
+        }
+        stream.close();
+    }
+}
@@ -0,0 +1,43 @@
+package com.reddit.analysis.util;
+
+public final class Hashing {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {}
+
+    // FNV-1a over UTF-16 chars, finished with the murmur3 mixer so every bit is usable
+    public static long hash64(CharSequence value) {
+        return hash64(value, 0, value.length());
+    }
+
+    public static long hash64(CharSequence value, int start, int end) {
+        long h = FNV_OFFSET;
+        for (int i = start; i < end; i++) {
+            h ^= value.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return mix64(h);
+    }
+
+    // hash64 of the ASCII-lower-cased range, without building the lower-cased string
+    public static long hash64LowerCase(CharSequence value, int start, int end) {
+        long h = FNV_OFFSET;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            h ^= (c >= 'A' && c <= 'Z') ? c + 32 : c;
+            h *= FNV_PRIME;
+        }
+        return mix64(h);
+    }
+
+    public static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,142 @@
+package com.reddit.analysis.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Open-addressing hash map from {@code long} to {@code int} with linear probing and no boxing:
+ * two parallel arrays kept at most two-thirds full. Keys are mixed before probing, so packed ids
+ * work as well as hashes; key 0 is stored beside the table, since 0 marks an empty slot.
+ * Not thread-safe.
+ */
+public final class LongIntHashMap {
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 3 / 2) - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) return hasZeroKey;
+        return keys[slot(key)] == key;
+    }
+
+    /** The value for {@code key}, or 0 when absent. */
+    public int get(long key) {
+        if (key == 0) return hasZeroKey ? zeroValue : 0;
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    public void put(long key, int value) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int slot = slot(key);
+        if (keys[slot] == 0) {
+            keys[slot] = key;
+            size++;
+            values[slot] = value;
+            if (size * 3 > keys.length * 2) grow();
+        } else {
+            values[slot] = value;
+        }
+    }
+
+    /** Adds {@code delta} to the value of {@code key} (absent counts as 0) and returns the result. */
+    public int addTo(long key, int delta) {
+        if (key == 0) {
+            hasZeroKey = true;
+            return zeroValue += delta;
+        }
+        int slot = slot(key);
+        if (keys[slot] == 0) {
+            keys[slot] = key;
+            values[slot] = delta;
+            size++;
+            if (size * 3 > keys.length * 2) grow();
+            return delta;
+        }
+        return values[slot] += delta;
+    }
+
+    public interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        if (hasZeroKey) consumer.accept(0, zeroValue);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) consumer.accept(keys[i], values[i]);
+        }
+    }
+
+    /** Occupied entries only: {@code [int count]} then {@code [long key][int value]} pairs. */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size());
+        if (hasZeroKey) {
+            out.writeLong(0);
+            out.writeInt(zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                out.writeLong(keys[i]);
+                out.writeInt(values[i]);
+            }
+        }
+    }
+
+    public static LongIntHashMap readFrom(DataInput in) throws IOException {
+        int count = in.readInt();
+        LongIntHashMap map = new LongIntHashMap(count);
+        for (int i = 0; i < count; i++) {
+            long key = in.readLong();
+            map.put(key, in.readInt());
+        }
+        return map;
+    }
+
+    // Slot holding key, or the empty slot where it would go
+    private int slot(long key) {
+        int slot = (int) Hashing.mix64(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.reddit.analysis.util;
+
+/**
+ * Open-addressing hash map from {@code long} to non-negative {@code long} with linear probing and
+ * no boxing, laid out like {@link LongIntHashMap}: two parallel arrays kept at most two-thirds
+ * full, key 0 stored beside the table. {@link #ABSENT} (-1) is returned for missing keys, so it
+ * cannot be stored as a value. Removal shifts the rest of the probe run back, leaving no
+ * tombstones. Not thread-safe.
+ */
+public final class LongLongHashMap {
+
+    public static final long ABSENT = -1;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    public LongLongHashMap() {
+        this(16);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 3 / 2) - 1) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    /** The value for {@code key}, or {@link #ABSENT}. */
+    public long get(long key) {
+        if (key == 0) return hasZeroKey ? zeroValue : ABSENT;
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : ABSENT;
+    }
+
+    /** Sets the value for {@code key} and returns the previous one, or {@link #ABSENT}. */
+    public long put(long key, long value) {
+        if (key == 0) {
+            long previous = hasZeroKey ? zeroValue : ABSENT;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        int slot = slot(key);
+        if (keys[slot] == key) {
+            long previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size * 3 > keys.length * 2) grow();
+        return ABSENT;
+    }
+
+    /** Removes {@code key} and returns its value, or {@link #ABSENT}. */
+    public long remove(long key) {
+        if (key == 0) {
+            long previous = hasZeroKey ? zeroValue : ABSENT;
+            hasZeroKey = false;
+            return previous;
+        }
+        int slot = slot(key);
+        if (keys[slot] != key) return ABSENT;
+        long previous = values[slot];
+        size--;
+        // Moves later entries of the probe run into the gap when the gap is on their probe path
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != 0) {
+            int home = (int) Hashing.mix64(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = 0;
+        return previous;
+    }
+
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        if (hasZeroKey) consumer.accept(0, zeroValue);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) consumer.accept(keys[i], values[i]);
+        }
+    }
+
+    // Slot holding key, or the empty slot where it would go
+    private int slot(long key) {
+        int slot = (int) Hashing.mix64(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldValues.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}